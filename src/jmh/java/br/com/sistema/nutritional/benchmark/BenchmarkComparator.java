@@ -0,0 +1,116 @@
+package br.com.sistema.nutritional.benchmark;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compara um resultado JMH (JSON) com um baseline salvo e falha quando há
+ * regressão de desempenho ou de alocação acima da tolerância.
+ *
+ * Uso: {@code BenchmarkComparator <baseline.json> <resultado.json> [tolerancia%]}
+ *
+ * - Score principal: em modo {@code thrpt} maior é melhor; nos demais modos
+ *   (avgt, sample, ss) menor é melhor.
+ * - Alocação: {@code gc.alloc.rate.norm} (bytes/op, exige {@code -prof gc});
+ *   diferenças abaixo de 16 bytes/op são ignoradas como ruído.
+ *
+ * Retorna código de saída 1 quando há regressão. Sem o arquivo de baseline a
+ * comparação é ignorada com um aviso (código 0).
+ */
+public final class BenchmarkComparator {
+
+    private static final String METRICA_ALOCACAO = "gc.alloc.rate.norm";
+    private static final double RUIDO_ALOCACAO_BYTES = 16.0;
+
+    private BenchmarkComparator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Uso: BenchmarkComparator <baseline.json> <resultado.json> [tolerancia%]");
+            System.exit(2);
+        }
+
+        File baselineArquivo = new File(args[0]);
+        File resultadoArquivo = new File(args[1]);
+        double tolerancia = args.length > 2 ? Double.parseDouble(args[2]) / 100.0 : 0.10;
+
+        // Sem baseline não há com o que comparar: avisa e sai sem falhar
+        if (!baselineArquivo.exists()) {
+            System.out.println("⚠️ Baseline não encontrado, comparação ignorada: " + baselineArquivo);
+            System.out.println("   Gere um com: cp " + resultadoArquivo + " " + baselineArquivo);
+            return;
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = indexar(mapper.readTree(baselineArquivo));
+        Map<String, JsonNode> resultado = indexar(mapper.readTree(resultadoArquivo));
+
+        int regressoes = 0;
+        for (Map.Entry<String, JsonNode> item : resultado.entrySet()) {
+            JsonNode anterior = baseline.get(item.getKey());
+            if (anterior == null) {
+                System.out.printf("🆕 %s (sem baseline)%n", item.getKey());
+                continue;
+            }
+            regressoes += compararScore(item.getKey(), anterior, item.getValue(), tolerancia);
+            regressoes += compararAlocacao(item.getKey(), anterior, item.getValue(), tolerancia);
+        }
+
+        if (regressoes > 0) {
+            System.out.printf("%n❌ %d regressão(ões) acima de %.0f%%%n", regressoes, tolerancia * 100);
+            System.exit(1);
+        }
+        System.out.printf("%n✅ Nenhuma regressão acima de %.0f%%%n", tolerancia * 100);
+    }
+
+    // ==================================
+    // Chave: nome do benchmark + parâmetros
+    // ==================================
+    private static Map<String, JsonNode> indexar(JsonNode resultados) {
+        Map<String, JsonNode> indice = new LinkedHashMap<>();
+        for (JsonNode resultado : resultados) {
+            StringBuilder chave = new StringBuilder(resultado.path("benchmark").asText());
+            JsonNode params = resultado.path("params");
+            params.fieldNames().forEachRemaining(nome ->
+                    chave.append(' ').append(nome).append('=').append(params.path(nome).asText()));
+            indice.put(chave.toString(), resultado);
+        }
+        return indice;
+    }
+
+    private static int compararScore(String nome, JsonNode anterior, JsonNode atual, double tolerancia) {
+        double antes = anterior.path("primaryMetric").path("score").asDouble();
+        double depois = atual.path("primaryMetric").path("score").asDouble();
+        String unidade = atual.path("primaryMetric").path("scoreUnit").asText();
+        boolean maiorMelhor = "thrpt".equals(atual.path("mode").asText());
+
+        double variacao = antes == 0 ? 0 : (depois - antes) / antes;
+        boolean regrediu = maiorMelhor ? variacao < -tolerancia : variacao > tolerancia;
+
+        System.out.printf("%s %s: %.3f -> %.3f %s (%+.1f%%)%n",
+                regrediu ? "❌" : "✅", nome, antes, depois, unidade, variacao * 100);
+        return regrediu ? 1 : 0;
+    }
+
+    private static int compararAlocacao(String nome, JsonNode anterior, JsonNode atual, double tolerancia) {
+        JsonNode antesNode = anterior.path("secondaryMetrics").path(METRICA_ALOCACAO);
+        JsonNode depoisNode = atual.path("secondaryMetrics").path(METRICA_ALOCACAO);
+        if (antesNode.isMissingNode() || depoisNode.isMissingNode()) {
+            return 0;
+        }
+
+        double antes = antesNode.path("score").asDouble();
+        double depois = depoisNode.path("score").asDouble();
+        boolean regrediu = depois - antes > RUIDO_ALOCACAO_BYTES && depois > antes * (1 + tolerancia);
+
+        if (regrediu) {
+            System.out.printf("❌ %s: alocação %.0f -> %.0f B/op%n", nome, antes, depois);
+        }
+        return regrediu ? 1 : 0;
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.sistema.nutritional.benchmark;
+
+import java.util.List;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+/**
+ * ChatModel em processo que imita o fluxo real do assistente: na primeira
+ * rodada pede a tool {@code calcularPlanoCompleto}, na segunda devolve o
+ * texto final. Uma latência opcional simula o round trip do provider.
+ */
+public class StubChatModel implements ChatModel {
+
+    private static final String ARGUMENTOS_PLANO = """
+            {"nome": "João Silva", "idade": 30, "peso": 80.0,
+             "objetivo": "ganho_massa", "intensidadeExercicio": "moderado"}
+            """;
+
+    private final long latenciaMs;
+
+    public StubChatModel() {
+        this(0);
+    }
+
+    public StubChatModel(long latenciaMs) {
+        this.latenciaMs = latenciaMs;
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest request) {
+        if (latenciaMs > 0) {
+            try {
+                Thread.sleep(latenciaMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Stub interrompido", e);
+            }
+        }
+
+        List<ChatMessage> mensagens = request.messages();
+        ChatMessage ultima = mensagens.get(mensagens.size() - 1);
+
+        if (ultima instanceof ToolExecutionResultMessage resultado) {
+            return ChatResponse.builder()
+                    .aiMessage(AiMessage.from("Aqui está seu plano:\n\n" + resultado.text()))
+                    .build();
+        }
+
+        return ChatResponse.builder()
+                .aiMessage(AiMessage.from(ToolExecutionRequest.builder()
+                        .id("call-1")
+                        .name("calcularPlanoCompleto")
+                        .arguments(ARGUMENTOS_PLANO)
+                        .build()))
+                .build();
+    }
+}
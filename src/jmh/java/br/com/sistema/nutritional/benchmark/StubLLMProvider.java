@@ -0,0 +1,48 @@
+package br.com.sistema.nutritional.benchmark;
+
+import br.com.sistema.nutritional.llm.LLMProvider;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+
+/**
+ * LLMProvider em processo sobre um {@link StubChatModel}.
+ */
+public class StubLLMProvider implements LLMProvider {
+
+    private final ChatModel chatModel;
+
+    public StubLLMProvider(ChatModel chatModel) {
+        this.chatModel = chatModel;
+    }
+
+    @Override
+    public String chat(String systemPrompt, String userMessage) {
+        return "Resposta simulada";
+    }
+
+    @Override
+    public void chatStream(String systemPrompt, String userMessage, StreamingChatResponseHandler handler) {
+        throw new UnsupportedOperationException("Streaming não é usado nos benchmarks");
+    }
+
+    @Override
+    public String getProviderName() {
+        return "Stub (benchmark)";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public ChatModel getChatModel() {
+        return chatModel;
+    }
+
+    @Override
+    public StreamingChatModel getStreamingChatModel() {
+        return null;
+    }
+}
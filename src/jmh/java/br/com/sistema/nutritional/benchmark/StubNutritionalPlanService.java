@@ -0,0 +1,67 @@
+package br.com.sistema.nutritional.benchmark;
+
+import br.com.sistema.nutritional.budget.TokenBudgetService;
+import br.com.sistema.nutritional.cache.SemanticResponseCache;
+import br.com.sistema.nutritional.config.ChatMemoryProperties;
+import br.com.sistema.nutritional.config.CoalescingProperties;
+import br.com.sistema.nutritional.config.IntentProperties;
+import br.com.sistema.nutritional.config.LLMProperties;
+import br.com.sistema.nutritional.config.SemanticCacheProperties;
+import br.com.sistema.nutritional.config.TokenBudgetProperties;
+import br.com.sistema.nutritional.intent.LocalIntentRouter;
+import br.com.sistema.nutritional.intent.SlotExtractor;
+import br.com.sistema.nutritional.memory.ConversationMemoryStore;
+import br.com.sistema.nutritional.service.NutritionalPlanCalculator;
+import br.com.sistema.nutritional.service.NutritionalPlanService;
+import br.com.sistema.nutritional.tools.NutritionalPlanTools;
+import dev.langchain4j.service.AiServices;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * {@link NutritionalPlanService} completo (AiServices, tools e memória reais)
+ * sobre um {@link StubChatModel}, com tudo que desviaria a mensagem do LLM
+ * desligado: cache semântico, orçamento de tokens, respostas locais e
+ * coalescência.
+ */
+public final class StubNutritionalPlanService {
+
+    private StubNutritionalPlanService() {
+    }
+
+    public static NutritionalPlanService criar(StubChatModel chatModel) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        NutritionalPlanTools tools = new NutritionalPlanTools(new NutritionalPlanCalculator(), registry, 65536, true);
+        ConversationMemoryStore memoryStore = new ConversationMemoryStore(
+                new ChatMemoryProperties(), registry, (ConversationMemoryStore.Resumidor) null);
+        NutritionalPlanService.NutritionalAiService aiService =
+                AiServices.builder(NutritionalPlanService.NutritionalAiService.class)
+                        .chatModel(chatModel)
+                        .chatMemoryProvider(memoryStore::memoria)
+                        .tools(tools)
+                        .build();
+
+        // Cache semântico desligado: mede o caminho até o LLM
+        SemanticCacheProperties cacheProperties = new SemanticCacheProperties();
+        cacheProperties.setEnabled(false);
+        TokenBudgetProperties budgetProperties = new TokenBudgetProperties();
+        budgetProperties.setEnabled(false);
+        // Respostas locais desligadas: a mensagem precisa chegar ao LLM
+        IntentProperties intentProperties = new IntentProperties();
+        intentProperties.setEnabled(false);
+        // Sem coalescência: cada chamada chega ao LLM, mesmo com mensagens iguais
+        CoalescingProperties coalescingProperties = new CoalescingProperties();
+        coalescingProperties.setEnabled(false);
+
+        return new NutritionalPlanService(
+                aiService,
+                new SemanticResponseCache(cacheProperties, registry),
+                new StubLLMProvider(chatModel),
+                new LLMProperties(),
+                new TokenBudgetService(budgetProperties, registry),
+                memoryStore,
+                new LocalIntentRouter(intentProperties, new SlotExtractor(), tools, memoryStore, registry),
+                coalescingProperties,
+                registry);
+    }
+}
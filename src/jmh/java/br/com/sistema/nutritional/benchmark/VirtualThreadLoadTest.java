@@ -0,0 +1,116 @@
+package br.com.sistema.nutritional.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.LoggerFactory;
+
+import br.com.sistema.nutritional.service.NutritionalPlanService;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+/**
+ * Teste de carga do caminho bloqueante do chat em virtual threads.
+ *
+ * Dispara N chamadas simultâneas a {@link NutritionalPlanService#processMessage}
+ * (AiServices + rodada de tool + resposta final), cada uma em uma virtual
+ * thread, contra um {@link StubChatModel} com latência de round trip. Para
+ * cada nível reporta o pico de chamadas em andamento, o pico de threads de
+ * plataforma e a memória de heap por chamada em andamento.
+ *
+ * Uso: {@code VirtualThreadLoadTest [latenciaMs] [nivel1,nivel2,...]}
+ * (padrão: 2000 ms, 1000,2000,5000). Rodar com {@code -Djdk.tracePinnedThreads=short}
+ * para que qualquer pinning de carrier thread seja impresso.
+ */
+public final class VirtualThreadLoadTest {
+
+    private static final String MENSAGEM =
+            "Quero um plano para ganhar massa. Tenho 30 anos e peso 80kg. Treino 4x por semana.";
+
+    private VirtualThreadLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        long latenciaMs = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        String[] niveis = (args.length > 1 ? args[1] : "1000,2000,5000").split(",");
+
+        // Um log por requisição distorceria a medição
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        NutritionalPlanService service = StubNutritionalPlanService.criar(new StubChatModel(latenciaMs));
+
+        // Aquecimento: carrega classes e caches do AiServices
+        executar(service, 100);
+
+        System.out.printf("%-10s %-10s %-12s %-14s %-16s %-8s%n",
+                "chamadas", "tempo(ms)", "pico ativas", "threads plat.", "heap/chamada KB", "erros");
+
+        for (String nivel : niveis) {
+            Resultado r = executar(service, Integer.parseInt(nivel.trim()));
+            System.out.printf("%-10d %-10d %-12d %-14d %-16.1f %-8d%n",
+                    r.chamadas, r.duracaoMs, r.picoAtivas, r.picoThreadsPlataforma,
+                    r.picoAtivas == 0 ? 0.0 : r.picoHeapBytes / 1024.0 / r.picoAtivas, r.erros);
+        }
+    }
+
+    private record Resultado(int chamadas, long duracaoMs, int picoAtivas,
+                             int picoThreadsPlataforma, long picoHeapBytes, int erros) {
+    }
+
+    private static Resultado executar(NutritionalPlanService service, int chamadas) throws InterruptedException {
+        MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        System.gc();
+        long heapBase = memoria.getHeapMemoryUsage().getUsed();
+
+        AtomicInteger ativas = new AtomicInteger();
+        AtomicInteger picoAtivas = new AtomicInteger();
+        AtomicInteger erros = new AtomicInteger();
+        AtomicLong picoHeap = new AtomicLong();
+        AtomicInteger picoThreads = new AtomicInteger();
+        CountDownLatch fim = new CountDownLatch(chamadas);
+
+        // Amostrador em thread de plataforma: heap e threads de plataforma vivas
+        Thread amostrador = Thread.ofPlatform().daemon().start(() -> {
+            while (fim.getCount() > 0) {
+                picoHeap.accumulateAndGet(memoria.getHeapMemoryUsage().getUsed() - heapBase, Math::max);
+                picoThreads.accumulateAndGet(threads.getThreadCount(), Math::max);
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        long inicio = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < chamadas; i++) {
+                executor.execute(() -> {
+                    picoAtivas.accumulateAndGet(ativas.incrementAndGet(), Math::max);
+                    try {
+                        String resposta = service.processMessage("carga", null, MENSAGEM);
+                        if (resposta.startsWith("Erro")) {
+                            erros.incrementAndGet();
+                        }
+                    } finally {
+                        ativas.decrementAndGet();
+                        fim.countDown();
+                    }
+                });
+            }
+            fim.await();
+        }
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        amostrador.interrupt();
+
+        return new Resultado(chamadas, duracaoMs, picoAtivas.get(), picoThreads.get(), picoHeap.get(), erros.get());
+    }
+}
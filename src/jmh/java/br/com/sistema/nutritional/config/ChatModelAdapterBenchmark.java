@@ -0,0 +1,81 @@
+package br.com.sistema.nutritional.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.sistema.nutritional.benchmark.StubLLMProvider;
+import br.com.sistema.nutritional.tools.NutritionalPlanTools;
+import dev.langchain4j.agent.tool.ToolSpecifications;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+/**
+ * Overhead do adapter ao repassar um {@link ChatRequest}, com todas as tools
+ * registradas e um histórico de {@code turnos} pares pergunta/resposta, a um
+ * modelo que responde instantaneamente. Deve ser constante em relação ao
+ * tamanho do histórico.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ChatModelAdapterBenchmark {
+
+    @Param({"1", "10"})
+    private int turnos;
+
+    private ChatRequest request;
+    private ChatModel adapter;
+
+    @Setup
+    public void setup() {
+        List<ChatMessage> mensagens = new ArrayList<>();
+        mensagens.add(SystemMessage.from("Você é um assistente especializado em nutrição."));
+        for (int i = 0; i < turnos; i++) {
+            mensagens.add(UserMessage.from("Tenho 30 anos e peso 80kg, qual minha TMB? (" + i + ")"));
+            mensagens.add(AiMessage.from("✅ Sua TMB é de aproximadamente 1814 kcal/dia."));
+        }
+        mensagens.add(UserMessage.from("Quero um plano para ganhar massa, treino 4x por semana"));
+
+        request = ChatRequest.builder()
+                .messages(mensagens)
+                .toolSpecifications(ToolSpecifications.toolSpecificationsFrom(NutritionalPlanTools.class))
+                .build();
+
+        ChatResponse resposta = ChatResponse.builder()
+                .aiMessage(AiMessage.from("✅ Plano calculado."))
+                .build();
+        ChatModel instantaneo = new ChatModel() {
+            @Override
+            public ChatResponse chat(ChatRequest chatRequest) {
+                return resposta;
+            }
+        };
+        adapter = new LangChain4jChatModelAdapter.ProviderChatModel(new StubLLMProvider(instantaneo));
+    }
+
+    @Benchmark
+    public ChatResponse repassarRequest() {
+        return adapter.chat(request);
+    }
+}
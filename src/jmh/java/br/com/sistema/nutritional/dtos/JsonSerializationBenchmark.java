@@ -0,0 +1,81 @@
+package br.com.sistema.nutritional.dtos;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import br.com.sistema.nutritional.dtos.request.CreatePlanoRequest;
+import br.com.sistema.nutritional.dtos.response.AssistantResponse;
+import br.com.sistema.nutritional.models.IntensidadeExercicio;
+import br.com.sistema.nutritional.models.Objetivo;
+
+/**
+ * (De)serialização JSON dos DTOs da API com Jackson, como feita pelo Spring MVC.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonSerializationBenchmark {
+
+    private ObjectReader leitorPlano;
+    private ObjectReader leitorResposta;
+    private ObjectWriter escritor;
+
+    private byte[] planoJson;
+    private byte[] respostaJson;
+    private CreatePlanoRequest plano;
+    private AssistantResponse resposta;
+
+    @Setup
+    public void setup() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        leitorPlano = mapper.readerFor(CreatePlanoRequest.class);
+        leitorResposta = mapper.readerFor(AssistantResponse.class);
+        escritor = mapper.writer();
+
+        plano = new CreatePlanoRequest("João Silva", 30, 80.0, Objetivo.EMAGRECIMENTO, IntensidadeExercicio.MODERADO);
+        resposta = AssistantResponse.success(
+                "Qual é minha TMB? Tenho 30 anos e peso 80kg",
+                "✅ TMB Calculada com Sucesso!\n\n📊 Taxa Metabólica Basal (TMB): 1814.33 kcal/dia");
+
+        planoJson = escritor.writeValueAsBytes(plano);
+        respostaJson = escritor.writeValueAsString(resposta).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public CreatePlanoRequest lerCreatePlanoRequest() throws Exception {
+        return leitorPlano.readValue(planoJson);
+    }
+
+    @Benchmark
+    public byte[] escreverCreatePlanoRequest() throws Exception {
+        return escritor.writeValueAsBytes(plano);
+    }
+
+    @Benchmark
+    public AssistantResponse lerAssistantResponse() throws Exception {
+        return leitorResposta.readValue(respostaJson);
+    }
+
+    @Benchmark
+    public byte[] escreverAssistantResponse() throws Exception {
+        return escritor.writeValueAsBytes(resposta);
+    }
+}
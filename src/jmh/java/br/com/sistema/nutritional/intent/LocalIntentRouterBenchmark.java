@@ -0,0 +1,68 @@
+package br.com.sistema.nutritional.intent;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.sistema.nutritional.config.ChatMemoryProperties;
+import br.com.sistema.nutritional.config.IntentProperties;
+import br.com.sistema.nutritional.memory.ConversationMemoryStore;
+import br.com.sistema.nutritional.service.NutritionalPlanCalculator;
+import br.com.sistema.nutritional.tools.NutritionalPlanTools;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Custo da decisão local por tipo de mensagem (alvo: bem abaixo de 1ms).
+ *
+ * {@code completa} calcula o plano sem LLM, {@code incompleta} devolve a
+ * pergunta pelos dados que faltam e {@code livre} é reconhecida como fora do
+ * escopo local e segue para o LLM. Mensagens avulsas: sem memória de conversa.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LocalIntentRouterBenchmark {
+
+    @Param({"completa", "incompleta", "livre"})
+    private String mensagem;
+
+    private LocalIntentRouter router;
+    private String texto;
+
+    @Setup
+    public void setup() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ConversationMemoryStore memoryStore = new ConversationMemoryStore(
+                new ChatMemoryProperties(), registry, (ConversationMemoryStore.Resumidor) null);
+        router = new LocalIntentRouter(
+                new IntentProperties(),
+                new SlotExtractor(),
+                new NutritionalPlanTools(new NutritionalPlanCalculator(), registry, 65536, true),
+                memoryStore,
+                registry);
+
+        texto = switch (mensagem) {
+            case "completa" -> "Quero um plano para ganhar massa. Tenho 30 anos e peso 80kg. Treino 4x por semana.";
+            case "incompleta" -> "Qual a minha TMB? Tenho 30 anos";
+            default -> "Quais alimentos são boas fontes de proteína para quem é vegetariano?";
+        };
+    }
+
+    @Benchmark
+    public Object responder() {
+        return router.responder("benchmark", false, texto);
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.sistema.nutritional.llm;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.sistema.nutritional.benchmark.StubLLMProvider;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.TokenUsage;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+
+/**
+ * Custo das métricas por chamada: provider stub direto vs. o mesmo provider
+ * dentro do {@link InstrumentedLLMProvider} com registry Prometheus
+ * (timer com histograma + contadores de tokens), com 8 threads concorrentes.
+ * A diferença deve ficar na casa das centenas de nanossegundos, irrelevante
+ * perto de uma chamada real ao LLM.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class InstrumentedLLMProviderBenchmark {
+
+    private ChatRequest request;
+    private LLMProvider direto;
+    private LLMProvider instrumentado;
+
+    @Setup
+    public void setup() {
+        request = ChatRequest.builder()
+                .messages(UserMessage.from("Qual minha TMB? Tenho 30 anos e peso 80kg"))
+                .build();
+
+        ChatResponse resposta = ChatResponse.builder()
+                .aiMessage(AiMessage.from("✅ Sua TMB é de aproximadamente 1814 kcal/dia."))
+                .tokenUsage(new TokenUsage(42, 12))
+                .build();
+        ChatModel instantaneo = new ChatModel() {
+            @Override
+            public ChatResponse chat(ChatRequest chatRequest) {
+                return resposta;
+            }
+        };
+
+        direto = new StubLLMProvider(instantaneo);
+        instrumentado = new InstrumentedLLMProvider(new StubLLMProvider(instantaneo),
+                new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+    }
+
+    @Benchmark
+    public ChatResponse direto() {
+        return direto.chat(request);
+    }
+
+    @Benchmark
+    public ChatResponse instrumentado() {
+        return instrumentado.chat(request);
+    }
+}
@@ -0,0 +1,129 @@
+package br.com.sistema.nutritional.llm;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import com.sun.net.httpserver.HttpServer;
+
+import br.com.sistema.nutritional.config.LLMProperties;
+import br.com.sistema.nutritional.config.OpenRouterHttpConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Chamada não-streaming ao OpenRouter contra um servidor stub local
+ * (/chat/completions com resposta fixa), com 8 threads concorrentes:
+ *
+ * - {@code restTemplatePadrao}: caminho anterior, {@code new RestTemplate()}
+ *   (HttpURLConnection, sem timeouts) e corpo em HashMap serializado a cada chamada;
+ * - {@code clientePool}: {@link OpenRouterProvider#chat(String, String)} com o
+ *   pool do HttpClient 5 e o prefixo do corpo pré-serializado.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OpenRouterHttpBenchmark {
+
+    private static final byte[] RESPOSTA = """
+            {"id":"gen-1","choices":[{"index":0,"message":{"role":"assistant",
+            "content":"A TMB é a energia gasta em repouso."},"finish_reason":"stop"}],
+            "usage":{"prompt_tokens":42,"completion_tokens":12,"total_tokens":54}}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private static final String SYSTEM = "Você é um assistente especializado em nutrição.";
+    private static final String MENSAGEM = "O que é TMB?";
+
+    private HttpServer servidor;
+    private HttpComponentsClientHttpRequestFactory requestFactory;
+    private String baseUrl;
+    private RestTemplate restTemplatePadrao;
+    private OpenRouterProvider provider;
+
+    @Setup
+    public void setup() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        servidor.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        servidor.createContext("/chat/completions", troca -> {
+            try (InputStream corpo = troca.getRequestBody()) {
+                corpo.readAllBytes();
+            }
+            troca.getResponseHeaders().set("Content-Type", "application/json");
+            troca.sendResponseHeaders(200, RESPOSTA.length);
+            try (OutputStream saida = troca.getResponseBody()) {
+                saida.write(RESPOSTA);
+            }
+        });
+        servidor.start();
+        baseUrl = "http://127.0.0.1:" + servidor.getAddress().getPort();
+
+        restTemplatePadrao = new RestTemplate();
+
+        LLMProperties.HttpConfig http = new LLMProperties.HttpConfig();
+        requestFactory = OpenRouterHttpConfig.criarRequestFactory(http, new SimpleMeterRegistry());
+        provider = new OpenRouterProvider("chave-benchmark", "openai/gpt-4o-mini", baseUrl, null,
+                new RestTemplate(requestFactory), http.getReadTimeout());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        requestFactory.destroy();
+        servidor.stop(0);
+    }
+
+    @Benchmark
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public String restTemplatePadrao() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Authorization", "Bearer chave-benchmark");
+        headers.set("HTTP-Referer", "http://localhost:8081");
+        headers.set("X-Title", "GitHub Assistant");
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("model", "openai/gpt-4o-mini");
+        body.put("messages", List.of(
+                Map.of("role", "system", "content", SYSTEM),
+                Map.of("role", "user", "content", MENSAGEM)));
+
+        ResponseEntity<Map> response = restTemplatePadrao.postForEntity(
+                baseUrl + "/chat/completions", new HttpEntity<>(body, headers), Map.class);
+
+        List<Map<String, Object>> choices = (List<Map<String, Object>>) response.getBody().get("choices");
+        return (String) ((Map<String, Object>) choices.get(0).get("message")).get("content");
+    }
+
+    @Benchmark
+    public String clientePool() {
+        return provider.chat(SYSTEM, MENSAGEM);
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.sistema.nutritional.memory;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.sistema.nutritional.config.ChatMemoryProperties;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.memory.ChatMemory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Um turno (mensagem do usuário + resposta + leitura do histórico) em
+ * conversas já cheias, com 8 threads espalhadas por 100 mil conversas.
+ * Inclui (des)compactação e aplicação da janela de tokens.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ConversationMemoryStoreBenchmark {
+
+    private static final int CONVERSAS = 100_000;
+
+    private ConversationMemoryStore store;
+
+    @Setup
+    public void setup() {
+        store = new ConversationMemoryStore(
+                new ChatMemoryProperties(), new SimpleMeterRegistry(), (ConversationMemoryStore.Resumidor) null);
+
+        for (int i = 0; i < CONVERSAS; i++) {
+            ChatMemory memoria = store.memoria("conversa-" + i);
+            for (int turno = 0; turno < 6; turno++) {
+                memoria.add(UserMessage.from("Tenho 30 anos, peso 80kg e treino 4x por semana. Pergunta " + turno));
+                memoria.add(AiMessage.from("✅ Sua TMB é de aproximadamente 1814 kcal/dia e o GET 2812 kcal/dia."));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<ChatMessage> turno() {
+        ChatMemory memoria = store.memoria("conversa-" + ThreadLocalRandom.current().nextInt(CONVERSAS));
+        memoria.add(UserMessage.from("E quanto de proteína devo comer por dia para ganhar massa?"));
+        memoria.add(AiMessage.from("🥩 Cerca de 176g de proteína por dia (2,2g/kg)."));
+        return memoria.messages();
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.sistema.nutritional.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.sistema.nutritional.benchmark.StubChatModel;
+import br.com.sistema.nutritional.benchmark.StubNutritionalPlanService;
+
+/**
+ * Pipeline completo de {@link NutritionalPlanService#processMessage}: AiServices,
+ * rodada de tool ({@code calcularPlanoCompleto}) e resposta final, contra um
+ * ChatModel em processo sem latência. Mede apenas o overhead local.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProcessMessageBenchmark {
+
+    private NutritionalPlanService service;
+
+    @Setup
+    public void setup() {
+        service = StubNutritionalPlanService.criar(new StubChatModel());
+    }
+
+    @Benchmark
+    public String processMessage() {
+        return service.processMessage("benchmark", null, "Quero um plano para ganhar massa. Tenho 30 anos e peso 80kg. Treino 4x por semana.");
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.sistema.nutritional.tools;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.sistema.nutritional.service.NutritionalPlanCalculator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Cobre todos os métodos {@code @Tool} de {@link NutritionalPlanTools}.
+ *
+ * {@code entrada=repetida} usa sempre os mesmos parâmetros (caminho memoizado);
+ * {@code entrada=variada} percorre 4000 pesos diferentes com um cache pequeno,
+ * forçando o cálculo e a renderização completos.
+ * {@code saida=compacta} mede o JSON devolvido ao LLM; {@code saida=texto}, o
+ * texto completo.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class NutritionalPlanToolsBenchmark {
+
+    private static final int PESOS_DISTINTOS = 4000;
+
+    @Param({"repetida", "variada"})
+    private String entrada;
+
+    @Param({"compacta", "texto"})
+    private String saida;
+
+    private NutritionalPlanTools tools;
+    private int contador;
+
+    @Setup
+    public void setup() {
+        int maxEntradas = "repetida".equals(entrada) ? 65536 : 64;
+        tools = new NutritionalPlanTools(new NutritionalPlanCalculator(), new SimpleMeterRegistry(), maxEntradas,
+                "compacta".equals(saida));
+    }
+
+    private double peso() {
+        if ("repetida".equals(entrada)) {
+            return 80.0;
+        }
+        contador = (contador + 1) % PESOS_DISTINTOS;
+        return 40.0 + contador / 10.0;
+    }
+
+    @Benchmark
+    public String calcularTMB() {
+        return tools.calcularTMB(30, peso());
+    }
+
+    @Benchmark
+    public String calcularGET() {
+        return tools.calcularGET(peso() * 22.7, "moderado");
+    }
+
+    @Benchmark
+    public String calcularCaloriasObjetivo() {
+        return tools.calcularCaloriasObjetivo(peso() * 35.2, "ganho_massa");
+    }
+
+    @Benchmark
+    public String calcularMacronutrientes() {
+        return tools.calcularMacronutrientes(2500, peso(), "emagrecimento");
+    }
+
+    @Benchmark
+    public String gerarRecomendacoes() {
+        return tools.gerarRecomendacoes("ganho_massa", "intenso");
+    }
+
+    @Benchmark
+    public String calcularPlanoCompleto() {
+        return tools.calcularPlanoCompleto("João Silva", 30, peso(), "ganho_massa", "moderado");
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.sistema.nutritional.tools;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.sistema.nutritional.models.IntensidadeExercicio;
+import br.com.sistema.nutritional.models.Objetivo;
+
+/**
+ * Compara a renderização das respostas das tools com String.format
+ * (implementação anterior) e com os templates pré-compilados.
+ *
+ * Rodar com {@code -prof gc} para ver bytes alocados por operação
+ * (gc.alloc.rate.norm).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ToolRenderingBenchmark {
+
+    private final double tmb = 1814.33;
+    private final double get = 2812.21;
+    private final double fator = 1.55;
+    private final String intensidade = "moderado";
+    private final String descricao = "Moderado - Exercícios moderados 3-5x por semana";
+
+    // ==================================
+    // TMB (1 slot)
+    // ==================================
+    @Benchmark
+    public String tmbStringFormat() {
+        return String.format(NutritionalPlanTools.TEMPLATE_TMB.formato(), tmb);
+    }
+
+    @Benchmark
+    public String tmbTemplate() {
+        return NutritionalPlanTools.TEMPLATE_TMB.novo().f(tmb).fim();
+    }
+
+    // ==================================
+    // GET (6 slots, mistura decimal e texto)
+    // ==================================
+    @Benchmark
+    public String getStringFormat() {
+        return String.format(NutritionalPlanTools.TEMPLATE_GET.formato(),
+                get, tmb, fator, intensidade, get, descricao);
+    }
+
+    @Benchmark
+    public String getTemplate() {
+        return NutritionalPlanTools.TEMPLATE_GET.novo()
+                .f(get)
+                .f(tmb)
+                .f(fator)
+                .s(intensidade)
+                .f(get)
+                .s(descricao)
+                .fim();
+    }
+
+    // ==================================
+    // Recomendações: montagem por chamada x texto pré-computado
+    // ==================================
+    @Benchmark
+    public String recomendacoesMontadas() {
+        return NutritionalPlanTools.montarRecomendacoes(Objetivo.GANHO_MASSA, IntensidadeExercicio.MODERADO);
+    }
+
+    @Benchmark
+    public String recomendacoesPrecomputadas() {
+        return NutritionalPlanTools.RECOMENDACOES[1][2];
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.sistema.nutritional.budget;
+
+/**
+ * Orçamento de tokens do cliente esgotado na janela atual: a chamada é
+ * recusada antes de chegar ao provider. O controller responde 429 com
+ * Retry-After.
+ */
+public class TokenBudgetExceededException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public TokenBudgetExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
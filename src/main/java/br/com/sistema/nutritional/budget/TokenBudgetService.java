@@ -0,0 +1,297 @@
+package br.com.sistema.nutritional.budget;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Component;
+
+import br.com.sistema.nutritional.config.TokenBudgetProperties;
+import br.com.sistema.nutritional.dtos.response.UsoTokensResponse;
+import dev.langchain4j.model.output.TokenUsage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Orçamento de tokens por cliente numa janela deslizante.
+ *
+ * Antes de chamar o provider a mensagem é estimada localmente
+ * ({@link TokenEstimator} + overhead do system prompt/tools + saída esperada)
+ * e a estimativa fica reservada; se consumo + reservas + estimativa passar do
+ * limite a chamada é recusada na hora com {@link TokenBudgetExceededException}.
+ * Ao terminar, a reserva é trocada pelo {@link TokenUsage} real da resposta.
+ *
+ * A janela é dividida em {@code buckets} fatias que expiram inteiras, então
+ * o consumo "sai" da janela aos poucos em vez de zerar de uma vez.
+ */
+@Component
+@Slf4j
+public class TokenBudgetService {
+    
+    private final TokenBudgetProperties properties;
+    private final long fatiaMs;
+    private final Map<String, Consumo> clientes = new ConcurrentHashMap<>();
+    private final AtomicLong proximaLimpeza = new AtomicLong();
+    
+    private final Counter recusadas;
+    private final Counter tokensEntrada;
+    private final Counter tokensSaida;
+    
+    public TokenBudgetService(TokenBudgetProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.fatiaMs = Math.max(1, properties.getWindow().toMillis() / properties.getBuckets());
+        
+        this.recusadas = Counter.builder("llm.budget.rejected").register(registry);
+        this.tokensEntrada = Counter.builder("llm.budget.tokens").tag("type", "input").register(registry);
+        this.tokensSaida = Counter.builder("llm.budget.tokens").tag("type", "output").register(registry);
+        Gauge.builder("llm.budget.clients", clientes, Map::size).register(registry);
+        
+        log.info("💰 Orçamento de tokens {}: {} por cliente a cada {}",
+                properties.isEnabled() ? "ativo" : "só contabilizando",
+                properties.getLimit(), properties.getWindow());
+    }
+    
+    // ==================================
+    // Estimativa reservada para uma chamada; encerrada uma única vez
+    // ==================================
+    public static final class Reserva {
+        
+        private final Consumo consumo;
+        private final long tokens;
+        private final AtomicBoolean encerrada = new AtomicBoolean();
+        
+        private Reserva(Consumo consumo, long tokens) {
+            this.consumo = consumo;
+            this.tokens = tokens;
+        }
+        
+        public long tokens() {
+            return tokens;
+        }
+    }
+    
+    // ==================================
+    // Reserva a estimativa ou recusa se não couber na janela
+    // ==================================
+    public Reserva reservar(String cliente, String mensagem) {
+        return reservar(cliente, mensagem, 0);
+    }
+    
+    // tokensContexto: histórico da conversa reenviado junto com a mensagem
+    public Reserva reservar(String cliente, String mensagem, int tokensContexto) {
+        long estimativa = properties.getPromptOverheadTokens()
+                + tokensContexto
+                + TokenEstimator.estimar(mensagem)
+                + properties.getReservedOutputTokens();
+        
+        long agora = System.currentTimeMillis();
+        limparSeNecessario(agora);
+        
+        // Reserva dentro do compute: a limpeza remove pelo mesmo caminho, então
+        // um Consumo nunca sai do mapa entre a busca e a reserva
+        long limite = properties.isEnabled() ? properties.getLimit() : Long.MAX_VALUE;
+        long fatia = fatiaAtual(agora);
+        long[] espera = new long[1];
+        Consumo consumo = clientes.compute(cliente, (c, atual) -> {
+            Consumo alvo = atual != null ? atual : new Consumo(properties.getBuckets());
+            espera[0] = alvo.reservar(estimativa, limite, fatia, agora, fatiaMs);
+            return alvo;
+        });
+        
+        long esperaMs = espera[0];
+        if (esperaMs >= 0) {
+            recusadas.increment();
+            long segundos = Math.max(1, (esperaMs + 999) / 1000);
+            log.warn("💰 Orçamento de tokens esgotado para {} (estimativa {}), tente em {}s",
+                    cliente, estimativa, segundos);
+            throw new TokenBudgetExceededException(
+                    "Limite de " + properties.getLimit() + " tokens por " + properties.getWindow()
+                            + " atingido; tente novamente em " + segundos + "s",
+                    segundos);
+        }
+        return new Reserva(consumo, estimativa);
+    }
+    
+    // ==================================
+    // Troca a reserva pelo consumo real (sem TokenUsage, cobra a estimativa)
+    // ==================================
+    public void registrar(Reserva reserva, TokenUsage uso) {
+        if (!reserva.encerrada.compareAndSet(false, true)) {
+            return;
+        }
+        
+        long entrada;
+        long saida;
+        if (uso == null || uso.totalTokenCount() == null) {
+            entrada = reserva.tokens;
+            saida = 0;
+        } else {
+            entrada = uso.inputTokenCount() == null ? 0 : uso.inputTokenCount();
+            saida = uso.outputTokenCount() == null ? 0 : uso.outputTokenCount();
+        }
+        
+        tokensEntrada.increment(entrada);
+        tokensSaida.increment(saida);
+        reserva.consumo.registrar(reserva.tokens, entrada, saida, fatiaAtual(System.currentTimeMillis()));
+    }
+    
+    // ==================================
+    // Chamada falhou ou foi abandonada: devolve a reserva sem cobrar
+    // ==================================
+    public void liberar(Reserva reserva) {
+        if (reserva.encerrada.compareAndSet(false, true)) {
+            reserva.consumo.liberar(reserva.tokens);
+        }
+    }
+    
+    public UsoTokensResponse relatorio(String cliente) {
+        Consumo consumo = clientes.get(cliente);
+        long limite = properties.isEnabled() ? properties.getLimit() : 0;
+        if (consumo == null) {
+            return new UsoTokensResponse(cliente, properties.getWindow().toString(), limite,
+                    0, 0, limite, 0, 0, 0, 0);
+        }
+        return consumo.relatorio(cliente, properties.getWindow().toString(), limite,
+                fatiaAtual(System.currentTimeMillis()));
+    }
+    
+    private long fatiaAtual(long agora) {
+        return agora / fatiaMs;
+    }
+    
+    // ==================================
+    // Acima de maxClients, remove quem não tem consumo nem reserva na janela
+    // (no máximo uma varredura por fatia; checagem e remoção atômicas por cliente)
+    // ==================================
+    private void limparSeNecessario(long agora) {
+        long proxima = proximaLimpeza.get();
+        if (clientes.size() <= properties.getMaxClients() || agora < proxima
+                || !proximaLimpeza.compareAndSet(proxima, agora + fatiaMs)) {
+            return;
+        }
+        
+        long fatia = fatiaAtual(agora);
+        int antes = clientes.size();
+        for (String cliente : clientes.keySet()) {
+            clientes.computeIfPresent(cliente, (c, consumo) -> consumo.ocioso(fatia) ? null : consumo);
+        }
+        log.info("💰 Limpeza do orçamento: {} → {} clientes", antes, clientes.size());
+    }
+    
+    // ==================================
+    // Consumo de um cliente: fatias da janela + reservas em andamento
+    // ==================================
+    static final class Consumo {
+        
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long[] tokens;
+        private final long[] fatias;
+        private long reservado;
+        
+        private long totalEntrada;
+        private long totalSaida;
+        private long chamadas;
+        private long recusadas;
+        
+        Consumo(int buckets) {
+            this.tokens = new long[buckets];
+            this.fatias = new long[buckets];
+        }
+        
+        // Retorna -1 se reservou, ou quantos ms esperar até liberar espaço suficiente
+        long reservar(long estimativa, long limite, long fatia, long agora, long fatiaMs) {
+            lock.lock();
+            try {
+                long usado = somaJanela(fatia);
+                long excesso = usado + reservado + estimativa - limite;
+                if (excesso <= 0) {
+                    reservado += estimativa;
+                    return -1;
+                }
+                
+                recusadas++;
+                return esperaAteLiberar(excesso, fatia, agora, fatiaMs);
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        void registrar(long reserva, long entrada, long saida, long fatia) {
+            lock.lock();
+            try {
+                reservado = Math.max(0, reservado - reserva);
+                int i = (int) (fatia % tokens.length);
+                if (fatias[i] != fatia) {
+                    fatias[i] = fatia;
+                    tokens[i] = 0;
+                }
+                tokens[i] += entrada + saida;
+                totalEntrada += entrada;
+                totalSaida += saida;
+                chamadas++;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        void liberar(long reserva) {
+            lock.lock();
+            try {
+                reservado = Math.max(0, reservado - reserva);
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        boolean ocioso(long fatia) {
+            lock.lock();
+            try {
+                return reservado == 0 && somaJanela(fatia) == 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        UsoTokensResponse relatorio(String cliente, String janela, long limite, long fatia) {
+            lock.lock();
+            try {
+                long usado = somaJanela(fatia);
+                long restante = limite == 0 ? 0 : Math.max(0, limite - usado - reservado);
+                return new UsoTokensResponse(cliente, janela, limite, usado, reservado, restante,
+                        totalEntrada, totalSaida, chamadas, recusadas);
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        private long somaJanela(long fatia) {
+            long soma = 0;
+            for (int i = 0; i < tokens.length; i++) {
+                if (fatia - fatias[i] < tokens.length) {
+                    soma += tokens[i];
+                }
+            }
+            return soma;
+        }
+        
+        // Percorre as fatias da mais antiga para a mais nova até expirar o excesso
+        private long esperaAteLiberar(long excesso, long fatia, long agora, long fatiaMs) {
+            long liberado = 0;
+            for (long f = fatia - tokens.length + 1; f <= fatia; f++) {
+                int i = (int) (f % tokens.length);
+                if (fatias[i] == f) {
+                    liberado += tokens[i];
+                }
+                if (liberado >= excesso) {
+                    return (f + tokens.length) * fatiaMs - agora;
+                }
+            }
+            // O excesso vem das reservas em andamento: reavalia na próxima fatia
+            return (fatia + 1) * fatiaMs - agora;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.sistema.nutritional.budget;
+
+/**
+ * Estimativa local de tokens de um texto, sem chamar o provider.
+ *
+ * Aproxima um tokenizador BPE: cada palavra vale 1 token a cada 4 letras
+ * (palavras longas em português viram vários tokens), dígitos contam em
+ * grupos de 3, pontuação conta 1 e emojis/símbolos fora do BMP contam 2.
+ * Erra para cima de propósito: a estimativa só decide se a chamada cabe
+ * no orçamento, o valor cobrado depois é o {@code TokenUsage} real.
+ */
+public final class TokenEstimator {
+    
+    private TokenEstimator() {
+    }
+    
+    public static int estimar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return 0;
+        }
+        
+        int tokens = 0;
+        int letras = 0;
+        int digitos = 0;
+        
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            
+            if (Character.isLetter(c)) {
+                letras++;
+                continue;
+            }
+            if (Character.isDigit(c)) {
+                digitos++;
+                continue;
+            }
+            
+            tokens += fecharPalavra(letras) + fecharNumero(digitos);
+            letras = 0;
+            digitos = 0;
+            
+            if (Character.isHighSurrogate(c)) {
+                tokens += 2;
+                i++;
+            } else if (!Character.isWhitespace(c)) {
+                tokens++;
+            }
+        }
+        
+        return tokens + fecharPalavra(letras) + fecharNumero(digitos);
+    }
+    
+    private static int fecharPalavra(int letras) {
+        return letras == 0 ? 0 : (letras + 3) / 4;
+    }
+    
+    private static int fecharNumero(int digitos) {
+        return digitos == 0 ? 0 : (digitos + 2) / 3;
+    }
+}
@@ -0,0 +1,142 @@
+package br.com.sistema.nutritional.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Cache limitado com chave primitiva {@code long}, sem boxing.
+ *
+ * Organizado como tabela associativa por conjuntos (4 vias): cada chave só
+ * pode ocupar as 4 posições do seu conjunto e, quando elas estão cheias, a
+ * usada há mais tempo é substituída (LRU por conjunto). Leituras usam leitura
+ * otimista do {@link StampedLock} e não alocam nada em caso de hit.
+ *
+ * A chave {@code 0} é reservada para posição vazia.
+ *
+ * @author César Augusto
+ * @version 1.0.0
+ */
+public final class LongKeyLruCache<V> {
+
+    private static final int VIAS = 4;
+    private static final int SEGMENTOS = 16;
+
+    private final Segmento[] segmentos = new Segmento[SEGMENTOS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public LongKeyLruCache(int capacidade) {
+        int conjuntosPorSegmento = Integer.highestOneBit(
+                Math.max(1, capacidade / (SEGMENTOS * VIAS)) * 2 - 1);
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento(conjuntosPorSegmento);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long chave) {
+        long h = misturar(chave);
+        V valor = (V) segmentos[(int) (h >>> 60)].get(chave, h);
+        if (valor == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return valor;
+    }
+
+    public void put(long chave, V valor) {
+        if (chave == 0 || valor == null) {
+            throw new IllegalArgumentException("Chave 0 e valor nulo não são permitidos");
+        }
+        long h = misturar(chave);
+        segmentos[(int) (h >>> 60)].put(chave, h, valor);
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public int capacidade() {
+        return SEGMENTOS * segmentos[0].chaves.length;
+    }
+
+    // Espalha bits da chave (finalizador do SplitMix64)
+    static long misturar(long chave) {
+        long z = chave * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Segmento {
+
+        private final StampedLock lock = new StampedLock();
+        private final long[] chaves;
+        private final Object[] valores;
+        private final long[] acessos;
+        private final int mascara;
+        private long relogio;
+
+        Segmento(int conjuntos) {
+            this.chaves = new long[conjuntos * VIAS];
+            this.valores = new Object[conjuntos * VIAS];
+            this.acessos = new long[conjuntos * VIAS];
+            this.mascara = conjuntos - 1;
+        }
+
+        Object get(long chave, long h) {
+            int base = ((int) h & mascara) * VIAS;
+
+            long stamp = lock.tryOptimisticRead();
+            Object valor = procurar(chave, base);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    valor = procurar(chave, base);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return valor;
+        }
+
+        private Object procurar(long chave, int base) {
+            for (int i = base; i < base + VIAS; i++) {
+                if (chaves[i] == chave) {
+                    // Corrida benigna: o carimbo de acesso é apenas uma dica para o LRU
+                    acessos[i] = ++relogio;
+                    return valores[i];
+                }
+            }
+            return null;
+        }
+
+        void put(long chave, long h, Object valor) {
+            int base = ((int) h & mascara) * VIAS;
+
+            long stamp = lock.writeLock();
+            try {
+                int alvo = base;
+                for (int i = base; i < base + VIAS; i++) {
+                    if (chaves[i] == chave || chaves[i] == 0) {
+                        alvo = i;
+                        break;
+                    }
+                    if (acessos[i] < acessos[alvo]) {
+                        alvo = i;
+                    }
+                }
+                chaves[alvo] = chave;
+                valores[alvo] = valor;
+                acessos[alvo] = ++relogio;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package br.com.sistema.nutritional.cache;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import br.com.sistema.nutritional.config.SemanticCacheProperties;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.embedding.onnx.allminilml6v2.AllMiniLmL6V2EmbeddingModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache semântico de respostas do LLM.
+ *
+ * A mensagem é convertida em embedding por um modelo local (all-MiniLM-L6-v2)
+ * e comparada por similaridade de cosseno com as perguntas já respondidas no
+ * mesmo namespace (provider/modelo). Perguntas com dados pessoais (números,
+ * nomes, pesos, idades) nunca entram no cache, nem respostas que trazem
+ * valores de um plano calculado ou que passaram por tools.
+ *
+ * @author César Augusto
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class SemanticResponseCache {
+
+    // Qualquer número (idade, peso, altura) ou apresentação pessoal torna a resposta individual
+    private static final Pattern DADOS_PESSOAIS = Pattern.compile(
+            "\\d|\\b(meu nome|me chamo|eu sou o|eu sou a|meu peso|minha idade|eu peso|peso atual)\\b",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+    // Valores de plano na resposta (TMB, calorias, macros) pertencem a um paciente específico
+    private static final Pattern VALORES_CALCULADOS = Pattern.compile(
+            "\\d\\s*(kcal|calorias|g\\b|gramas|kg\\b)",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+    private final SemanticCacheProperties properties;
+    private final EmbeddingModel embeddingModel;
+    private final Map<String, Namespace> namespaces = new ConcurrentHashMap<>();
+    private final AtomicLong sequencia = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter ignoradas;
+
+    public SemanticResponseCache(SemanticCacheProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.embeddingModel = properties.isEnabled() ? new AllMiniLmL6V2EmbeddingModel() : null;
+
+        this.hits = Counter.builder("cache.semantic.requests").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("cache.semantic.requests").tag("result", "miss").register(registry);
+        this.ignoradas = Counter.builder("cache.semantic.requests").tag("result", "bypass").register(registry);
+
+        Gauge.builder("cache.semantic.hit.ratio", this, SemanticResponseCache::hitRatio)
+                .description("Proporção de consultas atendidas pelo cache semântico")
+                .register(registry);
+        Gauge.builder("cache.semantic.size", this, SemanticResponseCache::tamanho)
+                .register(registry);
+
+        log.info("🧠 Cache semântico {} (limiar={}, máx={}/namespace, ttl={})",
+                properties.isEnabled() ? "ativo" : "desativado",
+                properties.getSimilarityThreshold(),
+                properties.getMaxEntries(),
+                properties.getTtl());
+    }
+
+    // ==================================
+    // Resultado de uma consulta (guarda o embedding para o armazenamento)
+    // ==================================
+    public record Consulta(String namespace, float[] vetor, String resposta) {
+
+        public Optional<String> hit() {
+            return Optional.ofNullable(resposta);
+        }
+
+        boolean cacheavel() {
+            return vetor != null;
+        }
+    }
+
+    // ==================================
+    // Procura pergunta semelhante no namespace
+    // ==================================
+    public Consulta consultar(String namespace, String mensagem) {
+        if (embeddingModel == null || DADOS_PESSOAIS.matcher(mensagem).find()) {
+            ignoradas.increment();
+            return new Consulta(namespace, null, null);
+        }
+
+        float[] vetor = embeddar(mensagem);
+        Namespace ns = namespaces.computeIfAbsent(namespace, n -> new Namespace());
+        Entrada melhor = ns.maisProxima(vetor, properties.getSimilarityThreshold(), System.currentTimeMillis());
+
+        if (melhor != null) {
+            hits.increment();
+            log.info("🧠 Cache semântico: hit em {}", namespace);
+            return new Consulta(namespace, vetor, melhor.resposta);
+        }
+
+        misses.increment();
+        return new Consulta(namespace, vetor, null);
+    }
+
+    // ==================================
+    // Armazena resposta gerada pelo LLM
+    // ==================================
+    public void armazenar(Consulta consulta, String resposta) {
+        if (!consulta.cacheavel() || resposta == null || resposta.isBlank()) {
+            return;
+        }
+        if (VALORES_CALCULADOS.matcher(resposta).find()) {
+            log.debug("🧠 Cache semântico: resposta com valores calculados não armazenada");
+            return;
+        }
+
+        long agora = System.currentTimeMillis();
+        Namespace ns = namespaces.computeIfAbsent(consulta.namespace(), n -> new Namespace());
+        ns.adicionar(sequencia.incrementAndGet(),
+                new Entrada(consulta.vetor(), resposta, agora + properties.getTtl().toMillis(), agora),
+                properties.getMaxEntries());
+    }
+
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0.0 : hits.count() / total;
+    }
+
+    public int tamanho() {
+        int total = 0;
+        for (Namespace ns : namespaces.values()) {
+            total += ns.entradas.size();
+        }
+        return total;
+    }
+
+    private float[] embeddar(String mensagem) {
+        float[] vetor = embeddingModel.embed(mensagem.trim().toLowerCase()).content().vector();
+
+        double norma = 0;
+        for (float v : vetor) {
+            norma += v * v;
+        }
+        norma = Math.sqrt(norma);
+        if (norma > 0) {
+            for (int i = 0; i < vetor.length; i++) {
+                vetor[i] /= (float) norma;
+            }
+        }
+        return vetor;
+    }
+
+    // ==================================
+    // Índice vetorial em memória de um provider/modelo
+    // ==================================
+    private static final class Namespace {
+
+        private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+
+        Entrada maisProxima(float[] vetor, double limiar, long agora) {
+            Entrada melhor = null;
+            double melhorSimilaridade = limiar;
+
+            for (Map.Entry<Long, Entrada> item : entradas.entrySet()) {
+                Entrada entrada = item.getValue();
+                if (entrada.expiraEm < agora) {
+                    entradas.remove(item.getKey(), entrada);
+                    continue;
+                }
+
+                // Vetores normalizados: produto escalar = cosseno
+                double similaridade = 0;
+                for (int i = 0; i < vetor.length; i++) {
+                    similaridade += vetor[i] * entrada.vetor[i];
+                }
+
+                if (similaridade >= melhorSimilaridade) {
+                    melhorSimilaridade = similaridade;
+                    melhor = entrada;
+                }
+            }
+
+            if (melhor != null) {
+                melhor.ultimoAcesso = agora;
+            }
+            return melhor;
+        }
+
+        void adicionar(long id, Entrada entrada, int maxEntradas) {
+            entradas.put(id, entrada);
+
+            // Remove a entrada usada há mais tempo (LRU aproximado)
+            while (entradas.size() > maxEntradas) {
+                Long maisAntiga = null;
+                long menorAcesso = Long.MAX_VALUE;
+                for (Map.Entry<Long, Entrada> item : entradas.entrySet()) {
+                    if (item.getValue().ultimoAcesso < menorAcesso) {
+                        menorAcesso = item.getValue().ultimoAcesso;
+                        maisAntiga = item.getKey();
+                    }
+                }
+                if (maisAntiga == null) {
+                    break;
+                }
+                entradas.remove(maisAntiga);
+            }
+        }
+    }
+
+    private static final class Entrada {
+
+        private final float[] vetor;
+        private final String resposta;
+        private final long expiraEm;
+        private volatile long ultimoAcesso;
+
+        Entrada(float[] vetor, String resposta, long expiraEm, long ultimoAcesso) {
+            this.vetor = vetor;
+            this.resposta = resposta;
+            this.expiraEm = expiraEm;
+            this.ultimoAcesso = ultimoAcesso;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package br.com.sistema.nutritional.cache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Junta chamadas idênticas em andamento numa só ("single flight").
+ *
+ * A primeira chamada de uma chave dispara a execução numa virtual thread
+ * própria; as que chegam com a mesma chave enquanto ela não termina esperam
+ * e recebem o mesmo resultado (ou a mesma exceção). Nada fica guardado depois
+ * que a execução termina.
+ *
+ * A execução não pertence a quem a iniciou: se esse chamador desiste
+ * (interrupção ou tempo máximo de espera), os demais continuam esperando.
+ * Só quando todos desistem a execução é cancelada (com interrupção) e a chave
+ * liberada para uma nova.
+ *
+ * @author César Augusto
+ * @version 1.0.0
+ */
+public final class SingleFlight<T> implements AutoCloseable {
+
+    private final ConcurrentHashMap<String, Voo> voos = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("single-flight-", 0).factory());
+    private final long esperaMaximaNanos;
+
+    public SingleFlight(Duration esperaMaxima) {
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+
+    // ==================================
+    // Resultado e se ele veio de uma execução iniciada por outro chamador
+    // ==================================
+    public record Resposta<T>(T valor, boolean compartilhada) {
+    }
+
+    public Resposta<T> executar(String chave, Callable<T> chamada) throws Exception {
+        while (true) {
+            Voo voo = voos.get(chave);
+            if (voo == null) {
+                Voo novo = new Voo(chave, chamada);
+                voo = voos.putIfAbsent(chave, novo);
+                if (voo == null) {
+                    executor.execute(novo.tarefa);
+                    return new Resposta<>(novo.aguardar(), false);
+                }
+            }
+            // Execução já cancelada por falta de interessados: começa outra
+            if (voo.entrar()) {
+                return new Resposta<>(voo.aguardar(), true);
+            }
+        }
+    }
+
+    public int emAndamento() {
+        return voos.size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private final class Voo {
+
+        private final String chave;
+        private final FutureTask<T> tarefa;
+        // Chamadores esperando; -1 = cancelado, não aceita mais ninguém
+        private final AtomicInteger aguardando = new AtomicInteger(1);
+
+        Voo(String chave, Callable<T> chamada) {
+            this.chave = chave;
+            this.tarefa = new FutureTask<>(() -> {
+                try {
+                    return chamada.call();
+                } finally {
+                    voos.remove(chave, this);
+                }
+            });
+        }
+
+        boolean entrar() {
+            int atual;
+            do {
+                atual = aguardando.get();
+                if (atual < 0) {
+                    return false;
+                }
+            } while (!aguardando.compareAndSet(atual, atual + 1));
+            return true;
+        }
+
+        T aguardar() throws Exception {
+            try {
+                return tarefa.get(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception causa) {
+                    throw causa;
+                }
+                throw (Error) e.getCause();
+            } catch (InterruptedException | TimeoutException e) {
+                sair();
+                throw e;
+            }
+        }
+
+        // O último a desistir cancela a execução
+        private void sair() {
+            while (true) {
+                int atual = aguardando.get();
+                if (atual == 1) {
+                    if (aguardando.compareAndSet(1, -1)) {
+                        tarefa.cancel(true);
+                        voos.remove(chave, this);
+                        return;
+                    }
+                } else if (aguardando.compareAndSet(atual, atual - 1)) {
+                    return;
+                }
+            }
+        }
+    }
+}
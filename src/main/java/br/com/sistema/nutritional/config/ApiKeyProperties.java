@@ -0,0 +1,17 @@
+package br.com.sistema.nutritional.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "api-keys")
+@Data
+public class ApiKeyProperties {
+    
+    // SHA-256 (hex) das API keys aceitas; chave fora da lista é ignorada e o cliente é identificado pelo IP
+    private List<String> sha256 = new ArrayList<>();
+}
@@ -0,0 +1,30 @@
+package br.com.sistema.nutritional.config;
+
+import java.time.Duration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Component
+@ConfigurationProperties(prefix = "chat.memory")
+@Data
+public class ChatMemoryProperties {
+    
+    // Janela por conversa: mensagens antigas saem quando a estimativa passa disso
+    private int maxTokens = 3_000;
+    private int maxMessages = 40;
+    
+    // Resume com o LLM (em segundo plano) os turnos que saem da janela
+    private boolean summarize = false;
+    
+    // Conversas sem uso por esse tempo são descartadas
+    private Duration idleTimeout = Duration.ofMinutes(30);
+    
+    // Teto de memória somando todas as conversas (dados compactados + overhead)
+    private DataSize maxSize = DataSize.ofMegabytes(256);
+    
+    // Partições com lock próprio (potência de 2)
+    private int stripes = 64;
+}
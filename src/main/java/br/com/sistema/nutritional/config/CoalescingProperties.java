@@ -0,0 +1,19 @@
+package br.com.sistema.nutritional.config;
+
+import java.time.Duration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "chat.coalescing")
+@Data
+public class CoalescingProperties {
+    
+    // Mensagens avulsas idênticas em andamento compartilham a mesma chamada ao LLM
+    private boolean enabled = true;
+    
+    // Quanto um chamador espera pela chamada compartilhada antes de desistir
+    private Duration maxWait = Duration.ofSeconds(120);
+}
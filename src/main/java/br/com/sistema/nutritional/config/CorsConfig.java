@@ -74,7 +74,8 @@ public class CorsConfig {
                 "Authorization",
                 "X-Plan-Version",      // Versão do plano
                 "X-Calculation-Time",  // Tempo de cálculo
-                "X-Total-Plans"        // Total de planos
+                "X-Total-Plans",       // Total de planos
+                "Retry-After"          // Espera após 429/503
         ));
         
         // ============================================
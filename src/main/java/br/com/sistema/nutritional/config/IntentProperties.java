@@ -0,0 +1,28 @@
+package br.com.sistema.nutritional.config;
+
+import java.time.Duration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "chat.intent")
+@Data
+public class IntentProperties {
+    
+    // Responde localmente (sem LLM) pedidos de cálculo com todos os dados reconhecidos
+    private boolean enabled = true;
+    
+    // Mensagens maiores que isso quase sempre trazem mais do que os dados: vão ao LLM
+    private int maxMessageLength = 280;
+    
+    // Nome usado no plano quando o usuário não se apresenta
+    private String defaultName = "Você";
+    
+    // Dados já informados numa conversa (idade, peso...) valem por esse tempo
+    private Duration slotTtl = Duration.ofMinutes(30);
+    
+    // Acima disso, conversas com dados expirados são removidas
+    private int maxSessions = 100_000;
+}
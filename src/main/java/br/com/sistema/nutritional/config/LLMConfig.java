@@ -1,14 +1,25 @@
   package br.com.sistema.nutritional.config;
 
   
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
 
 import br.com.sistema.nutritional.llm.AnthropicProvider;
+import br.com.sistema.nutritional.llm.CircuitBreakerLLMProvider;
+import br.com.sistema.nutritional.llm.ConcurrencyLimitedLLMProvider;
+import br.com.sistema.nutritional.llm.FailoverLLMProvider;
 import br.com.sistema.nutritional.llm.GeminiProvider;
+import br.com.sistema.nutritional.llm.HedgingLLMProvider;
+import br.com.sistema.nutritional.llm.InstrumentedLLMProvider;
 import br.com.sistema.nutritional.llm.LLMProvider;
+import br.com.sistema.nutritional.llm.LoadBalancedLLMProvider;
 import br.com.sistema.nutritional.llm.OpenAIProvider;
 import br.com.sistema.nutritional.llm.OpenRouterProvider;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -22,12 +33,49 @@ public class LLMConfig {
     private final OpenAIProvider openAIProvider;
     private final AnthropicProvider anthropicProvider;
     private final OpenRouterProvider openRouterProvider;
+    private final MeterRegistry meterRegistry;
+    private final RestTemplate openRouterRestTemplate;
     
     // ====================================
     // Cria provider baseado na configuração
     // ====================================
     @Bean
     public LLMProvider llmProvider() {
+        // Primário: balanceador de llm.endpoints ou o provider de llm.provider
+        LLMProvider selectedProvider = null;
+        LLMProvider primario;
+        if (!properties.getEndpoints().isEmpty()) {
+            primario = balanceador();
+        } else {
+            selectedProvider = providerSelecionado();
+            primario = proteger(selectedProvider);
+        }
+        
+        // Secundários: alvo do hedge ou do failover em tempo de execução
+        List<LLMProvider> ordem = new ArrayList<>();
+        ordem.add(primario);
+        boolean secundarios = properties.getHedging().isEnabled() || properties.isEnableFallback();
+        if (secundarios) {
+            for (LLMProvider provider : List.of(geminiProvider, openAIProvider, anthropicProvider, openRouterProvider)) {
+                if (provider != selectedProvider && provider.isAvailable()) {
+                    ordem.add(proteger(provider));
+                }
+            }
+        }
+        
+        if (ordem.size() == 1) {
+            if (secundarios) {
+                log.warn("⚠️ llm.hedging/llm.enable-fallback ativos, mas nenhum provider secundário tem api-key: sem efeito");
+            }
+            return primario;
+        }
+        if (properties.getHedging().isEnabled()) {
+            return new HedgingLLMProvider(ordem, properties.getHedging(), meterRegistry);
+        }
+        return new FailoverLLMProvider(ordem, meterRegistry);
+    }
+    
+    private LLMProvider providerSelecionado() {
         String providerName = properties.getProvider().toLowerCase();
         
         log.info("🔧 Configurando LLM Provider: {}", providerName);
@@ -46,7 +94,7 @@ public class LLMConfig {
         if (!selectedProvider.isAvailable()) {
             if (properties.isEnableFallback()) {
                 log.warn("⚠️ {} não disponível, tentando fallback", providerName);
-                return getFallbackProvider();
+                selectedProvider = getFallbackProvider();
             } else {
                 throw new RuntimeException(
                     "Provider " + providerName + " não está configurado corretamente"
@@ -58,6 +106,78 @@ public class LLMConfig {
         return selectedProvider;
     }
     
+    // ====================================
+    // Vários endpoints (providers/chaves) atrás do balanceador P2C
+    // ====================================
+    private LLMProvider balanceador() {
+        List<LLMProvider> providers = new ArrayList<>();
+        List<Integer> pesos = new ArrayList<>();
+        
+        for (int i = 0; i < properties.getEndpoints().size(); i++) {
+            LLMProperties.EndpointConfig endpoint = properties.getEndpoints().get(i);
+            LLMProvider provider = criarProvider(endpoint, endpoint.getName() != null ? endpoint.getName() : "endpoint-" + i);
+            
+            if (!provider.isAvailable()) {
+                log.warn("⚠️ Endpoint {} sem api-key, ignorado", provider.getProviderName());
+                continue;
+            }
+            providers.add(proteger(provider));
+            pesos.add(endpoint.getWeight());
+        }
+        
+        if (providers.isEmpty()) {
+            throw new RuntimeException("Nenhum endpoint LLM disponível em llm.endpoints!");
+        }
+        return new LoadBalancedLLMProvider(providers, pesos, meterRegistry);
+    }
+    
+    private LLMProvider criarProvider(LLMProperties.EndpointConfig endpoint, String rotulo) {
+        String provider = endpoint.getProvider() == null ? "" : endpoint.getProvider().toLowerCase();
+        return switch (provider) {
+            case "gemini" -> new GeminiProvider(
+                    endpoint.getApiKey(),
+                    properties.modeloDe(endpoint),
+                    rotulo);
+            case "openai" -> new OpenAIProvider(
+                    endpoint.getApiKey(),
+                    properties.modeloDe(endpoint),
+                    endpoint.getBaseUrl(),
+                    rotulo);
+            case "anthropic" -> new AnthropicProvider(
+                    endpoint.getApiKey(),
+                    properties.modeloDe(endpoint),
+                    endpoint.getBaseUrl(),
+                    rotulo,
+                    properties.getAnthropic().isPromptCaching());
+            case "openrouter" -> new OpenRouterProvider(
+                    endpoint.getApiKey(),
+                    properties.modeloDe(endpoint),
+                    padrao(endpoint.getBaseUrl(), properties.getOpenrouter().getBaseUrl()),
+                    rotulo,
+                    openRouterRestTemplate,
+                    properties.getOpenrouter().getHttp().getReadTimeout());
+            default -> throw new RuntimeException("Provider desconhecido no endpoint " + rotulo + ": " + provider);
+        };
+    }
+    
+    private static String padrao(String valor, String padrao) {
+        return valor == null || valor.isBlank() ? padrao : valor;
+    }
+    
+    // ====================================
+    // Circuit breaker por fora, limite de concorrência e métricas por dentro
+    // ====================================
+    private LLMProvider proteger(LLMProvider provider) {
+        LLMProvider protegido = new InstrumentedLLMProvider(provider, meterRegistry);
+        if (properties.getConcurrency().isEnabled()) {
+            protegido = new ConcurrencyLimitedLLMProvider(protegido, properties.getConcurrency(), meterRegistry);
+        }
+        if (properties.getCircuitBreaker().isEnabled()) {
+            protegido = new CircuitBreakerLLMProvider(protegido, properties.getCircuitBreaker(), meterRegistry);
+        }
+        return protegido;
+    }
+    
     // ====================================
     // Retorna primeiro provider disponível
     // ====================================
@@ -1,5 +1,9 @@
 package br.com.sistema.nutritional.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
@@ -16,6 +20,28 @@ public class LLMProperties {
     private OpenAIConfig openai = new OpenAIConfig();
     private AnthropicConfig anthropic = new AnthropicConfig();
     private OpenRouterConfig openrouter = new OpenRouterConfig();
+    private ConcurrencyConfig concurrency = new ConcurrencyConfig();
+    private HedgingConfig hedging = new HedgingConfig();
+    private CircuitBreakerConfig circuitBreaker = new CircuitBreakerConfig();
+    private WarmupConfig warmup = new WarmupConfig();
+    
+    // Endpoints balanceados (vários providers/chaves); vazio = usa só llm.provider
+    private List<EndpointConfig> endpoints = new ArrayList<>();
+    
+    // Modelo efetivo do endpoint: o model-name dele ou o padrão do provider
+    public String modeloDe(EndpointConfig endpoint) {
+        if (endpoint.getModelName() != null && !endpoint.getModelName().isBlank()) {
+            return endpoint.getModelName();
+        }
+        String provider = endpoint.getProvider() == null ? "" : endpoint.getProvider().toLowerCase();
+        return switch (provider) {
+            case "gemini" -> gemini.getModelName();
+            case "openai" -> openai.getModelName();
+            case "anthropic" -> anthropic.getModelName();
+            case "openrouter" -> openrouter.getModelName();
+            default -> "";
+        };
+    }
     
     @Data
     public static class GeminiConfig {
@@ -33,6 +59,9 @@ public class LLMProperties {
     public static class AnthropicConfig {
         private String apiKey;
         private String modelName = "claude-3-5-sonnet-20241022";
+        
+        // Marca system prompt e tools com cache_control (prompt caching da Anthropic)
+        private boolean promptCaching = true;
     }
     
     @Data
@@ -40,5 +69,98 @@ public class LLMProperties {
         private String apiKey;
         private String modelName = "anthropic/claude-3.5-sonnet";
         private String baseUrl = "https://openrouter.ai/api/v1";
+        private HttpConfig http = new HttpConfig();
+    }
+    
+    // Pool de conexões HTTP do OpenRouter
+    @Data
+    public static class HttpConfig {
+        private int maxConnections = 50;
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        
+        // Sem dados por esse tempo = falha (vale também entre eventos do streaming)
+        private Duration readTimeout = Duration.ofSeconds(120);
+        
+        // Espera máxima por uma conexão livre no pool
+        private Duration poolTimeout = Duration.ofSeconds(10);
+        
+        private Duration idleEviction = Duration.ofSeconds(30);
+        private Duration connectionTtl = Duration.ofMinutes(5);
+    }
+    
+    // Limite adaptativo de chamadas simultâneas por provider (AIMD)
+    @Data
+    public static class ConcurrencyConfig {
+        private boolean enabled = true;
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 200;
+        
+        // Tempo máximo na fila antes de rejeitar com 503
+        private Duration queueTimeout = Duration.ofSeconds(2);
+        
+        // Latência acima de (referência × tolerância) é tratada como sobrecarga
+        private double latencyTolerance = 2.0;
+        
+        // Fator multiplicativo aplicado ao limite em sobrecarga ou erro
+        private double backoffRatio = 0.9;
+    }
+    
+    // Requisições "hedged": repete no próximo provider se o primário passar do p95
+    @Data
+    public static class HedgingConfig {
+        private boolean enabled = false;
+        
+        // Fração máxima de chamadas extras (0.10 = no máximo 10% a mais)
+        private double budgetRatio = 0.10;
+        
+        // Percentil da latência do primário que dispara o hedge
+        private double percentile = 0.95;
+        
+        // Espera usada até haver amostras suficientes, e limites do atraso
+        private Duration initialDelay = Duration.ofSeconds(5);
+        private Duration minDelay = Duration.ofMillis(500);
+        private Duration maxDelay = Duration.ofSeconds(30);
+    }
+    
+    // Circuit breaker por provider (janela deslizante das últimas chamadas)
+    @Data
+    public static class CircuitBreakerConfig {
+        private boolean enabled = true;
+        private int windowSize = 20;
+        private int minimumCalls = 10;
+        
+        // Abre o circuito com 50% de erros ou 80% de chamadas lentas na janela
+        private double failureRateThreshold = 0.5;
+        private double slowCallRateThreshold = 0.8;
+        private Duration slowCallDuration = Duration.ofSeconds(30);
+        
+        // Tempo aberto antes de liberar chamadas de teste (half-open)
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenProbes = 2;
+    }
+    
+    // Aquecimento dos providers antes de a aplicação aceitar tráfego
+    @Data
+    public static class WarmupConfig {
+        private boolean enabled = true;
+        
+        // Envia um prompt mínimo a cada provider (consome tokens); false = só abre conexões
+        private boolean probe = false;
+        private String probePrompt = "Responda apenas: ok";
+        
+        // Acima disso a aplicação sobe mesmo sem terminar o aquecimento
+        private Duration timeout = Duration.ofSeconds(15);
+    }
+    
+    // Um endpoint do balanceador: provider + modelo + chave (+ URL opcional)
+    @Data
+    public static class EndpointConfig {
+        private String name;
+        private String provider;
+        private String modelName;
+        private String apiKey;
+        private String baseUrl;
+        private int weight = 1;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,79 @@
+package br.com.sistema.nutritional.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import br.com.sistema.nutritional.llm.LLMProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Aquece os providers LLM na inicialização: abre conexões e, com
+ * {@code llm.warmup.probe=true}, envia um prompt mínimo a cada um pelo mesmo
+ * cliente que atende o tráfego. Sem sonda, só o OpenRouter (pool próprio)
+ * tem o que aquecer; se nada foi aquecido, nada é medido.
+ *
+ * Roda como ApplicationRunner, então termina antes do ApplicationReadyEvent,
+ * que muda o estado de readiness para ACCEPTING_TRAFFIC. A duração vai para o
+ * log e para o timer {@code llm.warmup.duration}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LLMWarmupRunner implements ApplicationRunner {
+    
+    private final LLMProvider llmProvider;
+    private final LLMProperties properties;
+    private final MeterRegistry meterRegistry;
+    
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        LLMProperties.WarmupConfig config = properties.getWarmup();
+        if (!config.isEnabled()) {
+            return;
+        }
+        
+        String sonda = config.isProbe() ? config.getProbePrompt() : null;
+        log.debug("🔥 Aquecendo {} ({})", llmProvider.getProviderName(),
+                sonda == null ? "conexões" : "conexões + prompt de teste");
+        
+        long inicio = System.nanoTime();
+        AtomicBoolean aquecido = new AtomicBoolean();
+        Thread aquecimento = Thread.ofVirtual().name("llm-warmup").start(() -> {
+            try {
+                aquecido.set(llmProvider.aquecer(sonda));
+            } catch (RuntimeException e) {
+                log.warn("🔥 Aquecimento de {} falhou: {}", llmProvider.getProviderName(), e.getMessage());
+            }
+        });
+        
+        // Sem esperar além do timeout: um provider lento não impede o deploy
+        boolean concluido = aquecimento.join(config.getTimeout());
+        long duracao = System.nanoTime() - inicio;
+        
+        // Providers sem conexão reutilizável e sem sonda: nada foi aquecido, nada a reportar
+        if (concluido && !aquecido.get()) {
+            log.info("🔥 Nada a aquecer em {} (habilite llm.warmup.probe para enviar um prompt de teste)",
+                    llmProvider.getProviderName());
+            return;
+        }
+        
+        Timer.builder("llm.warmup.duration")
+                .tag("result", concluido ? "ok" : "timeout")
+                .register(meterRegistry)
+                .record(duracao, TimeUnit.NANOSECONDS);
+        
+        if (concluido) {
+            log.info("🔥 Aquecimento concluído em {} ms", Duration.ofNanos(duracao).toMillis());
+        } else {
+            log.warn("🔥 Aquecimento excedeu {}, seguindo sem aguardar", config.getTimeout());
+        }
+    }
+}
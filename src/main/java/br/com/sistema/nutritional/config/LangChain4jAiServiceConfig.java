@@ -1,14 +1,29 @@
 package br.com.sistema.nutritional.config;
 
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import br.com.sistema.nutritional.llm.LLMProvider;
+import br.com.sistema.nutritional.memory.ConversationMemoryStore;
 import br.com.sistema.nutritional.service.NutritionalPlanService;
 import br.com.sistema.nutritional.tools.NutritionalPlanTools;
+import br.com.sistema.nutritional.tools.TimedToolExecutor;
+import br.com.sistema.nutritional.tools.TimeoutToolExecutor;
+import br.com.sistema.nutritional.tools.ToolExecutionPool;
+import dev.langchain4j.agent.tool.Tool;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.agent.tool.ToolSpecifications;
+import dev.langchain4j.model.chat.ChatModel;
 import dev.langchain4j.service.AiServices;
-import dev.langchain4j.service.SystemMessage;
-import dev.langchain4j.service.UserMessage;
+import dev.langchain4j.service.tool.DefaultToolExecutor;
+import dev.langchain4j.service.tool.ToolExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -18,21 +33,68 @@ import lombok.extern.slf4j.Slf4j;
 public class LangChain4jAiServiceConfig {
     
     private final LLMProvider llmProvider;
+    private final ChatModel chatModel;
     private final NutritionalPlanTools nutritionalTools;
+    private final MeterRegistry meterRegistry;
+    private final ConversationMemoryStore memoryStore;
+    private final ToolExecutionProperties toolProperties;
+    private final ToolExecutionPool toolPool;
     
     @Bean
     public NutritionalPlanService.NutritionalAiService nutritionalAiService() {
         log.info("🔌 Registrando NutritionalAiService com Tools");
         
-        return AiServices.builder(NutritionalPlanService.NutritionalAiService.class)
-                .chatModel(llmProvider.getChatModel())
-                .tools(nutritionalTools)
-                .build();
+        AiServices<NutritionalPlanService.NutritionalAiService> builder =
+                AiServices.builder(NutritionalPlanService.NutritionalAiService.class)
+                        .chatModel(chatModel)
+                        .streamingChatModel(llmProvider.getStreamingChatModel())
+                        .systemMessageProvider(memoriaId -> SYSTEM_PROMPT)
+                        .chatMemoryProvider(memoryStore::memoria)
+                        .tools(ferramentasMedidas());
+        
+        // Várias tool calls numa resposta rodam juntas; os resultados voltam ao
+        // modelo na ordem em que foram pedidos
+        if (toolProperties.isConcurrent()) {
+            builder.executeToolsConcurrently(toolPool);
+        }
+        
+        NutritionalPlanService.NutritionalAiService aiService = builder.build();
+        
+        // Conversa descartada pelo store sai também do mapa de memórias do AiServices
+        memoryStore.aoDescartar(aiService::evictChatMemory);
+        return aiService;
     }
     
-    public interface NutritionalAiServiceInternal {
+    // ==================================
+    // Cada @Tool registrada com um executor que mede as invocações e
+    // limita o tempo de cada uma.
+    // Ordem por nome: getDeclaredMethods() não garante ordem, e as tools
+    // fazem parte do prefixo cacheável do prompt
+    // ==================================
+    private Map<ToolSpecification, ToolExecutor> ferramentasMedidas() {
+        Method[] metodos = NutritionalPlanTools.class.getDeclaredMethods();
+        Arrays.sort(metodos, Comparator.comparing(Method::getName));
         
-        @SystemMessage("""
+        Map<ToolSpecification, ToolExecutor> ferramentas = new LinkedHashMap<>();
+        for (Method metodo : metodos) {
+            if (metodo.isAnnotationPresent(Tool.class)) {
+                ToolSpecification especificacao = ToolSpecifications.toolSpecificationFrom(metodo);
+                String nome = especificacao.name();
+                ToolExecutor executor = new TimeoutToolExecutor(nome,
+                        new DefaultToolExecutor(nutritionalTools, metodo),
+                        toolProperties.timeoutDe(nome),
+                        toolPool);
+                ferramentas.put(especificacao, new TimedToolExecutor(nome, executor, meterRegistry));
+            }
+        }
+        return ferramentas;
+    }
+    
+    // ==================================
+    // System prompt fixo (sem data, id ou dados do usuário): byte a byte igual
+    // em toda chamada, é o prefixo que os providers conseguem cachear
+    // ==================================
+    static final String SYSTEM_PROMPT = """
                 Você é um assistente especializado em nutrição e planejamento alimentar.
                 
                 ========== IDENTIDADE ==========
@@ -92,6 +154,8 @@ public class LangChain4jAiServiceConfig {
                 - Use Markdown para formatação
                 - Use emojis para categorização visual
                 - Organize informações em seções claras
+                - Resultados das tools chegam em JSON (kcal/dia e gramas): apresente os
+                  números formatados e explicados, nunca o JSON cru
                 - Seja conciso mas completo
                 - Sempre explique o "porquê" dos números
                 
@@ -162,7 +226,5 @@ public class LangChain4jAiServiceConfig {
                 • Lembre: você está ajudando alguém a melhorar a saúde!
                 
                 Você está pronto para ajudar com planejamento nutricional! 💪🥗
-                """)
-        String chat(@UserMessage String userMessage);
-    }
+                """;
 }
\ No newline at end of file
@@ -4,8 +4,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
+import br.com.sistema.nutritional.llm.LLMCapacityException;
 import br.com.sistema.nutritional.llm.LLMProvider;
-import dev.langchain4j.data.message.AiMessage;
 import dev.langchain4j.model.chat.ChatModel;
 import dev.langchain4j.model.chat.request.ChatRequest;
 import dev.langchain4j.model.chat.response.ChatResponse;
@@ -23,49 +23,40 @@ public class LangChain4jChatModelAdapter {
     @Primary
     public ChatModel chatModel() {
         log.info("🔧 Criando ChatModel adaptado de: {}", llmProvider.getProviderName());
-        
-        return new ChatModel() {
-            @Override
-            public ChatResponse chat(ChatRequest request) {
-                try {
-                    String userMessage = extrairMensagem(request);
-                    
-                    log.debug("💬 Processando com {}: {}", 
-                        llmProvider.getProviderName(), 
-                        userMessage.substring(0, Math.min(50, userMessage.length())));
-                    
-                    String response = llmProvider.chat("", userMessage);
-                    
-                    return ChatResponse.builder()
-                            .aiMessage(new AiMessage(response))
-                            .build();
-                            
-                } catch (Exception e) {
-                    log.error("❌ Erro ao processar chat", e);
-                    throw new RuntimeException("Erro ao processar mensagem: " + e.getMessage(), e);
-                }
-            }
-        };
+        return new ProviderChatModel(llmProvider);
     }
     
-    private String extrairMensagem(ChatRequest request) {
-        if (request == null) {
-            return "";
-        }
+    // ==================================
+    // Repassa o ChatRequest sem conversão: mensagens, tool specs e
+    // parâmetros chegam intactos ao provider, e tool calls voltam no ChatResponse
+    // ==================================
+    static final class ProviderChatModel implements ChatModel {
         
-        String requestStr = request.toString();
+        private final LLMProvider llmProvider;
         
-        if (requestStr.contains("text=")) {
-            int inicio = requestStr.indexOf("text=") + 5;
-            int fim = requestStr.indexOf(",", inicio);
-            if (fim == -1) {
-                fim = requestStr.indexOf("}", inicio);
-            }
-            if (fim > inicio) {
-                return requestStr.substring(inicio, fim).replaceAll("['\"]", "").trim();
-            }
+        ProviderChatModel(LLMProvider llmProvider) {
+            this.llmProvider = llmProvider;
         }
         
-        return requestStr;
+        @Override
+        public ChatResponse chat(ChatRequest request) {
+            try {
+                if (log.isDebugEnabled()) {
+                    log.debug("💬 Processando com {}: {} mensagens, {} tools",
+                            llmProvider.getProviderName(),
+                            request.messages().size(),
+                            request.toolSpecifications() == null ? 0 : request.toolSpecifications().size());
+                }
+                
+                return llmProvider.chat(request);
+                
+            } catch (LLMCapacityException e) {
+                // Sem embrulhar: o controller transforma em 503
+                throw e;
+            } catch (Exception e) {
+                log.error("❌ Erro ao processar chat", e);
+                throw new RuntimeException("Erro ao processar mensagem: " + e.getMessage(), e);
+            }
+        }
     }
-}
\ No newline at end of file
+}
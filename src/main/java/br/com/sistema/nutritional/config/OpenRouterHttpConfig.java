@@ -0,0 +1,76 @@
+package br.com.sistema.nutritional.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cliente HTTP do OpenRouter: pool de conexões com keep-alive, timeouts de
+ * conexão/leitura/pool e remoção de conexões ociosas. A utilização do pool é
+ * exportada como métricas {@code httpcomponents.httpclient.pool.*}
+ * (tag {@code httpclient=openrouter}).
+ */
+@Configuration
+@Slf4j
+public class OpenRouterHttpConfig {
+    
+    // Factory como bean para o Spring fechar o pool no shutdown (DisposableBean)
+    @Bean
+    public HttpComponentsClientHttpRequestFactory openRouterRequestFactory(LLMProperties properties,
+                                                                          MeterRegistry registry) {
+        return criarRequestFactory(properties.getOpenrouter().getHttp(), registry);
+    }
+    
+    @Bean
+    public RestTemplate openRouterRestTemplate(
+            @Qualifier("openRouterRequestFactory") HttpComponentsClientHttpRequestFactory requestFactory) {
+        return new RestTemplate(requestFactory);
+    }
+    
+    // ==================================
+    // Pool + timeouts (também usado pelos benchmarks)
+    // ==================================
+    public static HttpComponentsClientHttpRequestFactory criarRequestFactory(LLMProperties.HttpConfig http,
+                                                                             MeterRegistry registry) {
+        PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(http.getMaxConnections())
+                .setMaxConnPerRoute(http.getMaxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(http.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(http.getReadTimeout()))
+                        .setTimeToLive(TimeValue.of(http.getConnectionTtl()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        
+        CloseableHttpClient client = HttpClients.custom()
+                .setConnectionManager(pool)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(http.getPoolTimeout()))
+                        .setResponseTimeout(Timeout.of(http.getReadTimeout()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(http.getIdleEviction()))
+                .build();
+        
+        new PoolingHttpClientConnectionManagerMetricsBinder(pool, "openrouter").bindTo(registry);
+        
+        log.info("🔗 Pool HTTP do OpenRouter: máx {} conexões, connect={}, read={}",
+                http.getMaxConnections(), http.getConnectTimeout(), http.getReadTimeout());
+        return new HttpComponentsClientHttpRequestFactory(client);
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.sistema.nutritional.config;
+
+import java.util.stream.Stream;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.sistema.nutritional.controller.ClientIdResolver;
+import br.com.sistema.nutritional.ratelimit.RateLimitInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Rate limiting por cliente nos endpoints da API: uma faixa para os
+ * endpoints que chamam o LLM (chat) e outra, mais folgada, para o resto.
+ * Endpoints que só chamam o LLM com um parâmetro ({@code /calcular?narrativa=true})
+ * caem na faixa cara quando ele vem {@code true}.
+ *
+ * @author César Augusto
+ * @version 1.0.0
+ */
+@Configuration
+@RequiredArgsConstructor
+public class RateLimitConfig implements WebMvcConfigurer {
+    
+    private final RateLimitProperties properties;
+    private final ClientIdResolver clientIdResolver;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        
+        String[] caros = properties.getExpensivePaths().toArray(String[]::new);
+        String[] condicionais = properties.getConditionalPaths().toArray(String[]::new);
+        
+        RateLimitInterceptor caro = new RateLimitInterceptor("expensive", properties.getExpensive(),
+                properties.getMaxClients(), clientIdResolver, objectMapper, meterRegistry);
+        RateLimitInterceptor barato = new RateLimitInterceptor("cheap", properties.getCheap(),
+                properties.getMaxClients(), clientIdResolver, objectMapper, meterRegistry);
+        
+        registry.addInterceptor(caro).addPathPatterns(caros);
+        if (condicionais.length > 0) {
+            registry.addInterceptor(porParametro(properties.getExpensiveParam(), caro, barato))
+                    .addPathPatterns(condicionais)
+                    .excludePathPatterns(caros);
+        }
+        registry.addInterceptor(barato)
+                .addPathPatterns(properties.getPaths())
+                .excludePathPatterns(Stream.concat(Stream.of(caros), Stream.of(condicionais)).toArray(String[]::new));
+    }
+    
+    // ==================================
+    // Reaproveita os buckets das duas faixas: conta na cara só com parâmetro=true
+    // ==================================
+    private static HandlerInterceptor porParametro(String parametro, RateLimitInterceptor caro,
+                                                   RateLimitInterceptor barato) {
+        return new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+                    throws Exception {
+                RateLimitInterceptor faixa = Boolean.parseBoolean(request.getParameter(parametro)) ? caro : barato;
+                return faixa.preHandle(request, response, handler);
+            }
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.sistema.nutritional.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "ratelimit")
+@Data
+public class RateLimitProperties {
+    
+    private boolean enabled = true;
+    
+    // Endpoints limitados e, entre eles, os que chamam o LLM
+    private List<String> paths = new ArrayList<>(List.of("/api/v1/plano/**"));
+    private List<String> expensivePaths = new ArrayList<>(List.of("/api/v1/plano/chat", "/api/v1/plano/chat/**"));
+    
+    // Endpoints que só chamam o LLM com o parâmetro expensive-param=true (/calcular?narrativa=true)
+    private List<String> conditionalPaths = new ArrayList<>(List.of("/api/v1/plano/calcular"));
+    private String expensiveParam = "narrativa";
+    
+    // Token bucket por cliente (X-API-Key ou IP): rajada máxima e fichas repostas por segundo
+    private Limite cheap = new Limite(60, 20.0);
+    private Limite expensive = new Limite(10, 0.5);
+    
+    // Clientes acompanhados em cada faixa; acima disso os mais ociosos são esquecidos
+    private int maxClients = 1 << 20;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limite {
+        private int capacity;
+        private double refillPerSecond;
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.sistema.nutritional.config;
+
+import java.time.Duration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "cache.semantic")
+@Data
+public class SemanticCacheProperties {
+    
+    private boolean enabled = true;
+    
+    // Similaridade de cosseno mínima para considerar "mesma pergunta"
+    private double similarityThreshold = 0.92;
+    
+    // Máximo de respostas por namespace (provider/modelo)
+    private int maxEntries = 1000;
+    
+    private Duration ttl = Duration.ofHours(6);
+}
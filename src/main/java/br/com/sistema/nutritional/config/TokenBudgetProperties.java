@@ -0,0 +1,30 @@
+package br.com.sistema.nutritional.config;
+
+import java.time.Duration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "budget.tokens")
+@Data
+public class TokenBudgetProperties {
+    
+    // false = só contabiliza o consumo, sem recusar chamadas
+    private boolean enabled = true;
+    
+    // Tokens (entrada + saída) por cliente dentro da janela deslizante
+    private long limit = 200_000;
+    private Duration window = Duration.ofHours(1);
+    
+    // Granularidade da janela: expira em fatias de window/buckets
+    private int buckets = 12;
+    
+    // Somados à estimativa da mensagem: system prompt + tools e a resposta esperada
+    private int promptOverheadTokens = 2_500;
+    private int reservedOutputTokens = 800;
+    
+    // Acima disso, clientes sem consumo na janela são removidos
+    private int maxClients = 100_000;
+}
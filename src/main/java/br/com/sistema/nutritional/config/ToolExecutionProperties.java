@@ -0,0 +1,29 @@
+package br.com.sistema.nutritional.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "tools.execution")
+@Data
+public class ToolExecutionProperties {
+    
+    // Várias tool calls na mesma resposta do modelo rodam em paralelo
+    private boolean concurrent = true;
+    
+    // Tools executando ao mesmo tempo na aplicação inteira
+    private int maxConcurrent = 64;
+    
+    // Tempo máximo de cada execução; por tool em timeouts.<nome da tool>
+    private Duration timeout = Duration.ofSeconds(10);
+    private Map<String, Duration> timeouts = new HashMap<>();
+    
+    public Duration timeoutDe(String tool) {
+        return timeouts.getOrDefault(tool, timeout);
+    }
+}
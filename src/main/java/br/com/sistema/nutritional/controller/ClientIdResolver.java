@@ -0,0 +1,99 @@
+package br.com.sistema.nutritional.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import br.com.sistema.nutritional.config.ApiKeyProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Identifica o cliente da requisição: hash da API key (header
+ * {@code X-API-Key}) ou, sem ela, o IP de origem. A chave nunca é guardada
+ * nem exibida em claro.
+ *
+ * Só valem as chaves cujo SHA-256 está em {@code api-keys.sha256}. Uma chave
+ * desconhecida é ignorada (o cliente vira o IP): sem isso, trocar o valor do
+ * header a cada requisição daria um bucket de rate limit e um orçamento de
+ * tokens novos a cada vez.
+ */
+@Component
+@Slf4j
+public class ClientIdResolver {
+    
+    public static final String HEADER_API_KEY = "X-API-Key";
+    
+    private static final HexFormat HEX = HexFormat.of();
+    
+    private final Set<String> hashesAceitos;
+    
+    public ClientIdResolver(ApiKeyProperties properties) {
+        this.hashesAceitos = properties.getSha256().stream()
+                .map(hash -> hash.trim().toLowerCase(Locale.ROOT))
+                .filter(hash -> !hash.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        
+        log.info("🔑 API keys aceitas: {}", hashesAceitos.size());
+    }
+    
+    public String resolver(HttpServletRequest request) {
+        byte[] digest = validar(request.getHeader(HEADER_API_KEY));
+        if (digest != null) {
+            return "key:" + HEX.formatHex(digest, 0, 6);
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+    
+    // ==================================
+    // Mesma identificação de resolver() como hash de 64 bits, para o rate
+    // limiting, que roda em toda requisição: os 8 primeiros bytes do SHA-256
+    // da chave aceita ou o FNV-1a do IP (sem alocação)
+    // ==================================
+    public long chaveNumerica(HttpServletRequest request) {
+        return chaveNumerica(request.getHeader(HEADER_API_KEY), request.getRemoteAddr());
+    }
+    
+    public long chaveNumerica(String apiKey, String ip) {
+        byte[] digest = validar(apiKey);
+        if (digest != null) {
+            long h = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                h = (h << 8) | (digest[i] & 0xff);
+            }
+            return h;
+        }
+        return fnv1a(0x69703aL, ip);
+    }
+    
+    // SHA-256 da chave se ela estiver entre as aceitas; null sem chave ou com chave desconhecida
+    private byte[] validar(String apiKey) {
+        if (hashesAceitos.isEmpty() || apiKey == null || apiKey.isBlank()) {
+            return null;
+        }
+        byte[] digest = sha256(apiKey.trim());
+        return hashesAceitos.contains(HEX.formatHex(digest)) ? digest : null;
+    }
+    
+    private static long fnv1a(long prefixo, String texto) {
+        long h = 0xcbf29ce484222325L ^ prefixo;
+        for (int i = 0; i < texto.length(); i++) {
+            h = (h ^ texto.charAt(i)) * 0x100000001b3L;
+        }
+        return h;
+    }
+    
+    private static byte[] sha256(String apiKey) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(apiKey.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
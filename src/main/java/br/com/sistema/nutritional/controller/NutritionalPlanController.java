@@ -1,23 +1,47 @@
 package br.com.sistema.nutritional.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import br.com.sistema.nutritional.budget.TokenBudgetExceededException;
+import br.com.sistema.nutritional.budget.TokenBudgetService;
 import br.com.sistema.nutritional.dtos.request.CreatePlanoRequest;
 import br.com.sistema.nutritional.dtos.request.NutritionalChatRequest;
 import br.com.sistema.nutritional.dtos.response.AssistantResponse;
+import br.com.sistema.nutritional.dtos.response.PlanoResponse;
+import br.com.sistema.nutritional.dtos.response.UsoTokensResponse;
+import br.com.sistema.nutritional.llm.LLMCapacityException;
+import br.com.sistema.nutritional.mapper.PlanoMapper;
+import br.com.sistema.nutritional.models.PlanoNutricional;
+import br.com.sistema.nutritional.service.NutritionalPlanBatchService;
+import br.com.sistema.nutritional.service.NutritionalPlanCalculator;
 import br.com.sistema.nutritional.service.NutritionalPlanService;
+import dev.langchain4j.model.chat.response.StreamingHandle;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -28,7 +52,14 @@ import lombok.extern.slf4j.Slf4j;
 @Tag(name = "Nutritional Plan Assistant", description = "Assistente de IA para planos nutricionais")
 public class NutritionalPlanController {
     
+    private static final long STREAM_TIMEOUT_MS = 180_000L;
+    
     private final NutritionalPlanService planService;
+    private final NutritionalPlanCalculator calculator;
+    private final PlanoMapper planoMapper;
+    private final NutritionalPlanBatchService batchService;
+    private final TokenBudgetService tokenBudget;
+    private final ClientIdResolver clientIdResolver;
     
     // ==================================
     // Chat com o assistente nutricional
@@ -61,9 +92,18 @@ public class NutritionalPlanController {
         @ApiResponse(
             responseCode = "400",
             description = "Request inválido"
+        ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Orçamento de tokens do cliente esgotado (ver Retry-After e /uso)"
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Provider LLM sem capacidade (limite de concorrência ou circuito aberto)"
         )
     })
-    public ResponseEntity<AssistantResponse> chat(@RequestBody NutritionalChatRequest request) {
+    public ResponseEntity<AssistantResponse> chat(@RequestBody NutritionalChatRequest request,
+                                                  HttpServletRequest http) {
         log.info("💬 Chat recebido");
         
         if (!request.isValid()) {
@@ -75,9 +115,14 @@ public class NutritionalPlanController {
         }
         
         try {
-            String response = planService.processMessage(request.message());
+            String response = planService.processMessage(
+                    clientIdResolver.resolver(http), request.conversationId(), request.message());
             return ResponseEntity.ok(AssistantResponse.success(request.message(), response));
-            
+        
+        } catch (TokenBudgetExceededException e) {
+            return orcamentoEsgotado(request.message(), e);
+        } catch (LLMCapacityException e) {
+            return sobrecarga(request.message(), e);
         } catch (Exception e) {
             log.error("❌ Erro ao processar chat", e);
             return ResponseEntity.internalServerError()
@@ -89,24 +134,132 @@ public class NutritionalPlanController {
     }
     
     // ==================================
-    // Calcula plano nutricional direto (sem chat)
+    // Chat com streaming de tokens via Server-Sent Events
+    // ==================================
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Chat com assistente nutricional (streaming)",
+        description = "Mesma entrada do /chat, mas a resposta chega por SSE conforme é gerada. "
+                + "Eventos: 'token' (trecho da resposta), 'progress' (execução de tools), "
+                + "'done' (fim) e 'error'."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Stream SSE iniciado"
+    )
+    public SseEmitter chatStream(@RequestBody NutritionalChatRequest request, HttpServletRequest http) {
+        log.info("🌊 Chat em streaming recebido");
+        
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        
+        if (!request.isValid()) {
+            enviarEvento(emitter, "error", Map.of("error", "Mensagem não pode ser vazia"));
+            emitter.complete();
+            return emitter;
+        }
+        
+        try {
+            String clienteId = clientIdResolver.resolver(http);
+            String memoriaId = planService.memoriaId(clienteId, request.conversationId());
+            
+            // Pedido de cálculo resolvido localmente: resposta inteira num único evento
+            Optional<String> local = planService.responderLocal(memoriaId, request.message());
+            if (local.isPresent()) {
+                enviarEvento(emitter, "token", Map.of("token", local.get()));
+                enviarEvento(emitter, "done", Map.of("status", "concluido"));
+                emitter.complete();
+                return emitter;
+            }
+            
+            // Reserva antes de abrir o stream; o consumo real chega no onCompleteResponse
+            TokenBudgetService.Reserva reserva = tokenBudget.reservar(
+                    clienteId, request.message(), planService.tokensHistorico(memoriaId));
+            
+            // Cliente desconectou ou o emitter expirou: interrompe o stream do LLM,
+            // que senão seguiria consumindo tokens e vaga de concorrência
+            StreamUpstream upstream = new StreamUpstream();
+            emitter.onTimeout(() -> {
+                log.warn("⏱️ Streaming do chat expirou: cancelando o LLM");
+                upstream.cancelar();
+            });
+            emitter.onError(erro -> upstream.cancelar());
+            emitter.onCompletion(() -> {
+                upstream.cancelar();
+                tokenBudget.liberar(reserva);
+                planService.encerrar(memoriaId);
+            });
+            
+            enviarEvento(emitter, "progress", Map.of("status", "processando"));
+            
+            planService.processMessageStream(memoriaId, request.message())
+                    .onPartialResponseWithContext((parcial, contexto) -> {
+                        upstream.registrar(contexto.streamingHandle());
+                        if (!enviarEvento(emitter, "token", Map.of("token", parcial.text()))) {
+                            upstream.cancelar();
+                        }
+                    })
+                    .onToolExecuted(execucao -> enviarEvento(emitter, "progress", Map.of(
+                            "status", "tool_executada",
+                            "tool", execucao.request().name())))
+                    .onCompleteResponse(resposta -> {
+                        upstream.concluir();
+                        tokenBudget.registrar(reserva, resposta.tokenUsage());
+                        enviarEvento(emitter, "done", Map.of("status", "concluido"));
+                        emitter.complete();
+                    })
+                    .onError(erro -> {
+                        log.error("❌ Erro no streaming do chat", erro);
+                        upstream.concluir();
+                        tokenBudget.liberar(reserva);
+                        enviarEvento(emitter, "error", Map.of(
+                                "error", "Erro ao processar mensagem: " + erro.getMessage()));
+                        emitter.complete();
+                    })
+                    .start();
+        
+        } catch (TokenBudgetExceededException e) {
+            enviarEvento(emitter, "error", Map.of(
+                    "error", e.getMessage(),
+                    "retryAfter", String.valueOf(e.getRetryAfterSeconds())));
+            emitter.complete();
+        } catch (Exception e) {
+            log.error("❌ Erro ao iniciar streaming", e);
+            enviarEvento(emitter, "error", Map.of("error", "Erro ao processar mensagem: " + e.getMessage()));
+            emitter.complete();
+        }
+        
+        return emitter;
+    }
+    
+    // ==================================
+    // Calcula plano nutricional direto (sem chat e sem LLM)
     // ==================================
     @PostMapping("/calcular")
     @Operation(
         summary = "Calcular plano nutricional",
-        description = "Calcula plano nutricional completo baseado nos dados fornecidos"
+        description = "Calcula plano nutricional completo baseado nos dados fornecidos. "
+                + "O cálculo é determinístico e não passa pelo LLM; use narrativa=true "
+                + "para receber também a explicação gerada pela IA."
     )
     @ApiResponses(value = {
         @ApiResponse(
             responseCode = "200",
-            description = "Plano calculado com sucesso"
+            description = "Plano calculado com sucesso",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = PlanoResponse.class)
+            )
         ),
         @ApiResponse(
             responseCode = "400",
             description = "Dados inválidos"
         )
     })
-    public ResponseEntity<AssistantResponse> calcularPlano(@RequestBody CreatePlanoRequest request) {
+    public ResponseEntity<?> calcularPlano(
+            @RequestBody CreatePlanoRequest request,
+            @Parameter(description = "Gera explicação do plano com a IA")
+            @RequestParam(defaultValue = "false") boolean narrativa,
+            HttpServletRequest http) {
         log.info("🧮 Calculando plano para: {}", request.nome());
         
         if (!request.isValid()) {
@@ -118,9 +271,7 @@ public class NutritionalPlanController {
         }
         
         try {
-            String prompt = String.format(
-                    "Calcule um plano nutricional completo para %s, %d anos, %.1fkg, " +
-                    "objetivo %s, exercícios %s",
+            PlanoNutricional plano = calculator.calcularPlano(
                     request.nome(),
                     request.idade(),
                     request.pesoAtual(),
@@ -128,13 +279,18 @@ public class NutritionalPlanController {
                     request.intensidadeExercicio()
             );
             
-            String response = planService.processMessage(prompt);
+            PlanoResponse response = planoMapper.toResponse(plano);
             
-            return ResponseEntity.ok(AssistantResponse.success(
-                    "Calcular plano nutricional",
-                    response
-            ));
+            if (narrativa) {
+                response = response.comNarrativa(planService.gerarNarrativa(clientIdResolver.resolver(http), plano));
+            }
             
+            return ResponseEntity.ok(response);
+        
+        } catch (TokenBudgetExceededException e) {
+            return orcamentoEsgotado("Calcular plano", e);
+        } catch (LLMCapacityException e) {
+            return sobrecarga("Calcular plano", e);
         } catch (Exception e) {
             log.error("❌ Erro ao calcular plano", e);
             return ResponseEntity.internalServerError()
@@ -145,6 +301,55 @@ public class NutritionalPlanController {
         }
     }
     
+    // ==================================
+    // Calcula planos em lote (array JSON ou NDJSON) com resposta NDJSON
+    // ==================================
+    @PostMapping(
+        value = "/calcular/lote",
+        consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+        produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    @Operation(
+        summary = "Calcular planos em lote",
+        description = "Recebe um array JSON ou um stream NDJSON de pacientes e devolve "
+                + "um PlanoResponse por linha (NDJSON), na ordem de entrada. Registros "
+                + "inválidos geram uma linha de erro no lugar do plano."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Stream NDJSON de planos calculados"
+    )
+    public ResponseEntity<StreamingResponseBody> calcularLote(InputStream entrada) {
+        log.info("📦 Recebendo lote de planos");
+        
+        StreamingResponseBody body = saida -> batchService.calcularLote(entrada, saida);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
+    // ==================================
+    // Consumo de tokens do cliente que fez a requisição
+    // ==================================
+    @GetMapping("/uso")
+    @Operation(
+        summary = "Consumo de tokens",
+        description = "Tokens consumidos na janela atual, reservas em andamento e o que resta do "
+                + "orçamento do cliente (identificado pelo header X-API-Key ou pelo IP)."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Relatório de consumo",
+        content = @Content(
+            mediaType = "application/json",
+            schema = @Schema(implementation = UsoTokensResponse.class)
+        )
+    )
+    public ResponseEntity<UsoTokensResponse> uso(HttpServletRequest http) {
+        return ResponseEntity.ok(tokenBudget.relatorio(clientIdResolver.resolver(http)));
+    }
+    
     // ==================================
     // Health check do serviço
     // ==================================
@@ -160,4 +365,72 @@ public class NutritionalPlanController {
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("✅ Nutritional Plan Assistant Online");
     }
+    
+    // ==================================
+    // 503 com Retry-After quando o provider está saturado ou fora do ar
+    // ==================================
+    private ResponseEntity<AssistantResponse> sobrecarga(String pergunta, LLMCapacityException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(AssistantResponse.error(pergunta, e.getMessage()));
+    }
+    
+    // ==================================
+    // 429 com Retry-After quando o orçamento de tokens do cliente acabou
+    // ==================================
+    private ResponseEntity<AssistantResponse> orcamentoEsgotado(String pergunta, TokenBudgetExceededException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(AssistantResponse.error(pergunta, e.getMessage()));
+    }
+    
+    // ==================================
+    // Envia evento SSE com payload JSON (preserva quebras de linha)
+    // ==================================
+    private boolean enviarEvento(SseEmitter emitter, String nome, Map<String, String> dados) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(nome)
+                    .data(dados, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectou ou emitter já finalizado
+            log.debug("⚠️ Falha ao enviar evento SSE '{}': {}", nome, e.getMessage());
+            return false;
+        }
+    }
+    
+    // ==================================
+    // Stream do LLM de uma requisição SSE: o handle só chega com o primeiro
+    // token, então um cancelamento anterior é aplicado assim que ele chegar
+    // ==================================
+    private static final class StreamUpstream {
+        
+        private final AtomicBoolean cancelado = new AtomicBoolean();
+        private volatile boolean concluido;
+        private volatile StreamingHandle handle;
+        
+        void registrar(StreamingHandle handle) {
+            if (this.handle == null) {
+                this.handle = handle;
+                if (cancelado.get()) {
+                    handle.cancel();
+                }
+            }
+        }
+        
+        void cancelar() {
+            if (concluido || !cancelado.compareAndSet(false, true)) {
+                return;
+            }
+            StreamingHandle atual = handle;
+            if (atual != null) {
+                atual.cancel();
+            }
+        }
+        
+        void concluir() {
+            concluido = true;
+        }
+    }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package br.com.sistema.nutritional.dtos.request;
 
+import br.com.sistema.nutritional.models.IntensidadeExercicio;
+import br.com.sistema.nutritional.models.Objetivo;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 @Schema(description = "Request para criar plano nutricional")
@@ -15,30 +17,30 @@ public record CreatePlanoRequest(
     Double pesoAtual,
     
     @Schema(
-        description = "Objetivo nutricional",
+        description = "Objetivo nutricional (aceita acentos e sinônimos, ex.: \"ganho de massa\")",
         example = "emagrecimento",
         allowableValues = {"emagrecimento", "ganho_massa", "manutencao"},
         required = true
     )
-    String objetivo,
+    Objetivo objetivo,
     
     @Schema(
-        description = "Intensidade de exercício",
+        description = "Intensidade de exercício (aceita acentos e sinônimos, ex.: \"sedentário\")",
         example = "moderado",
         allowableValues = {"sedentario", "leve", "moderado", "intenso", "muito_intenso"},
         required = true
     )
-    String intensidadeExercicio
+    IntensidadeExercicio intensidadeExercicio
     
 ) {
     // ==================================
-    // Validação completa dos campos
+    // Validação completa dos campos (objetivo/intensidade desconhecidos chegam null)
     // ==================================
     public boolean isValid() {
         return nome != null && !nome.trim().isEmpty()
                 && idade != null && idade > 0 && idade < 150
                 && pesoAtual != null && pesoAtual > 0 && pesoAtual < 500
-                && objetivo != null && !objetivo.trim().isEmpty()
-                && intensidadeExercicio != null && !intensidadeExercicio.trim().isEmpty();
+                && objetivo != null
+                && intensidadeExercicio != null;
     }
 }
\ No newline at end of file
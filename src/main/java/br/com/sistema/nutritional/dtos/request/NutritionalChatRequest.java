@@ -10,7 +10,14 @@ public record NutritionalChatRequest(
         example = "Calcule um plano para ganho de massa muscular",
         required = true
     )
-    String message
+    String message,
+    
+    @Schema(
+        description = "Identificador da conversa; mensagens com o mesmo id compartilham o histórico. "
+                + "Sem ele a mensagem é tratada de forma independente",
+        example = "conversa-1"
+    )
+    String conversationId
     
 ) {
     // ==================================
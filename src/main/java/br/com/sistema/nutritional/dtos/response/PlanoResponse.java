@@ -37,9 +37,20 @@ public record PlanoResponse(
     String objetivo,
     
     @Schema(description = "Intensidade de exercício", example = "moderado")
-    String intensidadeExercicio
+    String intensidadeExercicio,
+    
+    @Schema(description = "Explicação do plano gerada pela IA (apenas com narrativa=true)")
+    String narrativa
     
 ) {
+    // ==================================
+    // Copia o plano anexando a narrativa da IA
+    // ==================================
+    public PlanoResponse comNarrativa(String narrativa) {
+        return new PlanoResponse(id, nome, idade, pesoAtual, tmb, get, calorias,
+                macros, recomendacoes, objetivo, intensidadeExercicio, narrativa);
+    }
+    
     @Schema(description = "Macronutrientes em gramas")
     public record MacrosResponse(
             
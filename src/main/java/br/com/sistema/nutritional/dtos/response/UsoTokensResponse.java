@@ -0,0 +1,39 @@
+package br.com.sistema.nutritional.dtos.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Consumo de tokens do cliente")
+public record UsoTokensResponse(
+        
+    @Schema(description = "Identificador do cliente (hash da API key ou IP)", example = "key:3f2a9c1b7d4e")
+    String cliente,
+    
+    @Schema(description = "Duração da janela deslizante", example = "PT1H")
+    String janela,
+    
+    @Schema(description = "Limite de tokens por janela (0 = sem limite)", example = "200000")
+    long limite,
+    
+    @Schema(description = "Tokens consumidos na janela atual", example = "18250")
+    long consumidoNaJanela,
+    
+    @Schema(description = "Tokens reservados por chamadas em andamento", example = "3300")
+    long reservado,
+    
+    @Schema(description = "Tokens ainda disponíveis na janela", example = "178450")
+    long restante,
+    
+    @Schema(description = "Tokens de entrada acumulados desde o início", example = "150230")
+    long tokensEntrada,
+    
+    @Schema(description = "Tokens de saída acumulados desde o início", example = "40210")
+    long tokensSaida,
+    
+    @Schema(description = "Chamadas atendidas", example = "87")
+    long chamadas,
+    
+    @Schema(description = "Chamadas recusadas por orçamento esgotado", example = "2")
+    long recusadas
+    
+) {
+}
@@ -0,0 +1,15 @@
+package br.com.sistema.nutritional.intent;
+
+/**
+ * Pedidos que podem ser respondidos direto pelas tools, sem o LLM.
+ */
+public enum Intencao {
+    
+    // calcularPlanoCompleto: idade, peso, objetivo e intensidade
+    PLANO,
+    
+    // calcularTMB: idade e peso
+    TMB,
+    
+    NENHUMA
+}
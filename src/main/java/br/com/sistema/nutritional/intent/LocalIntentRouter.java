@@ -0,0 +1,187 @@
+package br.com.sistema.nutritional.intent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import br.com.sistema.nutritional.config.IntentProperties;
+import br.com.sistema.nutritional.memory.ConversationMemoryStore;
+import br.com.sistema.nutritional.tools.NutritionalPlanTools;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.memory.ChatMemory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Responde sem LLM os pedidos de cálculo reconhecidos pelo {@link SlotExtractor}.
+ *
+ * Com todos os dados, chama {@link NutritionalPlanTools} direto; faltando
+ * algum, pergunta só o que falta (numa conversa, os dados já informados ficam
+ * no {@link SlotStore}). Mensagens ambíguas ou sem pedido de cálculo seguem
+ * para o LLM. Respostas locais entram na memória da conversa, então o LLM
+ * continua a conversa com o contexto completo.
+ */
+@Component
+@Slf4j
+public class LocalIntentRouter {
+    
+    static final String AVISO = """
+            
+            
+            ⚠️ Importante: Estas são orientações gerais baseadas em fórmulas padrão.
+            Para um plano personalizado e acompanhamento adequado, consulte um
+            nutricionista ou médico.""";
+    
+    private final IntentProperties properties;
+    private final SlotExtractor extractor;
+    private final NutritionalPlanTools tools;
+    private final ConversationMemoryStore memoryStore;
+    private final SlotStore slots;
+    
+    private final Counter calculadas;
+    private final Counter perguntas;
+    private final Counter encaminhadas;
+    private final Timer duracao;
+    
+    public LocalIntentRouter(IntentProperties properties,
+                             SlotExtractor extractor,
+                             NutritionalPlanTools tools,
+                             ConversationMemoryStore memoryStore,
+                             MeterRegistry registry) {
+        this.properties = properties;
+        this.extractor = extractor;
+        this.tools = tools;
+        this.memoryStore = memoryStore;
+        this.slots = new SlotStore(properties);
+        
+        this.calculadas = Counter.builder("chat.intent.requests").tag("result", "tool").register(registry);
+        this.perguntas = Counter.builder("chat.intent.requests").tag("result", "question").register(registry);
+        this.encaminhadas = Counter.builder("chat.intent.requests").tag("result", "llm").register(registry);
+        this.duracao = Timer.builder("chat.intent.local.duration")
+                .description("Tempo das respostas dadas sem LLM")
+                .serviceLevelObjectives(Duration.ofNanos(100_000), Duration.ofMillis(1))
+                .register(registry);
+        
+        Gauge.builder("chat.intent.bypass.ratio", this, LocalIntentRouter::taxaLocal)
+                .description("Proporção de mensagens respondidas sem LLM")
+                .register(registry);
+        Gauge.builder("chat.intent.sessions", slots, SlotStore::tamanho).register(registry);
+        
+        log.info("🧭 Respostas locais {} (mensagens até {} caracteres)",
+                properties.isEnabled() ? "ativas" : "desativadas", properties.getMaxMessageLength());
+    }
+    
+    // ==================================
+    // Resposta local ou vazio (vai para o LLM). conversa=false: mensagem avulsa,
+    // sem dados guardados nem memória
+    // ==================================
+    public Optional<String> responder(String memoriaId, boolean conversa, String mensagem) {
+        if (!properties.isEnabled() || mensagem.length() > properties.getMaxMessageLength()) {
+            encaminhadas.increment();
+            return Optional.empty();
+        }
+        
+        long inicio = System.nanoTime();
+        SlotExtractor.Extracao extracao = extractor.extrair(mensagem);
+        if (extracao.ambigua()) {
+            encaminhadas.increment();
+            return Optional.empty();
+        }
+        
+        SlotStore.Slots dados = conversa
+                ? slots.mesclar(memoriaId, extracao)
+                : SlotStore.Slots.VAZIO.com(extracao, 0);
+        
+        // Resposta a uma pergunta nossa ("tenho 30 anos") continua o pedido pendente
+        Intencao intencao = extracao.intencao();
+        if (intencao == Intencao.NENHUMA && extracao.temDados() && dados.pendente() != null) {
+            intencao = dados.pendente();
+        }
+        if (intencao == Intencao.NENHUMA) {
+            encaminhadas.increment();
+            return Optional.empty();
+        }
+        
+        List<String> faltando = faltando(intencao, dados);
+        String resposta;
+        if (faltando.isEmpty()) {
+            // Texto completo das tools: a resposta vai direto ao usuário
+            resposta = calcular(intencao, dados) + AVISO;
+            if (conversa) {
+                slots.aguardar(memoriaId, null);
+            }
+            calculadas.increment();
+        } else {
+            if (conversa) {
+                slots.aguardar(memoriaId, intencao);
+            }
+            resposta = perguntar(intencao, faltando);
+            perguntas.increment();
+        }
+        
+        if (conversa) {
+            ChatMemory memoria = memoryStore.memoria(memoriaId);
+            memoria.add(UserMessage.from(mensagem));
+            memoria.add(AiMessage.from(resposta));
+        }
+        
+        duracao.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        log.info("🧭 Respondido sem LLM: {} ({})", intencao, faltando.isEmpty() ? "calculado" : "faltando " + faltando);
+        return Optional.of(resposta);
+    }
+    
+    public double taxaLocal() {
+        double locais = calculadas.count() + perguntas.count();
+        double total = locais + encaminhadas.count();
+        return total == 0 ? 0.0 : locais / total;
+    }
+    
+    private String calcular(Intencao intencao, SlotStore.Slots dados) {
+        if (intencao == Intencao.TMB) {
+            return tools.textoTMB(dados.idade(), dados.peso());
+        }
+        return tools.textoPlanoCompleto(
+                dados.nome() != null ? dados.nome() : properties.getDefaultName(),
+                dados.idade(),
+                dados.peso(),
+                dados.objetivo(),
+                dados.intensidade());
+    }
+    
+    private static List<String> faltando(Intencao intencao, SlotStore.Slots dados) {
+        List<String> faltando = new ArrayList<>(4);
+        if (dados.idade() == 0) {
+            faltando.add("idade");
+        }
+        if (dados.peso() == 0) {
+            faltando.add("peso atual (kg)");
+        }
+        if (intencao == Intencao.PLANO) {
+            if (dados.objetivo() == null) {
+                faltando.add("objetivo (emagrecimento, ganho de massa ou manutenção)");
+            }
+            if (dados.intensidade() == null) {
+                faltando.add("frequência de exercícios (ex.: sedentário, 3x por semana, 2x por dia)");
+            }
+        }
+        return faltando;
+    }
+    
+    private static String perguntar(Intencao intencao, List<String> faltando) {
+        StringBuilder pergunta = new StringBuilder(intencao == Intencao.TMB
+                ? "📝 Para calcular sua TMB, preciso de:\n"
+                : "📝 Para montar seu plano nutricional, preciso de:\n");
+        for (String dado : faltando) {
+            pergunta.append("• ").append(dado).append('\n');
+        }
+        return pergunta.append("\nPode me informar? 😊").toString();
+    }
+}
@@ -0,0 +1,337 @@
+package br.com.sistema.nutritional.intent;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import br.com.sistema.nutritional.models.IntensidadeExercicio;
+import br.com.sistema.nutritional.models.Objetivo;
+
+/**
+ * Extrai idade, peso, objetivo e intensidade de exercício de uma mensagem em
+ * português usando regras e um léxico de sinônimos, sem LLM.
+ *
+ * O texto é comparado sem acentos e em minúsculas ("sedentário" = "sedentario").
+ * Os termos do léxico são procurados com {@code indexOf} no início de palavra;
+ * regex só para os trechos com números, e só quando a palavra-chave aparece.
+ * Objetivo e intensidade são casados pela posição no léxico, que segue o
+ * ordinal de {@link Objetivo} e {@link IntensidadeExercicio}.
+ *
+ * A extração é conservadora: valores conflitantes, negações, dados fora da
+ * faixa e perguntas que pedem explicação marcam a mensagem como ambígua, e
+ * ela segue para o LLM.
+ */
+@Component
+public class SlotExtractor {
+    
+    // Nenhum / dois índices diferentes reconhecidos na mesma mensagem
+    private static final int DESCONHECIDO = -1;
+    private static final int CONFLITO = -2;
+    
+    private static final Objetivo[] OBJETIVOS = Objetivo.values();
+    private static final IntensidadeExercicio[] INTENSIDADES = IntensidadeExercicio.values();
+    
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    
+    // ==================================
+    // Léxico (termos sem acento, casados no início de palavra)
+    // ==================================
+    
+    // Ordem de Objetivo: emagrecimento, ganho_massa, manutencao
+    private static final String[][] OBJETIVO = {
+            {"emagrec", "perder peso", "perder gordura", "perder barriga", "perda de peso", "perda de gordura",
+                    "queimar gordura", "secar", "definir", "definicao", "cutting", "reduzir peso",
+                    "reduzir o peso", "reduzir meu peso", "baixar peso", "baixar o peso", "diminuir peso",
+                    "diminuir o peso"},
+            {"ganhar massa", "ganho de massa", "ganho_massa", "massa muscular", "ganhar musculo", "hipertrofia",
+                    "bulking", "ganhar peso", "crescer", "ficar maior", "ficar forte", "ficar grande"},
+            {"manter o peso", "manter peso", "manter meu peso", "manter a forma", "manutencao",
+                    "continuar com o mesmo peso"}
+    };
+    
+    // Ordem de IntensidadeExercicio: sedentario, leve, moderado, intenso, muito_intenso
+    private static final String[] SEDENTARIO = {
+            "sedentari", "nao treino", "nao malho", "nao pratico", "nao faco exercicio", "nao faco atividade",
+            "nao faco academia", "sem exercicio", "sem atividade fisica", "sem treinar", "sem treino"};
+    private static final String[][] INTENSIDADE = {
+            SEDENTARIO,
+            {"leve", "levemente", "de vez em quando", "as vezes"},
+            {"moderad"},
+            {"intenso", "intensa", "todos os dias", "todo dia", "diariamente"},
+            {"muito intens", "dois treinos por dia", "atleta"}
+    };
+    
+    private static final String[] PEDIDO_PLANO = {
+            "plano", "dieta", "calcul", "calorias", "macros", "macronutrientes", "monte", "montar", "monta"};
+    private static final String[] PEDIDO_TMB = {"tmb", "metabolismo basal", "taxa metabolica"};
+    
+    // Pedem explicação, adaptação ou cuidado que só o LLM dá
+    private static final String[] PRECISA_LLM = {
+            "o que", "oque", "por que", "porque", "pq", "como funciona", "como faco", "como fazer", "como calcul",
+            "explic", "diferenca", "quando", "devo", "posso", "receita", "cardapio", "alimentos", "suplement",
+            "refeic", "dica", "ajust", "recomend", "substitu", "mud", "alter", "lactose", "gluten", "vegan",
+            "vegetarian", "diabet", "gravid", "gestante", "amament", "doenca", "pressao", "alergi", "remedio",
+            "cirurgia"};
+    
+    private static final String[] NEGACAO = {"nao ", "nunca", "nem "};
+    
+    // Números precedidos por estes termos não são a idade/peso atual ("há 5 anos", "perder 10kg")
+    private static final String[] ANTES_DE_DURACAO = {"ha ", "faz ", "por ", "durante "};
+    private static final String[] ANTES_DE_META = {
+            "perder ", "ganhar ", "chegar a ", "chegar aos ", "pesar ", "eliminar ", "emagrecer ", "engordar ",
+            "meta de ", "menos ", "mais "};
+    
+    // ==================================
+    // Trechos com números
+    // ==================================
+    private static final Pattern IDADE = Pattern.compile("(\\d{1,3})\\s*anos?\\b");
+    private static final Pattern IDADE_PALAVRA = Pattern.compile("\\bidade\\s*(?:de|e|:)?\\s*(\\d{1,3})\\b");
+    
+    private static final Pattern PESO = Pattern.compile(
+            "(\\d{2,3}(?:[.,]\\d{1,2})?)\\s*(?:kg|kgs|quilos?|kilos?|quilogramas?|kilogramas?)\\b");
+    private static final Pattern PESO_PALAVRA = Pattern.compile(
+            "\\b(?:peso|pesando)\\s*(?:atual|atualmente)?\\s*(?:e|de|:)?\\s*(?:uns\\s*)?(\\d{2,3}(?:[.,]\\d{1,2})?)\\b");
+    
+    // "perder 10kg" = emagrecimento, "ganhar 5 quilos" = ganho de massa
+    private static final Pattern META_PESO = Pattern.compile(
+            "\\b(perder|eliminar|emagrecer|ganhar|engordar) \\d+ ?(?:kg|quilos?|kilos?)\\b");
+    
+    // "4x por semana", "3 vezes na semana", "5 dias por semana", "2x ao dia"
+    private static final Pattern FREQUENCIA = Pattern.compile(
+            "\\b(\\d|uma|duas|tres|quatro|cinco|seis|sete)\\s*(?:x|vezes|vez|dias?)\\s*"
+                    + "(?:por|na|a|ao|em|da|no)?\\s*(semana|dia)\\b");
+    
+    private static final Pattern NOME = Pattern.compile(
+            "\\b(?:me chamo|meu nome é|meu nome e)\\s+(\\p{L}+)",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    
+    // ==================================
+    // Dados encontrados (0/null = não informado)
+    // ==================================
+    public record Extracao(
+            Intencao intencao,
+            int idade,
+            double peso,
+            Objetivo objetivo,
+            IntensidadeExercicio intensidade,
+            String nome,
+            boolean ambigua) {
+        
+        public boolean temDados() {
+            return idade > 0 || peso > 0 || objetivo != null || intensidade != null;
+        }
+    }
+    
+    public Extracao extrair(String mensagem) {
+        String texto = normalizar(mensagem);
+        boolean ambigua = contem(texto, PRECISA_LLM) || negacao(texto);
+        
+        int idade = 0;
+        Matcher m = IDADE.matcher(texto.contains("ano") ? texto : "");
+        while (m.find()) {
+            if (precedido(texto, m.start(), ANTES_DE_DURACAO)) {
+                continue;
+            }
+            int valor = Integer.parseInt(m.group(1));
+            ambigua |= (idade != 0 && idade != valor) || valor < 10 || valor > 120;
+            idade = valor;
+        }
+        m = IDADE_PALAVRA.matcher(texto.contains("idade") ? texto : "");
+        while (m.find()) {
+            int valor = Integer.parseInt(m.group(1));
+            ambigua |= (idade != 0 && idade != valor) || valor < 10 || valor > 120;
+            idade = valor;
+        }
+        
+        double peso = 0;
+        m = PESO.matcher(texto);
+        while (m.find()) {
+            if (precedido(texto, m.start(), ANTES_DE_META)) {
+                continue;
+            }
+            double valor = decimal(m.group(1));
+            ambigua |= (peso != 0 && peso != valor) || valor < 25 || valor > 350;
+            peso = valor;
+        }
+        m = PESO_PALAVRA.matcher(texto.contains("pes") ? texto : "");
+        while (m.find()) {
+            double valor = decimal(m.group(1));
+            ambigua |= (peso != 0 && peso != valor) || valor < 25 || valor > 350;
+            peso = valor;
+        }
+        
+        int objetivo = combinar(unico(OBJETIVO, texto), metaDePeso(texto));
+        int intensidade = combinar(unico(INTENSIDADE, texto), frequencia(texto));
+        ambigua |= objetivo == CONFLITO || intensidade == CONFLITO;
+        
+        Intencao intencao = Intencao.NENHUMA;
+        boolean pedePlano = contem(texto, PEDIDO_PLANO);
+        if (contem(texto, PEDIDO_TMB) && !pedePlano) {
+            intencao = Intencao.TMB;
+        } else if (pedePlano || (objetivo >= 0 && conta(idade > 0, peso > 0, intensidade >= 0) >= 2)) {
+            intencao = Intencao.PLANO;
+        }
+        
+        return new Extracao(intencao, idade, peso,
+                objetivo >= 0 ? OBJETIVOS[objetivo] : null,
+                intensidade >= 0 ? INTENSIDADES[intensidade] : null,
+                texto.contains("me chamo") || texto.contains("meu nome") ? nome(mensagem) : null,
+                ambigua);
+    }
+    
+    // ==================================
+    // Minúsculas e sem acentos
+    // ==================================
+    static String normalizar(String texto) {
+        return ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+    
+    // Termo no início de uma palavra ("emagrec" casa com "emagrecer", não com "reemagrecer")
+    private static boolean contem(String texto, String termo) {
+        for (int i = texto.indexOf(termo); i >= 0; i = texto.indexOf(termo, i + 1)) {
+            if (i == 0 || !Character.isLetterOrDigit(texto.charAt(i - 1))) {
+                // "intenso" dentro de "muito intenso" conta só como muito intenso
+                if (!termo.startsWith("intens") || !texto.startsWith("muito ", i - 6)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    private static boolean contem(String texto, String[] termos) {
+        for (String termo : termos) {
+            if (contem(texto, termo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static int unico(String[][] lexico, String texto) {
+        int encontrado = DESCONHECIDO;
+        for (int i = 0; i < lexico.length; i++) {
+            if (contem(texto, lexico[i])) {
+                if (encontrado != DESCONHECIDO) {
+                    return CONFLITO;
+                }
+                encontrado = i;
+            }
+        }
+        return encontrado;
+    }
+    
+    private static int combinar(int a, int b) {
+        if (a == CONFLITO || b == CONFLITO || (a >= 0 && b >= 0 && a != b)) {
+            return CONFLITO;
+        }
+        return Math.max(a, b);
+    }
+    
+    // ==================================
+    // "não treino" é dado; qualquer outra negação ("não quero emagrecer") vai ao LLM
+    // ==================================
+    private static boolean negacao(String texto) {
+        for (String termo : NEGACAO) {
+            for (int i = texto.indexOf(termo); i >= 0; i = texto.indexOf(termo, i + 1)) {
+                if ((i == 0 || !Character.isLetterOrDigit(texto.charAt(i - 1))) && !sedentario(texto, i)) {
+                    return true;
+                }
+            }
+        }
+        return texto.endsWith("nao") || texto.endsWith("nem");
+    }
+    
+    private static boolean sedentario(String texto, int inicio) {
+        for (String termo : SEDENTARIO) {
+            if (texto.startsWith(termo, inicio)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static boolean precedido(String texto, int inicio, String[] termos) {
+        for (String termo : termos) {
+            int i = inicio - termo.length();
+            if (i >= 0 && texto.startsWith(termo, i) && (i == 0 || !Character.isLetterOrDigit(texto.charAt(i - 1)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static int metaDePeso(String texto) {
+        if (!texto.contains("perder") && !texto.contains("eliminar") && !texto.contains("emagrecer")
+                && !texto.contains("ganhar") && !texto.contains("engordar")) {
+            return DESCONHECIDO;
+        }
+        int encontrado = DESCONHECIDO;
+        Matcher m = META_PESO.matcher(texto);
+        while (m.find()) {
+            String verbo = m.group(1);
+            encontrado = combinar(encontrado, verbo.equals("ganhar") || verbo.equals("engordar") ? 1 : 0);
+        }
+        return encontrado;
+    }
+    
+    // ==================================
+    // Frequência semanal/diária (mesmas faixas do system prompt)
+    // ==================================
+    private static int frequencia(String texto) {
+        if (!texto.contains("semana") && !texto.contains("dia")) {
+            return DESCONHECIDO;
+        }
+        int encontrado = DESCONHECIDO;
+        Matcher m = FREQUENCIA.matcher(texto);
+        while (m.find()) {
+            int vezes = numero(m.group(1));
+            int indice = m.group(2).equals("dia")
+                    ? (vezes >= 2 ? 4 : 3)
+                    : (vezes == 0 ? 0 : vezes <= 2 ? 1 : vezes <= 5 ? 2 : 3);
+            encontrado = combinar(encontrado, indice);
+        }
+        return encontrado;
+    }
+    
+    private static int numero(String valor) {
+        return switch (valor) {
+            case "uma" -> 1;
+            case "duas" -> 2;
+            case "tres" -> 3;
+            case "quatro" -> 4;
+            case "cinco" -> 5;
+            case "seis" -> 6;
+            case "sete" -> 7;
+            default -> Integer.parseInt(valor);
+        };
+    }
+    
+    private static double decimal(String valor) {
+        return Double.parseDouble(valor.replace(',', '.'));
+    }
+    
+    private static int conta(boolean... presentes) {
+        int total = 0;
+        for (boolean presente : presentes) {
+            if (presente) {
+                total++;
+            }
+        }
+        return total;
+    }
+    
+    private static String nome(String mensagem) {
+        Matcher m = NOME.matcher(mensagem);
+        if (!m.find()) {
+            return null;
+        }
+        String nome = m.group(1);
+        return Character.toUpperCase(nome.charAt(0)) + nome.substring(1).toLowerCase(Locale.ROOT);
+    }
+}
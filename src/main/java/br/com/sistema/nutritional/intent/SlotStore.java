@@ -0,0 +1,77 @@
+package br.com.sistema.nutritional.intent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import br.com.sistema.nutritional.config.IntentProperties;
+import br.com.sistema.nutritional.models.IntensidadeExercicio;
+import br.com.sistema.nutritional.models.Objetivo;
+
+/**
+ * Dados já informados em cada conversa, para pedir só o que falta.
+ *
+ * Cada mensagem acrescenta o que reconheceu; valores novos substituem os
+ * anteriores. Os dados expiram após {@code slotTtl} sem uso e, acima de
+ * {@code maxSessions}, as conversas expiradas são removidas (no máximo uma
+ * varredura por {@code slotTtl}).
+ */
+class SlotStore {
+    
+    private final IntentProperties properties;
+    private final long ttlMs;
+    private final Map<String, Slots> conversas = new ConcurrentHashMap<>();
+    private final AtomicLong proximaLimpeza = new AtomicLong();
+    
+    SlotStore(IntentProperties properties) {
+        this.properties = properties;
+        this.ttlMs = properties.getSlotTtl().toMillis();
+    }
+    
+    // ==================================
+    // Dados acumulados + pedido à espera de dados (null = nenhum)
+    // ==================================
+    record Slots(Intencao pendente, int idade, double peso, Objetivo objetivo,
+                 IntensidadeExercicio intensidade, String nome, long expiraEm) {
+        
+        static final Slots VAZIO = new Slots(null, 0, 0, null, null, null, 0);
+        
+        Slots com(SlotExtractor.Extracao extracao, long expiraEm) {
+            return new Slots(pendente,
+                    extracao.idade() > 0 ? extracao.idade() : idade,
+                    extracao.peso() > 0 ? extracao.peso() : peso,
+                    extracao.objetivo() != null ? extracao.objetivo() : objetivo,
+                    extracao.intensidade() != null ? extracao.intensidade() : intensidade,
+                    extracao.nome() != null ? extracao.nome() : nome,
+                    expiraEm);
+        }
+        
+        Slots aguardando(Intencao intencao) {
+            return new Slots(intencao, idade, peso, objetivo, intensidade, nome, expiraEm);
+        }
+    }
+    
+    Slots mesclar(String conversa, SlotExtractor.Extracao extracao) {
+        long agora = System.currentTimeMillis();
+        limparSeNecessario(agora);
+        return conversas.compute(conversa, (id, atual) ->
+                (atual == null || atual.expiraEm() < agora ? Slots.VAZIO : atual).com(extracao, agora + ttlMs));
+    }
+    
+    void aguardar(String conversa, Intencao intencao) {
+        conversas.computeIfPresent(conversa, (id, atual) -> atual.aguardando(intencao));
+    }
+    
+    int tamanho() {
+        return conversas.size();
+    }
+    
+    private void limparSeNecessario(long agora) {
+        long proxima = proximaLimpeza.get();
+        if (conversas.size() <= properties.getMaxSessions() || agora < proxima
+                || !proximaLimpeza.compareAndSet(proxima, agora + ttlMs)) {
+            return;
+        }
+        conversas.values().removeIf(slots -> slots.expiraEm() < agora);
+    }
+}
@@ -2,10 +2,14 @@ package br.com.sistema.nutritional.llm;
 
 import dev.langchain4j.data.message.UserMessage;
 import dev.langchain4j.model.anthropic.AnthropicChatModel;
+import dev.langchain4j.model.anthropic.AnthropicStreamingChatModel;
 import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
 import dev.langchain4j.model.chat.request.ChatRequest;
 import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -13,24 +17,51 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class AnthropicProvider implements LLMProvider {
     
-    @Value("${llm.anthropic.api-key:}")
-    private String apiKey;
+    private final String apiKey;
+    private final String modelName;
+    private final String baseUrl;
+    private final String rotulo;
     
-    @Value("${llm.anthropic.model-name:claude-3-5-sonnet-20241022}")
-    private String modelName;
+    // Criados no construtor (publicação segura via campo final), não no primeiro uso
+    private final AnthropicChatModel model;
+    private final AnthropicStreamingChatModel streamingModel;
     
-    private AnthropicChatModel model;
+    @Autowired
+    public AnthropicProvider(@Value("${llm.anthropic.api-key:}") String apiKey,
+                             @Value("${llm.anthropic.model-name:claude-3-5-sonnet-20241022}") String modelName,
+                             @Value("${llm.anthropic.prompt-caching:true}") boolean promptCaching) {
+        this(apiKey, modelName, null, null, promptCaching);
+    }
     
-    private AnthropicChatModel getModel() {
-        if (model == null) {
-            log.info("🟣 Inicializando Anthropic: {}", modelName);
-            model = AnthropicChatModel.builder()
+    // Instância adicional para um endpoint de llm.endpoints (outra chave, modelo ou URL)
+    public AnthropicProvider(String apiKey, String modelName, String baseUrl, String rotulo, boolean promptCaching) {
+        this.apiKey = apiKey;
+        this.modelName = modelName;
+        this.baseUrl = baseUrl;
+        this.rotulo = rotulo;
+        
+        if (isAvailable()) {
+            log.info("🟣 Inicializando Anthropic: {}", getProviderName());
+            this.model = AnthropicChatModel.builder()
+                    .baseUrl(baseUrl)
                     .apiKey(apiKey)
                     .modelName(modelName)
                     .temperature(0.7)
+                    .cacheSystemMessages(promptCaching)
+                    .cacheTools(promptCaching)
                     .build();
+            this.streamingModel = AnthropicStreamingChatModel.builder()
+                    .baseUrl(baseUrl)
+                    .apiKey(apiKey)
+                    .modelName(modelName)
+                    .temperature(0.7)
+                    .cacheSystemMessages(promptCaching)
+                    .cacheTools(promptCaching)
+                    .build();
+        } else {
+            this.model = null;
+            this.streamingModel = null;
         }
-        return model;
     }
     
     @Override
@@ -44,7 +75,7 @@ public class AnthropicProvider implements LLMProvider {
                     .messages(UserMessage.from(fullPrompt))
                     .build();
             
-            ChatResponse response = getModel().chat(request);
+            ChatResponse response = model.chat(request);
             String result = response.aiMessage().text();
             
             log.info("✅ Resposta gerada: {} caracteres", result.length());
@@ -56,9 +87,22 @@ public class AnthropicProvider implements LLMProvider {
         }
     }
     
+    @Override
+    public void chatStream(String systemPrompt, String userMessage, StreamingChatResponseHandler handler) {
+        log.info("🌊 Anthropic iniciando streaming");
+        
+        String fullPrompt = systemPrompt + "\n\nUsuário: " + userMessage;
+        
+        ChatRequest request = ChatRequest.builder()
+                .messages(UserMessage.from(fullPrompt))
+                .build();
+        
+        streamingModel.chat(request, handler);
+    }
+    
     @Override
     public String getProviderName() {
-        return "Anthropic (" + modelName + ")";
+        return "Anthropic (" + modelName + ")" + (rotulo == null ? "" : " #" + rotulo);
     }
     
     @Override
@@ -68,6 +112,11 @@ public class AnthropicProvider implements LLMProvider {
     
     @Override
     public ChatModel getChatModel() {
-        return getModel();
+        return model;
+    }
+    
+    @Override
+    public StreamingChatModel getStreamingChatModel() {
+        return streamingModel;
     }
 }
\ No newline at end of file
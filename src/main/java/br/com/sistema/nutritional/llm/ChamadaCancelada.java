@@ -0,0 +1,36 @@
+package br.com.sistema.nutritional.llm;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Marca de cancelamento da chamada em andamento na thread atual.
+ *
+ * Quem cancela uma chamada de propósito (a perna perdedora de um hedge,
+ * interrompida com {@code Future.cancel(true)}) liga a marca antes de
+ * interromper a thread. O erro que a chamada lançar a partir daí não diz
+ * nada sobre o provider: circuit breaker e limite de concorrência o tratam
+ * como {@link LLMCapacityException}, sem contar falha.
+ */
+final class ChamadaCancelada {
+    
+    private static final ThreadLocal<AtomicBoolean> MARCA = new ThreadLocal<>();
+    
+    private ChamadaCancelada() {
+    }
+    
+    // Executa a chamada com a marca visível para os decorators da mesma thread
+    static <T> T executar(AtomicBoolean marca, Supplier<T> chamada) {
+        MARCA.set(marca);
+        try {
+            return chamada.get();
+        } finally {
+            MARCA.remove();
+        }
+    }
+    
+    static boolean naThreadAtual() {
+        AtomicBoolean marca = MARCA.get();
+        return marca != null && marca.get();
+    }
+}
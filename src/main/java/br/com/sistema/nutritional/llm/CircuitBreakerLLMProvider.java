@@ -0,0 +1,271 @@
+package br.com.sistema.nutritional.llm;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import br.com.sistema.nutritional.config.LLMProperties;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Circuit breaker de um provider, sobre as últimas {@code windowSize} chamadas.
+ *
+ * - FECHADO: chamadas passam; com {@code minimumCalls} na janela, taxa de erro
+ *   ou de chamadas lentas acima do limiar abre o circuito.
+ * - ABERTO: {@link #isAvailable()} devolve false e chamadas falham na hora com
+ *   {@link CircuitOpenException} até passar {@code openDuration}.
+ * - MEIO-ABERTO: até {@code halfOpenProbes} chamadas de teste; todas com
+ *   sucesso fecham o circuito, qualquer falha reabre.
+ *
+ * {@link LLMCapacityException} (limite local) e chamadas canceladas por quem
+ * as iniciou não contam como falha do provider.
+ */
+@Slf4j
+public class CircuitBreakerLLMProvider implements LLMProvider {
+    
+    enum Estado { FECHADO, MEIO_ABERTO, ABERTO }
+    
+    // Início da chamada e se ela é um teste do estado meio-aberto
+    private record Permissao(long inicio, boolean teste) {
+    }
+    
+    private final LLMProvider delegate;
+    private final LLMProperties.CircuitBreakerConfig config;
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    // Janela circular: 1 = falha/lenta, 0 = ok
+    private final byte[] falhas;
+    private final byte[] lentas;
+    private int posicao;
+    private int preenchidas;
+    private int totalFalhas;
+    private int totalLentas;
+    
+    private volatile Estado estado = Estado.FECHADO;
+    private volatile long abertoAte;
+    private volatile int testesEmAndamento;
+    private int testesComSucesso;
+    
+    private final Counter aberturas;
+    private final Counter rejeitadas;
+    
+    public CircuitBreakerLLMProvider(LLMProvider delegate,
+                                     LLMProperties.CircuitBreakerConfig config,
+                                     MeterRegistry registry) {
+        this.delegate = delegate;
+        this.config = config;
+        this.falhas = new byte[config.getWindowSize()];
+        this.lentas = new byte[config.getWindowSize()];
+        
+        String provider = delegate.getProviderName();
+        Gauge.builder("llm.circuit.state", this, c -> c.estado.ordinal())
+                .tag("provider", provider)
+                .description("0 = fechado, 1 = meio-aberto, 2 = aberto")
+                .register(registry);
+        this.aberturas = Counter.builder("llm.circuit.opened").tag("provider", provider).register(registry);
+        this.rejeitadas = Counter.builder("llm.circuit.rejected").tag("provider", provider).register(registry);
+    }
+    
+    @Override
+    public String chat(String systemPrompt, String userMessage) {
+        return executar(() -> delegate.chat(systemPrompt, userMessage));
+    }
+    
+    @Override
+    public ChatResponse chat(ChatRequest request) {
+        return executar(() -> delegate.chat(request));
+    }
+    
+    @Override
+    public void chatStream(String systemPrompt, String userMessage, StreamingChatResponseHandler handler) {
+        Permissao permissao = permitir();
+        try {
+            delegate.chatStream(systemPrompt, userMessage, registrarAoFinal(handler, permissao));
+        } catch (RuntimeException e) {
+            registrar(permissao, e);
+            throw e;
+        }
+    }
+    
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName();
+    }
+    
+    @Override
+    public boolean aquecer(String sonda) {
+        return delegate.aquecer(sonda);
+    }
+    
+    // ==================================
+    // Disponível = chave configurada e circuito aceitando chamadas
+    // ==================================
+    @Override
+    public boolean isAvailable() {
+        if (!delegate.isAvailable()) {
+            return false;
+        }
+        return switch (estado) {
+            case FECHADO -> true;
+            case ABERTO -> System.currentTimeMillis() >= abertoAte;
+            case MEIO_ABERTO -> testesEmAndamento < config.getHalfOpenProbes();
+        };
+    }
+    
+    @Override
+    public ChatModel getChatModel() {
+        return new ChatModel() {
+            @Override
+            public ChatResponse chat(ChatRequest request) {
+                return CircuitBreakerLLMProvider.this.chat(request);
+            }
+        };
+    }
+    
+    @Override
+    public StreamingChatModel getStreamingChatModel() {
+        StreamingChatModel streamingModel = delegate.getStreamingChatModel();
+        if (streamingModel == null) {
+            return null;
+        }
+        return new StreamingChatModel() {
+            @Override
+            public void chat(ChatRequest request, StreamingChatResponseHandler handler) {
+                Permissao permissao = permitir();
+                try {
+                    streamingModel.chat(request, registrarAoFinal(handler, permissao));
+                } catch (RuntimeException e) {
+                    registrar(permissao, e);
+                    throw e;
+                }
+            }
+        };
+    }
+    
+    private <T> T executar(Supplier<T> chamada) {
+        Permissao permissao = permitir();
+        try {
+            T resposta = chamada.get();
+            registrar(permissao, null);
+            return resposta;
+        } catch (RuntimeException e) {
+            registrar(permissao, e);
+            throw e;
+        }
+    }
+    
+    // ==================================
+    // Verifica o estado antes de enviar a chamada
+    // ==================================
+    private Permissao permitir() {
+        lock.lock();
+        try {
+            if (estado == Estado.ABERTO && System.currentTimeMillis() >= abertoAte) {
+                estado = Estado.MEIO_ABERTO;
+                testesEmAndamento = 0;
+                testesComSucesso = 0;
+                log.info("🔌 Circuito de {} meio-aberto: testando recuperação", getProviderName());
+            }
+            
+            if (estado == Estado.ABERTO
+                    || (estado == Estado.MEIO_ABERTO && testesEmAndamento >= config.getHalfOpenProbes())) {
+                rejeitadas.increment();
+                throw new CircuitOpenException("Circuito aberto para " + getProviderName());
+            }
+            
+            boolean teste = estado == Estado.MEIO_ABERTO;
+            if (teste) {
+                testesEmAndamento++;
+            }
+            return new Permissao(System.nanoTime(), teste);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // ==================================
+    // Registra o resultado na janela e aplica as transições
+    // ==================================
+    private void registrar(Permissao permissao, Throwable erro) {
+        long duracaoMs = (System.nanoTime() - permissao.inicio()) / 1_000_000;
+        // Sobrecarga local e chamada cancelada pelo chamador (stream ou perna de hedge)
+        // não dizem nada sobre o provider
+        boolean falhou = erro != null && !(erro instanceof LLMCapacityException)
+                && !StreamingHandlerDecorator.cancelado(erro) && !ChamadaCancelada.naThreadAtual();
+        boolean lenta = duracaoMs >= config.getSlowCallDuration().toMillis();
+        
+        lock.lock();
+        try {
+            if (permissao.teste()) {
+                testesEmAndamento = Math.max(0, testesEmAndamento - 1);
+                if (estado != Estado.MEIO_ABERTO) {
+                    return;
+                }
+                if (falhou) {
+                    abrir("falha no teste de recuperação");
+                } else if (erro == null && ++testesComSucesso >= config.getHalfOpenProbes()) {
+                    fechar();
+                }
+                return;
+            }
+            
+            if (estado != Estado.FECHADO || (erro != null && !falhou)) {
+                return;
+            }
+            
+            totalFalhas += (falhou ? 1 : 0) - falhas[posicao];
+            totalLentas += (lenta ? 1 : 0) - lentas[posicao];
+            falhas[posicao] = (byte) (falhou ? 1 : 0);
+            lentas[posicao] = (byte) (lenta ? 1 : 0);
+            posicao = (posicao + 1) % falhas.length;
+            preenchidas = Math.min(preenchidas + 1, falhas.length);
+            
+            if (preenchidas >= config.getMinimumCalls()) {
+                double taxaFalhas = (double) totalFalhas / preenchidas;
+                double taxaLentas = (double) totalLentas / preenchidas;
+                if (taxaFalhas >= config.getFailureRateThreshold()) {
+                    abrir(String.format("%.0f%% de erros", taxaFalhas * 100));
+                } else if (taxaLentas >= config.getSlowCallRateThreshold()) {
+                    abrir(String.format("%.0f%% de chamadas lentas", taxaLentas * 100));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void abrir(String motivo) {
+        estado = Estado.ABERTO;
+        abertoAte = System.currentTimeMillis() + config.getOpenDuration().toMillis();
+        aberturas.increment();
+        log.warn("🔌 Circuito de {} aberto por {} ({})", getProviderName(), config.getOpenDuration(), motivo);
+    }
+    
+    private void fechar() {
+        estado = Estado.FECHADO;
+        posicao = 0;
+        preenchidas = 0;
+        totalFalhas = 0;
+        totalLentas = 0;
+        Arrays.fill(falhas, (byte) 0);
+        Arrays.fill(lentas, (byte) 0);
+        log.info("🔌 Circuito de {} fechado", getProviderName());
+    }
+    
+    private StreamingChatResponseHandler registrarAoFinal(StreamingChatResponseHandler handler, Permissao permissao) {
+        return new StreamingHandlerDecorator(handler) {
+            @Override
+            protected void aoTerminar(ChatResponse resposta, Throwable erro) {
+                registrar(permissao, erro);
+            }
+        };
+    }
+}
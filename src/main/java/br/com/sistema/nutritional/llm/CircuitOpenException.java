@@ -0,0 +1,12 @@
+package br.com.sistema.nutritional.llm;
+
+/**
+ * Lançada quando o circuito do provider está aberto e a chamada nem chega a
+ * ser enviada.
+ */
+public class CircuitOpenException extends LLMCapacityException {
+    
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
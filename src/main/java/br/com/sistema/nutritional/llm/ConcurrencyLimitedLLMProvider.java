@@ -0,0 +1,269 @@
+package br.com.sistema.nutritional.llm;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import br.com.sistema.nutritional.config.LLMProperties;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decorator que limita as chamadas simultâneas a um provider e aprende o
+ * limite sustentável a partir da latência observada (AIMD).
+ *
+ * - Aumento aditivo: cada chamada concluída dentro da tolerância, com o limite
+ *   em uso, soma {@code 1/limite} (≈ +1 a cada "janela" cheia).
+ * - Redução multiplicativa: erro ou latência acima de
+ *   {@code referência × tolerância} multiplica o limite por {@code backoffRatio}.
+ *
+ * A referência é uma média móvel lenta da latência de chamadas sem streaming:
+ * a duração de um stream depende do tamanho da resposta, então ele só conta
+ * como erro (redução) e nunca como amostra de latência. Acima do limite a chamada
+ * espera na fila até {@code queueTimeout} e depois falha com
+ * {@link LLMCapacityException}. Usa {@link ReentrantLock} (e não
+ * {@code synchronized}) para não fixar virtual threads na carrier.
+ */
+@Slf4j
+public class ConcurrencyLimitedLLMProvider implements LLMProvider {
+    
+    // Peso de cada amostra na média de referência
+    private static final double ALFA_REFERENCIA = 0.05;
+    
+    private final LLMProvider delegate;
+    private final LLMProperties.ConcurrencyConfig config;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition vagaLiberada = lock.newCondition();
+    
+    // Escritos sob o lock; volatile para a leitura sem lock dos gauges
+    private volatile double limite;
+    private volatile int emAndamento;
+    private double latenciaReferenciaMs;
+    
+    private final Counter rejeitadas;
+    private final Counter enfileiradas;
+    
+    public ConcurrencyLimitedLLMProvider(LLMProvider delegate,
+                                         LLMProperties.ConcurrencyConfig config,
+                                         MeterRegistry registry) {
+        this.delegate = delegate;
+        this.config = config;
+        this.limite = config.getInitialLimit();
+        
+        String provider = delegate.getProviderName();
+        Gauge.builder("llm.concurrency.limit", this, ConcurrencyLimitedLLMProvider::limiteAtual)
+                .tag("provider", provider)
+                .description("Limite adaptativo de chamadas simultâneas")
+                .register(registry);
+        Gauge.builder("llm.concurrency.inflight", this, ConcurrencyLimitedLLMProvider::emAndamento)
+                .tag("provider", provider)
+                .register(registry);
+        this.rejeitadas = Counter.builder("llm.concurrency.rejected")
+                .tag("provider", provider)
+                .register(registry);
+        this.enfileiradas = Counter.builder("llm.concurrency.queued")
+                .tag("provider", provider)
+                .register(registry);
+        
+        log.info("🚦 Limite adaptativo para {}: inicial={}, faixa=[{}, {}]",
+                provider, config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit());
+    }
+    
+    @Override
+    public String chat(String systemPrompt, String userMessage) {
+        long inicio = adquirir();
+        boolean sucesso = false;
+        try {
+            String resposta = delegate.chat(systemPrompt, userMessage);
+            sucesso = true;
+            return resposta;
+        } finally {
+            liberar(inicio, sucesso);
+        }
+    }
+    
+    @Override
+    public ChatResponse chat(ChatRequest request) {
+        long inicio = adquirir();
+        boolean sucesso = false;
+        try {
+            ChatResponse resposta = delegate.chat(request);
+            sucesso = true;
+            return resposta;
+        } finally {
+            liberar(inicio, sucesso);
+        }
+    }
+    
+    @Override
+    public void chatStream(String systemPrompt, String userMessage, StreamingChatResponseHandler handler) {
+        adquirir();
+        try {
+            delegate.chatStream(systemPrompt, userMessage, liberarAoFinal(handler));
+        } catch (RuntimeException e) {
+            liberarStream(e);
+            throw e;
+        }
+    }
+    
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName();
+    }
+    
+    @Override
+    public boolean aquecer(String sonda) {
+        return delegate.aquecer(sonda);
+    }
+    
+    @Override
+    public boolean isAvailable() {
+        return delegate.isAvailable();
+    }
+    
+    // ==================================
+    // Modelos expostos ao LangChain4j também passam pelo limite
+    // ==================================
+    @Override
+    public ChatModel getChatModel() {
+        return new ChatModel() {
+            @Override
+            public ChatResponse chat(ChatRequest request) {
+                return ConcurrencyLimitedLLMProvider.this.chat(request);
+            }
+        };
+    }
+    
+    @Override
+    public StreamingChatModel getStreamingChatModel() {
+        StreamingChatModel streamingModel = delegate.getStreamingChatModel();
+        if (streamingModel == null) {
+            return null;
+        }
+        return new StreamingChatModel() {
+            @Override
+            public void chat(ChatRequest request, StreamingChatResponseHandler handler) {
+                adquirir();
+                try {
+                    streamingModel.chat(request, liberarAoFinal(handler));
+                } catch (RuntimeException e) {
+                    liberarStream(e);
+                    throw e;
+                }
+            }
+        };
+    }
+    
+    public int limiteAtual() {
+        return (int) limite;
+    }
+    
+    public int emAndamento() {
+        return emAndamento;
+    }
+    
+    // ==================================
+    // Espera vaga até queueTimeout; devolve o instante de início
+    // ==================================
+    private long adquirir() {
+        lock.lock();
+        try {
+            if (emAndamento >= (int) limite) {
+                enfileiradas.increment();
+                long restanteNs = config.getQueueTimeout().toNanos();
+                while (emAndamento >= (int) limite) {
+                    if (restanteNs <= 0) {
+                        rejeitadas.increment();
+                        throw new LLMCapacityException(delegate.getProviderName()
+                                + " está no limite de " + (int) limite + " chamadas simultâneas");
+                    }
+                    restanteNs = vagaLiberada.awaitNanos(restanteNs);
+                }
+            }
+            emAndamento++;
+            return System.nanoTime();
+        
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LLMCapacityException("Interrompido aguardando vaga em " + delegate.getProviderName());
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // ==================================
+    // Fim de um stream: erro reduz o limite; sucesso e cancelamento só
+    // devolvem a vaga (duração de stream não é latência comparável)
+    // ==================================
+    private void liberarStream(Throwable erro) {
+        devolverVaga(erro != null && !StreamingHandlerDecorator.cancelado(erro));
+    }
+    
+    private void devolverVaga(boolean reduzirLimite) {
+        lock.lock();
+        try {
+            emAndamento--;
+            if (reduzirLimite) {
+                limite = Math.max(config.getMinLimit(), limite * config.getBackoffRatio());
+            }
+            vagaLiberada.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // ==================================
+    // Ajusta o limite (AIMD) com a latência da chamada e libera a vaga
+    // ==================================
+    private void liberar(long inicio, boolean sucesso) {
+        // Perna de hedge cancelada: o erro é da interrupção, não do provider
+        if (!sucesso && ChamadaCancelada.naThreadAtual()) {
+            devolverVaga(false);
+            return;
+        }
+        double latenciaMs = (System.nanoTime() - inicio) / 1_000_000.0;
+        
+        lock.lock();
+        try {
+            boolean limiteEmUso = emAndamento >= (int) limite / 2;
+            emAndamento--;
+            
+            if (latenciaReferenciaMs == 0) {
+                latenciaReferenciaMs = latenciaMs;
+            }
+            boolean sobrecarga = !sucesso || latenciaMs > latenciaReferenciaMs * config.getLatencyTolerance();
+            
+            if (sobrecarga) {
+                limite = Math.max(config.getMinLimit(), limite * config.getBackoffRatio());
+            } else if (limiteEmUso) {
+                limite = Math.min(config.getMaxLimit(), limite + 1.0 / limite);
+            }
+            
+            // Erros não entram na referência (falhas rápidas a deixariam otimista demais)
+            if (sucesso) {
+                latenciaReferenciaMs += ALFA_REFERENCIA * (latenciaMs - latenciaReferenciaMs);
+            }
+            
+            vagaLiberada.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private StreamingChatResponseHandler liberarAoFinal(StreamingChatResponseHandler handler) {
+        return new StreamingHandlerDecorator(handler) {
+            @Override
+            protected void aoTerminar(ChatResponse resposta, Throwable erro) {
+                liberarStream(erro);
+            }
+        };
+    }
+}
@@ -0,0 +1,150 @@
+package br.com.sistema.nutritional.llm;
+
+import java.util.List;
+import java.util.function.Function;
+
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Roteador que decide o provider a cada chamada, e não só na inicialização.
+ *
+ * Tenta os providers na ordem configurada, pulando os indisponíveis (sem
+ * chave ou com circuito aberto) e passando ao próximo quando a chamada falha.
+ * Streaming escolhe o primeiro disponível; uma vez iniciado não troca de
+ * provider, pois tokens já podem ter sido enviados ao cliente.
+ */
+@Slf4j
+public class FailoverLLMProvider implements LLMProvider {
+    
+    private final List<LLMProvider> providers;
+    private final Counter[] atendidasEmFailover;
+    
+    public FailoverLLMProvider(List<LLMProvider> providers, MeterRegistry registry) {
+        if (providers.isEmpty()) {
+            throw new IllegalArgumentException("Failover exige ao menos um provider");
+        }
+        this.providers = List.copyOf(providers);
+        this.atendidasEmFailover = new Counter[providers.size()];
+        for (int i = 0; i < providers.size(); i++) {
+            atendidasEmFailover[i] = Counter.builder("llm.failover.calls")
+                    .tag("provider", providers.get(i).getProviderName())
+                    .description("Chamadas atendidas por um provider que não é o principal")
+                    .register(registry);
+        }
+        
+        log.info("🔀 Roteamento com failover: {}",
+                providers.stream().map(LLMProvider::getProviderName).toList());
+    }
+    
+    @Override
+    public String chat(String systemPrompt, String userMessage) {
+        return rotear(provider -> provider.chat(systemPrompt, userMessage));
+    }
+    
+    @Override
+    public ChatResponse chat(ChatRequest request) {
+        return rotear(provider -> provider.chat(request));
+    }
+    
+    @Override
+    public void chatStream(String systemPrompt, String userMessage, StreamingChatResponseHandler handler) {
+        rotear(provider -> {
+            provider.chatStream(systemPrompt, userMessage, handler);
+            return null;
+        });
+    }
+    
+    // Nome estável (namespace do cache semântico): o do provider principal
+    @Override
+    public String getProviderName() {
+        return providers.get(0).getProviderName();
+    }
+    
+    // ==================================
+    // Aquece todos; falha em um não impede os demais
+    // ==================================
+    @Override
+    public boolean aquecer(String sonda) {
+        boolean aquecido = false;
+        for (LLMProvider provider : providers) {
+            try {
+                aquecido |= provider.aquecer(sonda);
+            } catch (RuntimeException e) {
+                log.warn("🔥 Aquecimento de {} falhou: {}", provider.getProviderName(), e.getMessage());
+            }
+        }
+        return aquecido;
+    }
+    
+    @Override
+    public boolean isAvailable() {
+        return providers.stream().anyMatch(LLMProvider::isAvailable);
+    }
+    
+    @Override
+    public ChatModel getChatModel() {
+        return new ChatModel() {
+            @Override
+            public ChatResponse chat(ChatRequest request) {
+                return FailoverLLMProvider.this.chat(request);
+            }
+        };
+    }
+    
+    @Override
+    public StreamingChatModel getStreamingChatModel() {
+        return new StreamingChatModel() {
+            @Override
+            public void chat(ChatRequest request, StreamingChatResponseHandler handler) {
+                rotear(provider -> {
+                    StreamingChatModel streamingModel = provider.getStreamingChatModel();
+                    if (streamingModel == null) {
+                        throw new UnsupportedOperationException(
+                                provider.getProviderName() + " não suporta streaming");
+                    }
+                    streamingModel.chat(request, handler);
+                    return null;
+                });
+            }
+        };
+    }
+    
+    // ==================================
+    // Primeiro provider disponível que responder sem erro
+    // ==================================
+    private <T> T rotear(Function<LLMProvider, T> chamada) {
+        RuntimeException ultimoErro = null;
+        
+        for (int i = 0; i < providers.size(); i++) {
+            LLMProvider provider = providers.get(i);
+            if (!provider.isAvailable()) {
+                continue;
+            }
+            
+            try {
+                T resposta = chamada.apply(provider);
+                if (i > 0) {
+                    atendidasEmFailover[i].increment();
+                }
+                return resposta;
+                
+            } catch (RuntimeException e) {
+                log.warn("🔀 {} falhou ({}), tentando o próximo provider",
+                        provider.getProviderName(), e.getMessage());
+                ultimoErro = e;
+            }
+        }
+        
+        if (ultimoErro != null) {
+            throw ultimoErro;
+        }
+        throw new CircuitOpenException("Nenhum provider LLM disponível no momento");
+    }
+}
@@ -2,10 +2,14 @@ package br.com.sistema.nutritional.llm;
 
 import dev.langchain4j.data.message.UserMessage;
 import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
 import dev.langchain4j.model.chat.request.ChatRequest;
 import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
 import dev.langchain4j.model.googleai.GoogleAiGeminiChatModel;
+import dev.langchain4j.model.googleai.GoogleAiGeminiStreamingChatModel;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -13,24 +17,42 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class GeminiProvider implements LLMProvider {
     
-    @Value("${llm.gemini.api-key:}")
-    private String apiKey;
+    private final String apiKey;
+    private final String modelName;
+    private final String rotulo;
     
-    @Value("${llm.gemini.model-name:gemini-2.5-flash}")
-    private String modelName;
+    // Criados no construtor (publicação segura via campo final), não no primeiro uso
+    private final GoogleAiGeminiChatModel model;
+    private final GoogleAiGeminiStreamingChatModel streamingModel;
     
-    private GoogleAiGeminiChatModel model;
+    @Autowired
+    public GeminiProvider(@Value("${llm.gemini.api-key:}") String apiKey,
+                          @Value("${llm.gemini.model-name:gemini-2.5-flash}") String modelName) {
+        this(apiKey, modelName, null);
+    }
     
-    private GoogleAiGeminiChatModel getModel() {
-        if (model == null) {
-            log.info("🔷 Inicializando Gemini: {}", modelName);
-            model = GoogleAiGeminiChatModel.builder()
+    // Instância adicional para um endpoint de llm.endpoints (outra chave ou modelo)
+    public GeminiProvider(String apiKey, String modelName, String rotulo) {
+        this.apiKey = apiKey;
+        this.modelName = modelName;
+        this.rotulo = rotulo;
+        
+        if (isAvailable()) {
+            log.info("🔷 Inicializando Gemini: {}", getProviderName());
+            this.model = GoogleAiGeminiChatModel.builder()
                     .apiKey(apiKey)
                     .modelName(modelName)
                     .temperature(0.7)
                     .build();
+            this.streamingModel = GoogleAiGeminiStreamingChatModel.builder()
+                    .apiKey(apiKey)
+                    .modelName(modelName)
+                    .temperature(0.7)
+                    .build();
+        } else {
+            this.model = null;
+            this.streamingModel = null;
         }
-        return model;
     }
     
     @Override
@@ -44,7 +66,7 @@ public class GeminiProvider implements LLMProvider {
                     .messages(UserMessage.from(fullPrompt))
                     .build();
             
-            ChatResponse response = getModel().chat(request);
+            ChatResponse response = model.chat(request);
             String result = response.aiMessage().text();
             
             log.info("✅ Resposta gerada: {} caracteres", result.length());
@@ -56,9 +78,22 @@ public class GeminiProvider implements LLMProvider {
         }
     }
     
+    @Override
+    public void chatStream(String systemPrompt, String userMessage, StreamingChatResponseHandler handler) {
+        log.info("🌊 Gemini iniciando streaming");
+        
+        String fullPrompt = systemPrompt + "\n\nUsuário: " + userMessage;
+        
+        ChatRequest request = ChatRequest.builder()
+                .messages(UserMessage.from(fullPrompt))
+                .build();
+        
+        streamingModel.chat(request, handler);
+    }
+    
     @Override
     public String getProviderName() {
-        return "Gemini (" + modelName + ")";
+        return "Gemini (" + modelName + ")" + (rotulo == null ? "" : " #" + rotulo);
     }
     
     @Override
@@ -68,6 +103,11 @@ public class GeminiProvider implements LLMProvider {
     
     @Override
     public ChatModel getChatModel() {
-        return getModel();
+        return model;
+    }
+    
+    @Override
+    public StreamingChatModel getStreamingChatModel() {
+        return streamingModel;
     }
 }
\ No newline at end of file
@@ -0,0 +1,332 @@
+package br.com.sistema.nutritional.llm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import br.com.sistema.nutritional.config.LLMProperties;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Provider que corta a cauda de latência com requisições "hedged".
+ *
+ * A chamada vai para o primeiro provider da lista. Se ele não responder
+ * dentro do seu p95 observado, a mesma requisição é enviada ao próximo
+ * provider disponível; a primeira resposta completa vence e a outra perna é
+ * cancelada (interrupção da virtual thread). A perna cancelada é marcada
+ * antes da interrupção ({@link ChamadaCancelada}), então o erro que ela lança
+ * não conta como falha no circuit breaker nem reduz o limite de concorrência.
+ *
+ * Se uma perna falha e nenhuma outra está em andamento, a chamada segue
+ * imediatamente para o próximo provider disponível (failover), sem esperar
+ * o atraso do hedge; sem nenhum disponível, {@link CircuitOpenException}.
+ *
+ * O número de hedges é limitado por um orçamento: cada chamada acumula
+ * {@code budgetRatio} de crédito (até um teto pequeno) e cada hedge consome 1.
+ * Failover não consome crédito. Streaming não é duplicado: os tokens já
+ * estariam indo para o cliente.
+ */
+@Slf4j
+public class HedgingLLMProvider implements LLMProvider {
+    
+    private static final int TAMANHO_JANELA = 256;
+    private static final int AMOSTRAS_MINIMAS = 20;
+    
+    // Crédito do orçamento em milésimos de hedge (teto = rajada de 10 hedges)
+    private static final long CREDITO_POR_HEDGE = 1_000;
+    private static final long CREDITO_MAXIMO = 10 * CREDITO_POR_HEDGE;
+    
+    private final List<LLMProvider> providers;
+    private final LLMProperties.HedgingConfig config;
+    private final LatencyWindow[] janelas;
+    private final Counter[] enviados;
+    private final Counter[] vitorias;
+    
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong credito = new AtomicLong(CREDITO_POR_HEDGE);
+    private final AtomicLong chamadas = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final Counter orcamentoEsgotado;
+    
+    public HedgingLLMProvider(List<LLMProvider> providers,
+                              LLMProperties.HedgingConfig config,
+                              MeterRegistry registry) {
+        if (providers.isEmpty()) {
+            throw new IllegalArgumentException("Hedging exige ao menos um provider");
+        }
+        this.providers = List.copyOf(providers);
+        this.config = config;
+        this.janelas = new LatencyWindow[providers.size()];
+        this.enviados = new Counter[providers.size()];
+        this.vitorias = new Counter[providers.size()];
+        
+        for (int i = 0; i < providers.size(); i++) {
+            String nome = providers.get(i).getProviderName();
+            janelas[i] = new LatencyWindow(TAMANHO_JANELA, config.getPercentile());
+            enviados[i] = Counter.builder("llm.hedge.sent").tag("provider", nome).register(registry);
+            vitorias[i] = Counter.builder("llm.hedge.wins").tag("provider", nome).register(registry);
+        }
+        
+        FunctionCounter.builder("llm.hedge.requests", chamadas, AtomicLong::get).register(registry);
+        Gauge.builder("llm.hedge.rate", this, HedgingLLMProvider::taxaHedge)
+                .description("Fração das chamadas que gerou uma perna extra")
+                .register(registry);
+        this.orcamentoEsgotado = Counter.builder("llm.hedge.budget.exhausted").register(registry);
+        
+        log.info("🪁 Hedging ativo: {} (orçamento={}%, p{})",
+                providers.stream().map(LLMProvider::getProviderName).toList(),
+                Math.round(config.getBudgetRatio() * 100),
+                Math.round(config.getPercentile() * 100));
+    }
+    
+    @Override
+    public String chat(String systemPrompt, String userMessage) {
+        return correr(provider -> provider.chat(systemPrompt, userMessage));
+    }
+    
+    @Override
+    public ChatResponse chat(ChatRequest request) {
+        return correr(provider -> provider.chat(request));
+    }
+    
+    @Override
+    public void chatStream(String systemPrompt, String userMessage, StreamingChatResponseHandler handler) {
+        providers.get(0).chatStream(systemPrompt, userMessage, handler);
+    }
+    
+    @Override
+    public String getProviderName() {
+        return providers.get(0).getProviderName();
+    }
+    
+    // ==================================
+    // Aquece todos; falha em um não impede os demais
+    // ==================================
+    @Override
+    public boolean aquecer(String sonda) {
+        boolean aquecido = false;
+        for (LLMProvider provider : providers) {
+            try {
+                aquecido |= provider.aquecer(sonda);
+            } catch (RuntimeException e) {
+                log.warn("🔥 Aquecimento de {} falhou: {}", provider.getProviderName(), e.getMessage());
+            }
+        }
+        return aquecido;
+    }
+    
+    @Override
+    public boolean isAvailable() {
+        return providers.stream().anyMatch(LLMProvider::isAvailable);
+    }
+    
+    @Override
+    public ChatModel getChatModel() {
+        return new ChatModel() {
+            @Override
+            public ChatResponse chat(ChatRequest request) {
+                return HedgingLLMProvider.this.chat(request);
+            }
+        };
+    }
+    
+    @Override
+    public StreamingChatModel getStreamingChatModel() {
+        return providers.get(0).getStreamingChatModel();
+    }
+    
+    public double taxaHedge() {
+        long total = chamadas.get();
+        return total == 0 ? 0.0 : (double) hedges.get() / total;
+    }
+    
+    // ==================================
+    // Primário; após o p95 dele, uma perna extra no próximo disponível
+    // ==================================
+    private <T> T correr(Function<LLMProvider, T> chamada) {
+        chamadas.incrementAndGet();
+        acumularCredito();
+        
+        int primario = proximoDisponivel(-1);
+        if (primario < 0) {
+            throw new CircuitOpenException("Nenhum provider LLM disponível no momento");
+        }
+        
+        Corrida<T> corrida = new Corrida<>(chamada);
+        corrida.lancar(primario);
+        
+        try {
+            try {
+                return corrida.vencedor.get(atrasoHedge(primario), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                corrida.hedge(primario);
+                return corrida.vencedor.get();
+            }
+        
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException("Erro ao processar com " + getProviderName() + ": "
+                    + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Chamada ao LLM interrompida", e);
+        } finally {
+            corrida.cancelarPerdedores();
+        }
+    }
+    
+    private long atrasoHedge(int indice) {
+        LatencyWindow janela = janelas[indice];
+        long atraso = janela.quantidade() < AMOSTRAS_MINIMAS
+                ? config.getInitialDelay().toMillis()
+                : janela.percentil();
+        return Math.max(config.getMinDelay().toMillis(), Math.min(config.getMaxDelay().toMillis(), atraso));
+    }
+    
+    private int proximoDisponivel(int depoisDe) {
+        for (int i = depoisDe + 1; i < providers.size(); i++) {
+            if (providers.get(i).isAvailable()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private void acumularCredito() {
+        long incremento = Math.round(config.getBudgetRatio() * CREDITO_POR_HEDGE);
+        credito.accumulateAndGet(incremento, (atual, inc) -> Math.min(CREDITO_MAXIMO, atual + inc));
+    }
+    
+    private boolean consumirCredito() {
+        long atual;
+        do {
+            atual = credito.get();
+            if (atual < CREDITO_POR_HEDGE) {
+                return false;
+            }
+        } while (!credito.compareAndSet(atual, atual - CREDITO_POR_HEDGE));
+        return true;
+    }
+    
+    // ==================================
+    // Pernas em andamento de uma chamada. Lançar, falhar e encerrar passam
+    // pelo monitor da corrida: uma perna nunca termina "sozinha" enquanto
+    // outra está sendo lançada
+    // ==================================
+    private record Perna(int indice, long inicio, AtomicBoolean cancelada, Future<?> future) {
+    }
+    
+    private final class Corrida<T> {
+        
+        private final Function<LLMProvider, T> chamada;
+        private final CompletableFuture<T> vencedor = new CompletableFuture<>();
+        private final AtomicInteger indiceVencedor = new AtomicInteger(-1);
+        private final List<Perna> pernas = new ArrayList<>(2);
+        private int pendentes;
+        private int ultimoLancado = -1;
+        private boolean encerrada;
+        private volatile boolean hedgeada;
+        
+        Corrida(Function<LLMProvider, T> chamada) {
+            this.chamada = chamada;
+        }
+        
+        synchronized void lancar(int indice) {
+            pendentes++;
+            ultimoLancado = indice;
+            long inicio = System.nanoTime();
+            AtomicBoolean cancelada = new AtomicBoolean();
+            
+            pernas.add(new Perna(indice, inicio, cancelada, executor.submit(() -> {
+                try {
+                    T resposta = ChamadaCancelada.executar(cancelada, () -> chamada.apply(providers.get(indice)));
+                    janelas[indice].registrar((System.nanoTime() - inicio) / 1_000_000);
+                    if (vencedor.complete(resposta)) {
+                        indiceVencedor.set(indice);
+                        if (hedgeada) {
+                            vitorias[indice].increment();
+                        }
+                    }
+                } catch (Throwable erro) {
+                    falhou(indice, erro);
+                }
+            })));
+        }
+        
+        // Perna extra quando o primário passa do atraso e ainda corre sozinho
+        synchronized void hedge(int primario) {
+            if (encerrada || vencedor.isDone() || pernas.size() > 1) {
+                return;
+            }
+            int secundario = proximoDisponivel(ultimoLancado);
+            if (secundario < 0) {
+                return;
+            }
+            if (!consumirCredito()) {
+                orcamentoEsgotado.increment();
+                return;
+            }
+            hedges.incrementAndGet();
+            enviados[secundario].increment();
+            log.info("🪁 Hedge: {} passou do p{}, enviando também para {}",
+                    providers.get(primario).getProviderName(),
+                    Math.round(config.getPercentile() * 100),
+                    providers.get(secundario).getProviderName());
+            hedgeada = true;
+            lancar(secundario);
+        }
+        
+        // Falha só encerra a chamada se nenhuma outra perna ainda puder vencer;
+        // sem pernas em andamento, segue para o próximo provider (failover)
+        private synchronized void falhou(int indice, Throwable erro) {
+            if (--pendentes > 0 || vencedor.isDone()) {
+                return;
+            }
+            int proximo = encerrada ? -1 : proximoDisponivel(ultimoLancado);
+            if (proximo < 0) {
+                vencedor.completeExceptionally(erro);
+                return;
+            }
+            log.warn("🪁 {} falhou ({}), tentando {}",
+                    providers.get(indice).getProviderName(), erro.getMessage(),
+                    providers.get(proximo).getProviderName());
+            lancar(proximo);
+        }
+        
+        synchronized void cancelarPerdedores() {
+            encerrada = true;
+            long agora = System.nanoTime();
+            for (Perna perna : pernas) {
+                if (perna.indice() == indiceVencedor.get() || perna.future().isDone()) {
+                    continue;
+                }
+                perna.cancelada().set(true);
+                if (perna.future().cancel(true)) {
+                    // Amostra censurada: a perna levou pelo menos esse tempo
+                    janelas[perna.indice()].registrar((agora - perna.inicio()) / 1_000_000);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package br.com.sistema.nutritional.llm;
+
+import java.util.concurrent.TimeUnit;
+
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import dev.langchain4j.model.output.TokenUsage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Métricas de um provider: latência por operação e resultado
+ * ({@code llm.provider.requests}), erros por tipo de exceção
+ * ({@code llm.provider.errors}) e tokens de entrada/saída lidos do
+ * {@link TokenUsage} da resposta ({@code llm.tokens}). A entrada também é
+ * separada pelo cache de prompt do provider ({@code llm.prompt.cache.tokens}
+ * e a fração lida do cache em {@code llm.prompt.cache.hit.ratio}).
+ *
+ * Timers e contadores do caminho feliz são registrados no construtor; na
+ * chamada só há {@code record}/{@code increment}, que não usam lock.
+ */
+@Slf4j
+public class InstrumentedLLMProvider implements LLMProvider {
+    
+    private final LLMProvider delegate;
+    private final MeterRegistry registry;
+    private final String provider;
+    
+    private final Timer chatSucesso;
+    private final Timer chatErro;
+    private final Timer streamSucesso;
+    private final Timer streamErro;
+    private final Timer streamCancelado;
+    private final Counter tokensEntrada;
+    private final Counter tokensSaida;
+    private final Counter cacheLidos;
+    private final Counter cacheGravados;
+    private final Counter semCache;
+    private final DistributionSummary taxaCache;
+    
+    public InstrumentedLLMProvider(LLMProvider delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.provider = delegate.getProviderName();
+        
+        this.chatSucesso = timer("chat", "success");
+        this.chatErro = timer("chat", "error");
+        this.streamSucesso = timer("stream", "success");
+        this.streamErro = timer("stream", "error");
+        this.streamCancelado = timer("stream", "cancelled");
+        this.tokensEntrada = Counter.builder("llm.tokens")
+                .tag("provider", provider)
+                .tag("type", "input")
+                .register(registry);
+        this.tokensSaida = Counter.builder("llm.tokens")
+                .tag("provider", provider)
+                .tag("type", "output")
+                .register(registry);
+        this.cacheLidos = contadorCache("read");
+        this.cacheGravados = contadorCache("write");
+        this.semCache = contadorCache("uncached");
+        this.taxaCache = DistributionSummary.builder("llm.prompt.cache.hit.ratio")
+                .tag("provider", provider)
+                .register(registry);
+    }
+    
+    private Counter contadorCache(String tipo) {
+        return Counter.builder("llm.prompt.cache.tokens")
+                .tag("provider", provider)
+                .tag("type", tipo)
+                .register(registry);
+    }
+    
+    private Timer timer(String operacao, String resultado) {
+        return Timer.builder("llm.provider.requests")
+                .tag("provider", provider)
+                .tag("operation", operacao)
+                .tag("outcome", resultado)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+    
+    @Override
+    public String chat(String systemPrompt, String userMessage) {
+        long inicio = System.nanoTime();
+        try {
+            String resposta = delegate.chat(systemPrompt, userMessage);
+            chatSucesso.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return resposta;
+        } catch (RuntimeException e) {
+            falhou(chatErro, inicio, e);
+            throw e;
+        }
+    }
+    
+    @Override
+    public ChatResponse chat(ChatRequest request) {
+        long inicio = System.nanoTime();
+        try {
+            ChatResponse resposta = delegate.chat(request);
+            chatSucesso.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            contarTokens(resposta);
+            return resposta;
+        } catch (RuntimeException e) {
+            falhou(chatErro, inicio, e);
+            throw e;
+        }
+    }
+    
+    @Override
+    public void chatStream(String systemPrompt, String userMessage, StreamingChatResponseHandler handler) {
+        long inicio = System.nanoTime();
+        try {
+            delegate.chatStream(systemPrompt, userMessage, medirAoFinal(handler, inicio));
+        } catch (RuntimeException e) {
+            falhou(streamErro, inicio, e);
+            throw e;
+        }
+    }
+    
+    @Override
+    public String getProviderName() {
+        return provider;
+    }
+    
+    @Override
+    public boolean aquecer(String sonda) {
+        return delegate.aquecer(sonda);
+    }
+    
+    @Override
+    public boolean isAvailable() {
+        return delegate.isAvailable();
+    }
+    
+    @Override
+    public ChatModel getChatModel() {
+        return new ChatModel() {
+            @Override
+            public ChatResponse chat(ChatRequest request) {
+                return InstrumentedLLMProvider.this.chat(request);
+            }
+        };
+    }
+    
+    @Override
+    public StreamingChatModel getStreamingChatModel() {
+        StreamingChatModel streamingModel = delegate.getStreamingChatModel();
+        if (streamingModel == null) {
+            return null;
+        }
+        return new StreamingChatModel() {
+            @Override
+            public void chat(ChatRequest request, StreamingChatResponseHandler handler) {
+                long inicio = System.nanoTime();
+                try {
+                    streamingModel.chat(request, medirAoFinal(handler, inicio));
+                } catch (RuntimeException e) {
+                    falhou(streamErro, inicio, e);
+                    throw e;
+                }
+            }
+        };
+    }
+    
+    // ==================================
+    // Erro: latência no timer de erro + contador por tipo de exceção
+    // ==================================
+    private void falhou(Timer timer, long inicio, Throwable erro) {
+        timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        Counter.builder("llm.provider.errors")
+                .tag("provider", provider)
+                .tag("exception", erro.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
+    
+    private void contarTokens(ChatResponse resposta) {
+        TokenUsage uso = resposta == null ? null : resposta.tokenUsage();
+        if (uso == null) {
+            return;
+        }
+        if (uso.inputTokenCount() != null) {
+            tokensEntrada.increment(uso.inputTokenCount());
+        }
+        if (uso.outputTokenCount() != null) {
+            tokensSaida.increment(uso.outputTokenCount());
+        }
+        
+        PromptCacheUsage cache = PromptCacheUsage.de(uso);
+        cacheLidos.increment(cache.lidos());
+        cacheGravados.increment(cache.gravados());
+        semCache.increment(cache.semCache());
+        taxaCache.record(cache.taxaAcerto());
+        log.debug("🧊 {}: entrada {} do cache, {} gravados no cache, {} sem cache; saída {}",
+                provider, cache.lidos(), cache.gravados(), cache.semCache(), uso.outputTokenCount());
+    }
+    
+    private StreamingChatResponseHandler medirAoFinal(StreamingChatResponseHandler handler, long inicio) {
+        return new StreamingHandlerDecorator(handler) {
+            @Override
+            protected void aoTerminar(ChatResponse resposta, Throwable erro) {
+                if (erro == null) {
+                    streamSucesso.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                    contarTokens(resposta);
+                } else if (StreamingHandlerDecorator.cancelado(erro)) {
+                    streamCancelado.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                } else {
+                    falhou(streamErro, inicio, erro);
+                }
+            }
+        };
+    }
+}
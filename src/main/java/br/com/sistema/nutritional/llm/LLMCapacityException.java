@@ -0,0 +1,13 @@
+package br.com.sistema.nutritional.llm;
+
+/**
+ * Lançada quando o provider não tem capacidade para atender agora: está no
+ * limite de chamadas simultâneas (sem vaga dentro do tempo de fila) ou com o
+ * circuito aberto. O controller responde 503.
+ */
+public class LLMCapacityException extends RuntimeException {
+    
+    public LLMCapacityException(String message) {
+        super(message);
+    }
+}
@@ -1,14 +1,48 @@
 package br.com.sistema.nutritional.llm;
 
+import dev.langchain4j.data.message.UserMessage;
 import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
 
 public interface LLMProvider {
     
     String chat(String systemPrompt, String userMessage);
     
+    // Repassa o ChatRequest estruturado (mensagens, tools e parâmetros) ao modelo nativo
+    default ChatResponse chat(ChatRequest request) {
+        if (!isAvailable()) {
+            throw new ProviderNotConfiguredException(getProviderName());
+        }
+        ChatModel chatModel = getChatModel();
+        if (chatModel == null) {
+            throw new UnsupportedOperationException(getProviderName() + " não possui ChatModel nativo");
+        }
+        return chatModel.chat(request);
+    }
+    
+    void chatStream(String systemPrompt, String userMessage, StreamingChatResponseHandler handler);
+    
     String getProviderName();
     
     boolean isAvailable();
     
     ChatModel getChatModel();
-}
\ No newline at end of file
+    
+    StreamingChatModel getStreamingChatModel();
+    
+    // Aquecimento na inicialização: com sonda, envia um prompt mínimo pelo cliente
+    // que atende o tráfego; devolve false se não houve nada a aquecer
+    default boolean aquecer(String sonda) {
+        if (sonda == null || !isAvailable()) {
+            return false;
+        }
+        chat(ChatRequest.builder()
+                .messages(UserMessage.from(sonda))
+                .maxOutputTokens(1)
+                .build());
+        return true;
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.sistema.nutritional.llm;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Janela deslizante com as últimas N latências (em ms) de um provider.
+ *
+ * Escritas são lock-free (buffer circular). O percentil é recalculado a
+ * partir de uma cópia ordenada apenas a cada {@code RECALCULO} amostras;
+ * entre recálculos devolve o último valor.
+ */
+public final class LatencyWindow {
+    
+    private static final int RECALCULO = 16;
+    
+    private final AtomicLongArray amostras;
+    private final AtomicLong total = new AtomicLong();
+    private final double percentil;
+    
+    private volatile long percentilCache = -1;
+    private volatile long totalNoCache = -1;
+    
+    public LatencyWindow(int tamanho, double percentil) {
+        this.amostras = new AtomicLongArray(tamanho);
+        this.percentil = percentil;
+    }
+    
+    public void registrar(long latenciaMs) {
+        long posicao = total.getAndIncrement();
+        amostras.set((int) (posicao % amostras.length()), latenciaMs);
+    }
+    
+    public long quantidade() {
+        return Math.min(total.get(), amostras.length());
+    }
+    
+    // ==================================
+    // Percentil configurado, ou -1 sem amostras
+    // ==================================
+    public long percentil() {
+        long atual = total.get();
+        if (atual == 0) {
+            return -1;
+        }
+        if (atual - totalNoCache < RECALCULO && percentilCache >= 0) {
+            return percentilCache;
+        }
+        
+        int n = (int) Math.min(atual, amostras.length());
+        long[] copia = new long[n];
+        for (int i = 0; i < n; i++) {
+            copia[i] = amostras.get(i);
+        }
+        Arrays.sort(copia);
+        
+        long valor = copia[Math.min(n - 1, (int) Math.ceil(percentil * n) - 1)];
+        percentilCache = valor;
+        totalNoCache = atual;
+        return valor;
+    }
+}
@@ -0,0 +1,310 @@
+package br.com.sistema.nutritional.llm;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Balanceia chamadas entre vários endpoints (providers e/ou chaves de API).
+ *
+ * Escolha por "power of two choices": sorteia dois endpoints disponíveis
+ * (proporcional ao peso) e usa o de menor custo, onde
+ * {@code custo = latênciaEWMA × (pendentes + 1)}. O peso entra só no sorteio;
+ * dividir o custo por ele também o aplicaria duas vezes. Erros entram na
+ * média como latência de penalidade, então uma chave sendo limitada (429)
+ * perde tráfego rapidamente; a chamada que falhou é repetida uma vez em
+ * outro endpoint. A perna perdedora de um hedge ({@link ChamadaCancelada})
+ * só libera o endpoint: nem penalidade nem nova tentativa. Streams não
+ * entram na média (a duração acompanha o tamanho da resposta); só um erro
+ * no stream penaliza o endpoint.
+ */
+@Slf4j
+public class LoadBalancedLLMProvider implements LLMProvider {
+    
+    // Peso da amostra mais recente na média móvel
+    private static final double ALFA = 0.3;
+    
+    // Latência atribuída a uma falha (ou o dobro da média, se maior)
+    private static final double PENALIDADE_MS = 10_000;
+    
+    private final Endpoint[] endpoints;
+    private final String nome;
+    
+    public LoadBalancedLLMProvider(List<LLMProvider> providers, List<Integer> pesos, MeterRegistry registry) {
+        if (providers.isEmpty() || providers.size() != pesos.size()) {
+            throw new IllegalArgumentException("Informe um peso para cada endpoint");
+        }
+        this.endpoints = new Endpoint[providers.size()];
+        for (int i = 0; i < endpoints.length; i++) {
+            endpoints[i] = new Endpoint(providers.get(i), Math.max(1, pesos.get(i)), registry);
+        }
+        this.nome = "Balanceado (" + endpoints.length + " endpoints)";
+        
+        log.info("⚖️ Balanceamento P2C/EWMA entre: {}",
+                providers.stream().map(LLMProvider::getProviderName).toList());
+    }
+    
+    @Override
+    public String chat(String systemPrompt, String userMessage) {
+        return balancear(provider -> provider.chat(systemPrompt, userMessage));
+    }
+    
+    @Override
+    public ChatResponse chat(ChatRequest request) {
+        return balancear(provider -> provider.chat(request));
+    }
+    
+    @Override
+    public void chatStream(String systemPrompt, String userMessage, StreamingChatResponseHandler handler) {
+        Endpoint endpoint = escolher(null);
+        long inicio = endpoint.iniciar();
+        try {
+            endpoint.provider.chatStream(systemPrompt, userMessage, liberarAoFinal(handler, endpoint, inicio));
+        } catch (RuntimeException e) {
+            endpoint.concluir(inicio, false);
+            throw e;
+        }
+    }
+    
+    @Override
+    public String getProviderName() {
+        return nome;
+    }
+    
+    // ==================================
+    // Aquece todos; falha em um não impede os demais
+    // ==================================
+    @Override
+    public boolean aquecer(String sonda) {
+        boolean aquecido = false;
+        for (Endpoint endpoint : endpoints) {
+            try {
+                aquecido |= endpoint.provider.aquecer(sonda);
+            } catch (RuntimeException e) {
+                log.warn("🔥 Aquecimento de {} falhou: {}", endpoint.provider.getProviderName(), e.getMessage());
+            }
+        }
+        return aquecido;
+    }
+    
+    @Override
+    public boolean isAvailable() {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.provider.isAvailable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public ChatModel getChatModel() {
+        return new ChatModel() {
+            @Override
+            public ChatResponse chat(ChatRequest request) {
+                return LoadBalancedLLMProvider.this.chat(request);
+            }
+        };
+    }
+    
+    @Override
+    public StreamingChatModel getStreamingChatModel() {
+        return new StreamingChatModel() {
+            @Override
+            public void chat(ChatRequest request, StreamingChatResponseHandler handler) {
+                Endpoint endpoint = escolher(null);
+                StreamingChatModel streamingModel = endpoint.provider.getStreamingChatModel();
+                if (streamingModel == null) {
+                    throw new UnsupportedOperationException(
+                            endpoint.provider.getProviderName() + " não suporta streaming");
+                }
+                long inicio = endpoint.iniciar();
+                try {
+                    streamingModel.chat(request, liberarAoFinal(handler, endpoint, inicio));
+                } catch (RuntimeException e) {
+                    endpoint.concluir(inicio, false);
+                    throw e;
+                }
+            }
+        };
+    }
+    
+    // ==================================
+    // Executa no endpoint escolhido; em erro, uma nova tentativa em outro.
+    // Perna de hedge cancelada não repete: ninguém espera mais a resposta
+    // ==================================
+    private <T> T balancear(Function<LLMProvider, T> chamada) {
+        Endpoint primeiro = escolher(null);
+        try {
+            return executar(primeiro, chamada);
+        } catch (RuntimeException e) {
+            if (ChamadaCancelada.naThreadAtual()) {
+                throw e;
+            }
+            Endpoint segundo = escolherOuNulo(primeiro);
+            if (segundo == null) {
+                throw e;
+            }
+            log.warn("⚖️ {} falhou ({}), repetindo em {}",
+                    primeiro.provider.getProviderName(), e.getMessage(), segundo.provider.getProviderName());
+            return executar(segundo, chamada);
+        }
+    }
+    
+    private <T> T executar(Endpoint endpoint, Function<LLMProvider, T> chamada) {
+        long inicio = endpoint.iniciar();
+        boolean sucesso = false;
+        try {
+            T resposta = chamada.apply(endpoint.provider);
+            sucesso = true;
+            return resposta;
+        } finally {
+            // Cancelada de propósito: o erro não diz nada sobre o endpoint
+            if (!sucesso && ChamadaCancelada.naThreadAtual()) {
+                endpoint.liberar();
+            } else {
+                endpoint.concluir(inicio, sucesso);
+            }
+        }
+    }
+    
+    // ==================================
+    // Power of two choices ponderado pelo peso
+    // ==================================
+    private Endpoint escolher(Endpoint excluir) {
+        Endpoint escolhido = escolherOuNulo(excluir);
+        if (escolhido == null) {
+            throw new CircuitOpenException("Nenhum endpoint LLM disponível no momento");
+        }
+        return escolhido;
+    }
+    
+    private Endpoint escolherOuNulo(Endpoint excluir) {
+        Endpoint a = sortear(excluir, null);
+        if (a == null) {
+            return null;
+        }
+        Endpoint b = sortear(excluir, a);
+        return b == null || a.custo() <= b.custo() ? a : b;
+    }
+    
+    private Endpoint sortear(Endpoint excluir, Endpoint jaEscolhido) {
+        int pesoTotal = 0;
+        for (Endpoint endpoint : endpoints) {
+            if (elegivel(endpoint, excluir, jaEscolhido)) {
+                pesoTotal += endpoint.peso;
+            }
+        }
+        if (pesoTotal == 0) {
+            return null;
+        }
+        
+        int alvo = ThreadLocalRandom.current().nextInt(pesoTotal);
+        for (Endpoint endpoint : endpoints) {
+            if (elegivel(endpoint, excluir, jaEscolhido)) {
+                alvo -= endpoint.peso;
+                if (alvo < 0) {
+                    return endpoint;
+                }
+            }
+        }
+        return null;
+    }
+    
+    private static boolean elegivel(Endpoint endpoint, Endpoint excluir, Endpoint jaEscolhido) {
+        return endpoint != excluir && endpoint != jaEscolhido && endpoint.provider.isAvailable();
+    }
+    
+    // ==================================
+    // A duração de um stream depende do tamanho da resposta, não do endpoint:
+    // fora da média de latência; erro ainda leva a penalidade
+    // ==================================
+    private StreamingChatResponseHandler liberarAoFinal(StreamingChatResponseHandler handler,
+                                                      Endpoint endpoint, long inicio) {
+        return new StreamingHandlerDecorator(handler) {
+            @Override
+            protected void aoTerminar(ChatResponse resposta, Throwable erro) {
+                if (erro == null || StreamingHandlerDecorator.cancelado(erro)) {
+                    endpoint.liberar();
+                } else {
+                    endpoint.concluir(inicio, false);
+                }
+            }
+        };
+    }
+    
+    // ==================================
+    // Estado de um endpoint: pendentes e latência média (EWMA)
+    // ==================================
+    private static final class Endpoint {
+        
+        private final LLMProvider provider;
+        private final int peso;
+        private final AtomicInteger pendentes = new AtomicInteger();
+        
+        // double guardado como bits para atualizar com CAS
+        private final AtomicLong latenciaBits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+        private final Counter selecionado;
+        
+        Endpoint(LLMProvider provider, int peso, MeterRegistry registry) {
+            this.provider = provider;
+            this.peso = peso;
+            
+            String nome = provider.getProviderName();
+            Gauge.builder("llm.balancer.outstanding", pendentes, AtomicInteger::get)
+                    .tag("endpoint", nome)
+                    .register(registry);
+            Gauge.builder("llm.balancer.latency.ewma", this, Endpoint::latenciaMs)
+                    .tag("endpoint", nome)
+                    .baseUnit("milliseconds")
+                    .register(registry);
+            this.selecionado = Counter.builder("llm.balancer.selected").tag("endpoint", nome).register(registry);
+        }
+        
+        // Sem amostras a latência é 0: endpoints novos recebem tráfego logo de início
+        double custo() {
+            return latenciaMs() * (pendentes.get() + 1);
+        }
+        
+        double latenciaMs() {
+            return Double.longBitsToDouble(latenciaBits.get());
+        }
+        
+        long iniciar() {
+            pendentes.incrementAndGet();
+            selecionado.increment();
+            return System.nanoTime();
+        }
+        
+        // Stream terminado ou chamada cancelada: só libera, sem amostra de latência
+        void liberar() {
+            pendentes.decrementAndGet();
+        }
+        
+        void concluir(long inicio, boolean sucesso) {
+            pendentes.decrementAndGet();
+            double amostra = (System.nanoTime() - inicio) / 1_000_000.0;
+            
+            long atualBits;
+            double novo;
+            do {
+                atualBits = latenciaBits.get();
+                double atual = Double.longBitsToDouble(atualBits);
+                double valor = sucesso ? amostra : Math.max(PENALIDADE_MS, atual * 2);
+                novo = atual == 0 ? valor : atual + ALFA * (valor - atual);
+            } while (!latenciaBits.compareAndSet(atualBits, Double.doubleToRawLongBits(novo)));
+        }
+    }
+}
@@ -2,10 +2,14 @@ package br.com.sistema.nutritional.llm;
 
 import dev.langchain4j.data.message.UserMessage;
 import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
 import dev.langchain4j.model.chat.request.ChatRequest;
 import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
 import dev.langchain4j.model.openai.OpenAiChatModel;
+import dev.langchain4j.model.openai.OpenAiStreamingChatModel;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -13,24 +17,46 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class OpenAIProvider implements LLMProvider {
     
-    @Value("${llm.openai.api-key:}")
-    private String apiKey;
+    private final String apiKey;
+    private final String modelName;
+    private final String baseUrl;
+    private final String rotulo;
     
-    @Value("${llm.openai.model-name:gpt-4o-mini}")
-    private String modelName;
+    // Criados no construtor (publicação segura via campo final), não no primeiro uso
+    private final OpenAiChatModel model;
+    private final OpenAiStreamingChatModel streamingModel;
     
-    private OpenAiChatModel model;
+    @Autowired
+    public OpenAIProvider(@Value("${llm.openai.api-key:}") String apiKey,
+                          @Value("${llm.openai.model-name:gpt-4o-mini}") String modelName) {
+        this(apiKey, modelName, null, null);
+    }
     
-    private OpenAiChatModel getModel() {
-        if (model == null) {
-            log.info("🟢 Inicializando OpenAI: {}", modelName);
-            model = OpenAiChatModel.builder()
+    // Instância adicional para um endpoint de llm.endpoints (outra chave, modelo ou URL)
+    public OpenAIProvider(String apiKey, String modelName, String baseUrl, String rotulo) {
+        this.apiKey = apiKey;
+        this.modelName = modelName;
+        this.baseUrl = baseUrl;
+        this.rotulo = rotulo;
+        
+        if (isAvailable()) {
+            log.info("🟢 Inicializando OpenAI: {}", getProviderName());
+            this.model = OpenAiChatModel.builder()
+                    .baseUrl(baseUrl)
                     .apiKey(apiKey)
                     .modelName(modelName)
                     .temperature(0.7)
                     .build();
+            this.streamingModel = OpenAiStreamingChatModel.builder()
+                    .baseUrl(baseUrl)
+                    .apiKey(apiKey)
+                    .modelName(modelName)
+                    .temperature(0.7)
+                    .build();
+        } else {
+            this.model = null;
+            this.streamingModel = null;
         }
-        return model;
     }
     
     @Override
@@ -44,7 +70,7 @@ public class OpenAIProvider implements LLMProvider {
                     .messages(UserMessage.from(fullPrompt))
                     .build();
             
-            ChatResponse response = getModel().chat(request);
+            ChatResponse response = model.chat(request);
             String result = response.aiMessage().text();
             
             log.info("✅ Resposta gerada: {} caracteres", result.length());
@@ -56,9 +82,22 @@ public class OpenAIProvider implements LLMProvider {
         }
     }
     
+    @Override
+    public void chatStream(String systemPrompt, String userMessage, StreamingChatResponseHandler handler) {
+        log.info("🌊 OpenAI iniciando streaming");
+        
+        String fullPrompt = systemPrompt + "\n\nUsuário: " + userMessage;
+        
+        ChatRequest request = ChatRequest.builder()
+                .messages(UserMessage.from(fullPrompt))
+                .build();
+        
+        streamingModel.chat(request, handler);
+    }
+    
     @Override
     public String getProviderName() {
-        return "OpenAI (" + modelName + ")";
+        return "OpenAI (" + modelName + ")" + (rotulo == null ? "" : " #" + rotulo);
     }
     
     @Override
@@ -68,6 +107,11 @@ public class OpenAIProvider implements LLMProvider {
     
     @Override
     public ChatModel getChatModel() {
-        return getModel();
+        return model;
+    }
+    
+    @Override
+    public StreamingChatModel getStreamingChatModel() {
+        return streamingModel;
     }
 }
\ No newline at end of file
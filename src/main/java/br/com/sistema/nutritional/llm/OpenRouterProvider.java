@@ -1,88 +1,222 @@
 package br.com.sistema.nutritional.llm;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import br.com.sistema.nutritional.config.LLMProperties;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
 import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import dev.langchain4j.model.openai.OpenAiChatModel;
+import dev.langchain4j.model.openai.OpenAiStreamingChatModel;
 import lombok.extern.slf4j.Slf4j;
 
 @Component
 @Slf4j
 public class OpenRouterProvider implements LLMProvider {
     
-    @Value("${llm.openrouter.api-key:}")
-    private String apiKey;
+    private final String apiKey;
+    private final String modelName;
+    private final String baseUrl;
+    private final String rotulo;
+    
+    // Cliente HTTP com pool de conexões e timeouts (ver OpenRouterHttpConfig)
+    private final RestTemplate restTemplate;
+    private final Duration timeout;
+    private final String url;
+    private final String authorization;
     
-    @Value("${llm.openrouter.model-name:anthropic/claude-3.5-sonnet}")
-    private String modelName;
+    // Campos constantes do corpo já serializados: {"model":"...","messages":
+    private final byte[] prefixoCorpo;
     
-    @Value("${llm.openrouter.base-url:https://openrouter.ai/api/v1}")
-    private String baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectWriter mensagensWriter = objectMapper.writer()
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     
-    private final RestTemplate restTemplate = new RestTemplate();
+    // Criados no construtor (publicação segura via campo final), não no primeiro uso
+    private final OpenAiChatModel model;
+    private final OpenAiStreamingChatModel streamingModel;
+    
+    @Autowired
+    public OpenRouterProvider(@Value("${llm.openrouter.api-key:}") String apiKey,
+                              @Value("${llm.openrouter.model-name:anthropic/claude-3.5-sonnet}") String modelName,
+                              @Value("${llm.openrouter.base-url:https://openrouter.ai/api/v1}") String baseUrl,
+                              @Qualifier("openRouterRestTemplate") RestTemplate restTemplate,
+                              LLMProperties properties) {
+        this(apiKey, modelName, baseUrl, null, restTemplate, properties.getOpenrouter().getHttp().getReadTimeout());
+    }
+    
+    // Instância adicional para um endpoint de llm.endpoints (outra chave, modelo ou URL)
+    public OpenRouterProvider(String apiKey, String modelName, String baseUrl, String rotulo,
+                              RestTemplate restTemplate, Duration timeout) {
+        this.apiKey = apiKey;
+        this.modelName = modelName;
+        this.baseUrl = baseUrl;
+        this.rotulo = rotulo;
+        this.restTemplate = restTemplate;
+        this.timeout = timeout;
+        this.url = baseUrl + "/chat/completions";
+        this.authorization = "Bearer " + apiKey;
+        
+        try {
+            String model = objectMapper.writeValueAsString(modelName);
+            this.prefixoCorpo = ("{\"model\":" + model + ",\"messages\":").getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Nome de modelo inválido: " + modelName, e);
+        }
+        
+        this.model = isAvailable() ? criarModel() : null;
+        this.streamingModel = isAvailable() ? criarStreamingModel() : null;
+    }
+    
+    // ==================================
+    // A API do OpenRouter é compatível com a da OpenAI: o cliente nativo
+    // envia tools e devolve tool calls sem conversão manual. As requisições
+    // passam pelo pool do RestTemplate, não pelo cliente HTTP padrão
+    // ==================================
+    private OpenAiChatModel criarModel() {
+        log.info("🟣 Inicializando OpenRouter: {}", getProviderName());
+        return OpenAiChatModel.builder()
+                .httpClientBuilder(RestTemplateHttpClient.builder(restTemplate))
+                .baseUrl(baseUrl)
+                .apiKey(apiKey)
+                .modelName(modelName)
+                .timeout(timeout)
+                .customHeaders(Map.of(
+                        "HTTP-Referer", "http://localhost:8081",
+                        "X-Title", "GitHub Assistant"))
+                .build();
+    }
+    
+    // ==================================
+    // Streaming pelo mesmo protocolo: tools, tool calls e resultados de tools
+    // seguem no formato da OpenAI, como no chat sem streaming
+    // ==================================
+    private OpenAiStreamingChatModel criarStreamingModel() {
+        return OpenAiStreamingChatModel.builder()
+                .httpClientBuilder(RestTemplateHttpClient.builder(restTemplate))
+                .baseUrl(baseUrl)
+                .apiKey(apiKey)
+                .modelName(modelName)
+                .timeout(timeout)
+                .customHeaders(Map.of(
+                        "HTTP-Referer", "http://localhost:8081",
+                        "X-Title", "GitHub Assistant"))
+                .build();
+    }
+    
+    // ==================================
+    // Abre uma conexão do pool que também atende os modelos nativos
+    // (GET /models não consome tokens)
+    // ==================================
+    @Override
+    public boolean aquecer(String sonda) {
+        if (!isAvailable()) {
+            return false;
+        }
+        restTemplate.execute(baseUrl + "/models", HttpMethod.GET,
+                request -> request.getHeaders().set(HttpHeaders.AUTHORIZATION, authorization),
+                response -> {
+                    response.getBody().transferTo(OutputStream.nullOutputStream());
+                    return null;
+                });
+        LLMProvider.super.aquecer(sonda);
+        return true;
+    }
     
     @Override
     public String chat(String systemPrompt, String userMessage) {
         try {
             log.info("💬 OpenRouter processando: {}", modelName);
             
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("Authorization", "Bearer " + apiKey);
-            headers.set("HTTP-Referer", "http://localhost:8081");
-            headers.set("X-Title", "GitHub Assistant");
-            
-            Map<String, Object> body = new HashMap<>();
-            body.put("model", modelName);
-            body.put("messages", List.of(
-                    Map.of("role", "system", "content", systemPrompt),
-                    Map.of("role", "user", "content", userMessage)
-            ));
-            
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
-            
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                    baseUrl + "/chat/completions",
-                    request,
-                    Map.class
+            JsonNode resposta = restTemplate.execute(
+                    url,
+                    HttpMethod.POST,
+                    request -> {
+                        cabecalhos(request.getHeaders(), MediaType.APPLICATION_JSON);
+                        escreverCorpo(request.getBody(), prefixoCorpo, mensagens(systemPrompt, userMessage));
+                    },
+                    response -> objectMapper.readTree(response.getBody())
             );
             
-            if (response.getBody() == null) {
+            if (resposta == null) {
                 throw new RuntimeException("Resposta vazia do OpenRouter");
             }
             
-            List<Map<String, Object>> choices = 
-                    (List<Map<String, Object>>) response.getBody().get("choices");
-            
-            if (choices == null || choices.isEmpty()) {
+            JsonNode content = resposta.path("choices").path(0).path("message").path("content");
+            if (!content.isTextual()) {
                 throw new RuntimeException("Nenhuma resposta retornada");
             }
             
-            Map<String, Object> message = 
-                    (Map<String, Object>) choices.get(0).get("message");
-            String content = (String) message.get("content");
-            
             log.info("✅ Resposta gerada");
-            return content;
-            
+            return content.asText();
+        
         } catch (Exception e) {
             log.error("❌ Erro no OpenRouter", e);
             throw new RuntimeException("Erro ao processar com OpenRouter: " + e.getMessage(), e);
         }
     }
     
+    @Override
+    public void chatStream(String systemPrompt, String userMessage, StreamingChatResponseHandler handler) {
+        log.info("🌊 OpenRouter iniciando streaming: {}", modelName);
+        streamingModel.chat(ChatRequest.builder()
+                .messages(SystemMessage.from(systemPrompt), UserMessage.from(userMessage))
+                .build(), handler);
+    }
+    
+    private static List<Map<String, Object>> mensagens(String systemPrompt, String userMessage) {
+        return List.of(
+                Map.of("role", "system", "content", systemPrompt),
+                Map.of("role", "user", "content", userMessage));
+    }
+    
+    // ==================================
+    // Cabeçalhos fixos (Authorization montado uma única vez)
+    // ==================================
+    private void cabecalhos(HttpHeaders headers, MediaType accept) {
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(accept));
+        headers.set(HttpHeaders.AUTHORIZATION, authorization);
+        headers.set("HTTP-Referer", "http://localhost:8081");
+        headers.set("X-Title", "GitHub Assistant");
+    }
+    
+    // ==================================
+    // Prefixo pré-serializado + mensagens + fecha o objeto
+    // ==================================
+    private void escreverCorpo(OutputStream saida, byte[] prefixo, List<Map<String, Object>> messages)
+            throws IOException {
+        saida.write(prefixo);
+        mensagensWriter.writeValue(saida, messages);
+        saida.write('}');
+    }
+    
     @Override
     public String getProviderName() {
-        return "OpenRouter (" + modelName + ")";
+        return "OpenRouter (" + modelName + ")" + (rotulo == null ? "" : " #" + rotulo);
     }
     
     @Override
@@ -92,7 +226,11 @@ public class OpenRouterProvider implements LLMProvider {
     
     @Override
     public ChatModel getChatModel() {
-        log.warn("⚠️ OpenRouterProvider não suporta ChatModel nativamente");
-        return null;
+        return model;
+    }
+    
+    @Override
+    public StreamingChatModel getStreamingChatModel() {
+        return streamingModel;
     }
-}
\ No newline at end of file
+}
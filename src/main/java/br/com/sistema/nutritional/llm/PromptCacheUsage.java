@@ -0,0 +1,46 @@
+package br.com.sistema.nutritional.llm;
+
+import dev.langchain4j.model.anthropic.AnthropicTokenUsage;
+import dev.langchain4j.model.openai.OpenAiTokenUsage;
+import dev.langchain4j.model.output.TokenUsage;
+
+/**
+ * Tokens de entrada de uma chamada separados pelo cache de prompt do provider.
+ *
+ * - Anthropic: {@code input_tokens} já exclui o que veio do cache; leitura e
+ *   gravação vêm em campos próprios.
+ * - OpenAI/OpenRouter: {@code prompt_tokens} inclui os tokens em cache
+ *   ({@code cached_tokens}); não há custo de gravação.
+ * - Demais: sem informação de cache, tudo conta como não cacheado.
+ */
+public record PromptCacheUsage(int lidos, int gravados, int semCache) {
+    
+    public static PromptCacheUsage de(TokenUsage uso) {
+        if (uso == null || uso.inputTokenCount() == null) {
+            return new PromptCacheUsage(0, 0, 0);
+        }
+        int entrada = uso.inputTokenCount();
+        
+        if (uso instanceof AnthropicTokenUsage anthropic) {
+            return new PromptCacheUsage(
+                    valor(anthropic.cacheReadInputTokens()),
+                    valor(anthropic.cacheCreationInputTokens()),
+                    entrada);
+        }
+        if (uso instanceof OpenAiTokenUsage openAi && openAi.inputTokensDetails() != null) {
+            int lidos = valor(openAi.inputTokensDetails().cachedTokens());
+            return new PromptCacheUsage(lidos, 0, Math.max(0, entrada - lidos));
+        }
+        return new PromptCacheUsage(0, 0, entrada);
+    }
+    
+    // Fração da entrada servida pelo cache
+    public double taxaAcerto() {
+        int total = lidos + gravados + semCache;
+        return total == 0 ? 0 : (double) lidos / total;
+    }
+    
+    private static int valor(Integer tokens) {
+        return tokens == null ? 0 : tokens;
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.sistema.nutritional.llm;
+
+/**
+ * Lançada quando o provider é chamado sem estar configurado (API key ausente).
+ */
+public class ProviderNotConfiguredException extends IllegalStateException {
+    
+    public ProviderNotConfiguredException(String providerName) {
+        super(providerName + " não está configurado: defina a API key correspondente");
+    }
+}
@@ -0,0 +1,146 @@
+package br.com.sistema.nutritional.llm;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+
+import dev.langchain4j.http.client.HttpClient;
+import dev.langchain4j.http.client.HttpClientBuilder;
+import dev.langchain4j.http.client.HttpException;
+import dev.langchain4j.http.client.HttpRequest;
+import dev.langchain4j.http.client.SuccessfulHttpResponse;
+import dev.langchain4j.http.client.sse.ServerSentEventListener;
+import dev.langchain4j.http.client.sse.ServerSentEventParser;
+
+/**
+ * {@link HttpClient} do LangChain4j sobre o {@link RestTemplate} do
+ * OpenRouter: os modelos nativos (chat e streaming) usam o mesmo pool de
+ * conexões, timeouts e métricas do cliente configurado em
+ * {@code OpenRouterHttpConfig}, em vez de criar o cliente HTTP padrão.
+ *
+ * Os timeouts pedidos pelo builder do modelo são ignorados: valem os do pool.
+ * Respostas de erro viram {@link HttpException} com o status e o corpo recebidos.
+ */
+final class RestTemplateHttpClient implements HttpClient {
+    
+    // Streams ficam bloqueados lendo o corpo; uma virtual thread por stream
+    private static final ExecutorService STREAMS = Executors.newVirtualThreadPerTaskExecutor();
+    
+    private final RestTemplate restTemplate;
+    
+    private RestTemplateHttpClient(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+    
+    static Builder builder(RestTemplate restTemplate) {
+        return new Builder(restTemplate);
+    }
+    
+    @Override
+    public SuccessfulHttpResponse execute(HttpRequest request) throws HttpException {
+        return enviar(request, response -> SuccessfulHttpResponse.builder()
+                .statusCode(response.getStatusCode().value())
+                .headers(response.getHeaders())
+                .body(new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8))
+                .build());
+    }
+    
+    // ==================================
+    // SSE: corpo lido e repassado ao parser numa virtual thread
+    // ==================================
+    @Override
+    public void execute(HttpRequest request, ServerSentEventParser parser, ServerSentEventListener listener) {
+        STREAMS.execute(() -> {
+            try {
+                enviar(request, response -> {
+                    listener.onOpen(SuccessfulHttpResponse.builder()
+                            .statusCode(response.getStatusCode().value())
+                            .headers(response.getHeaders())
+                            .build());
+                    try (InputStream corpo = response.getBody()) {
+                        parser.parse(corpo, listener);
+                    }
+                    return null;
+                });
+                listener.onClose();
+            } catch (Exception e) {
+                listener.onError(e);
+            }
+        });
+    }
+    
+    // URL já montada pelo modelo: URI direto, sem expansão de template do RestTemplate
+    private <T> T enviar(HttpRequest request, Leitura<T> leitura) {
+        try {
+            return restTemplate.execute(URI.create(request.url()), HttpMethod.valueOf(request.method().name()),
+                    requisicao -> {
+                        for (Map.Entry<String, List<String>> cabecalho : request.headers().entrySet()) {
+                            requisicao.getHeaders().addAll(cabecalho.getKey(), cabecalho.getValue());
+                        }
+                        if (request.body() != null) {
+                            requisicao.getBody().write(request.body().getBytes(StandardCharsets.UTF_8));
+                        }
+                    },
+                    leitura::ler);
+        } catch (RestClientResponseException e) {
+            throw new HttpException(e.getStatusCode().value(), e.getResponseBodyAsString());
+        }
+    }
+    
+    @FunctionalInterface
+    private interface Leitura<T> {
+        T ler(ClientHttpResponse response) throws IOException;
+    }
+    
+    // ==================================
+    // Builder exigido pelos modelos (httpClientBuilder)
+    // ==================================
+    static final class Builder implements HttpClientBuilder {
+        
+        private final RestTemplate restTemplate;
+        private Duration connectTimeout;
+        private Duration readTimeout;
+        
+        private Builder(RestTemplate restTemplate) {
+            this.restTemplate = restTemplate;
+        }
+        
+        @Override
+        public Duration connectTimeout() {
+            return connectTimeout;
+        }
+        
+        @Override
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+        
+        @Override
+        public Duration readTimeout() {
+            return readTimeout;
+        }
+        
+        @Override
+        public Builder readTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+        
+        @Override
+        public HttpClient build() {
+            return new RestTemplateHttpClient(restTemplate);
+        }
+    }
+}
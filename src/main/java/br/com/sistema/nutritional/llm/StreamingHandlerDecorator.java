@@ -0,0 +1,93 @@
+package br.com.sistema.nutritional.llm;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.CompleteToolCall;
+import dev.langchain4j.model.chat.response.PartialResponse;
+import dev.langchain4j.model.chat.response.PartialResponseContext;
+import dev.langchain4j.model.chat.response.PartialToolCall;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import dev.langchain4j.model.chat.response.StreamingHandle;
+
+/**
+ * Base dos handlers de streaming dos decorators (limite de concorrência,
+ * circuit breaker, métricas, balanceamento): repassa os eventos ao handler
+ * de quem chamou e avisa uma única vez quando o stream termina.
+ *
+ * Um stream cancelado pelo chamador ({@link StreamingHandle#cancel()}, por
+ * exemplo quando o cliente do SSE desconecta) não recebe mais
+ * onCompleteResponse nem onError do modelo. Por isso o handle entregue ao
+ * chamador é envolvido: o cancelamento também encerra a decoração, com uma
+ * {@link CancellationException} como erro.
+ */
+abstract class StreamingHandlerDecorator implements StreamingChatResponseHandler {
+    
+    private final StreamingChatResponseHandler delegate;
+    private final AtomicBoolean terminado = new AtomicBoolean();
+    
+    StreamingHandlerDecorator(StreamingChatResponseHandler delegate) {
+        this.delegate = delegate;
+    }
+    
+    // Resposta completa (sucesso) ou erro; CancellationException = cancelado pelo chamador
+    protected abstract void aoTerminar(ChatResponse resposta, Throwable erro);
+    
+    static boolean cancelado(Throwable erro) {
+        return erro instanceof CancellationException;
+    }
+    
+    @Override
+    public void onPartialResponse(String partialResponse) {
+        delegate.onPartialResponse(partialResponse);
+    }
+    
+    @Override
+    public void onPartialResponse(PartialResponse partialResponse, PartialResponseContext context) {
+        delegate.onPartialResponse(partialResponse, new PartialResponseContext(cancelavel(context.streamingHandle())));
+    }
+    
+    @Override
+    public void onPartialToolCall(PartialToolCall partialToolCall) {
+        delegate.onPartialToolCall(partialToolCall);
+    }
+    
+    @Override
+    public void onCompleteToolCall(CompleteToolCall completeToolCall) {
+        delegate.onCompleteToolCall(completeToolCall);
+    }
+    
+    @Override
+    public void onCompleteResponse(ChatResponse completeResponse) {
+        terminar(completeResponse, null);
+        delegate.onCompleteResponse(completeResponse);
+    }
+    
+    @Override
+    public void onError(Throwable error) {
+        terminar(null, error);
+        delegate.onError(error);
+    }
+    
+    private void terminar(ChatResponse resposta, Throwable erro) {
+        if (terminado.compareAndSet(false, true)) {
+            aoTerminar(resposta, erro);
+        }
+    }
+    
+    private StreamingHandle cancelavel(StreamingHandle handle) {
+        return new StreamingHandle() {
+            @Override
+            public void cancel() {
+                handle.cancel();
+                terminar(null, new CancellationException("Stream cancelado pelo chamador"));
+            }
+            
+            @Override
+            public boolean isCancelled() {
+                return handle.isCancelled();
+            }
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.sistema.nutritional.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import br.com.sistema.nutritional.dtos.response.PlanoResponse;
+import br.com.sistema.nutritional.models.PlanoNutricional;
+
+@Mapper(componentModel = "spring")
+public interface PlanoMapper {
+    
+    // ==================================
+    // Converte o modelo de domínio para o DTO de resposta
+    // ==================================
+    @Mapping(target = "narrativa", ignore = true)
+    PlanoResponse toResponse(PlanoNutricional plano);
+    
+    PlanoResponse.MacrosResponse toResponse(PlanoNutricional.Macronutrientes macros);
+}
@@ -0,0 +1,637 @@
+package br.com.sistema.nutritional.memory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import br.com.sistema.nutritional.budget.TokenBudgetService;
+import br.com.sistema.nutritional.budget.TokenEstimator;
+import br.com.sistema.nutritional.config.ChatMemoryProperties;
+import br.com.sistema.nutritional.llm.LLMProvider;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ChatMessageDeserializer;
+import dev.langchain4j.data.message.ChatMessageSerializer;
+import dev.langchain4j.data.message.Content;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.TextContent;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.memory.ChatMemory;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Memória das conversas do chat, por conversationId.
+ *
+ * - Janela por tokens: a cada mensagem nova, as mais antigas saem até a
+ *   estimativa ({@link TokenEstimator}) caber em {@code maxTokens}; com
+ *   {@code summarize=true} o que saiu é resumido pelo LLM em segundo plano e
+ *   o resumo vai logo depois do system prompt (que segue como prefixo fixo).
+ * - Armazenamento compacto: cada conversa fica como JSON comprimido
+ *   (Deflater); só é descompactada durante a chamada ao LLM. O system prompt
+ *   é o mesmo em todas as conversas e fica fora da janela, compartilhado.
+ * - Particionada em {@code stripes} mapas LRU com lock próprio; conversas
+ *   ociosas além de {@code idleTimeout} e, acima do teto {@code maxSize},
+ *   as usadas há mais tempo são descartadas.
+ * - Memórias efêmeras ({@link #idEfemero()}, uma mensagem avulsa) não passam
+ *   pelo armazenamento: ficam numa lista simples, sem compressão, e somem com
+ *   o objeto ao fim da requisição.
+ * - O resumo gera uma chamada ao LLM cobrada no orçamento de tokens do dono
+ *   da conversa (o cliente de {@link #id(String, String)}).
+ */
+@Component
+@Slf4j
+public class ConversationMemoryStore {
+    
+    // Custo fixo estimado por conversa: chave, entrada do mapa e objeto Sessao
+    private static final int OVERHEAD_BYTES = 200;
+    
+    private static final String TITULO_RESUMO = "Resumo da conversa até aqui:\n";
+    
+    private static final String PREFIXO_EFEMERA = "efemera:";
+    
+    private static final String INSTRUCAO_RESUMO =
+            "Resuma em no máximo 5 frases curtas, em português, os fatos desta conversa que são úteis "
+                    + "para continuar o atendimento nutricional: dados do usuário (nome, idade, peso, "
+                    + "objetivo, intensidade de exercício), valores já calculados e preferências. "
+                    + "Não invente nada.";
+    
+    // Cliente e conversationId; não aparece em "ip:..." nem em "key:..." do ClientIdResolver
+    private static final char SEPARADOR_DONO = '|';
+    
+    // Resume os turnos que saíram da janela (null = apenas descarta)
+    @FunctionalInterface
+    public interface Resumidor {
+        String resumir(String dono, String resumoAnterior, List<ChatMessage> removidas);
+    }
+    
+    private final ChatMemoryProperties properties;
+    private final Resumidor resumidor;
+    private final Particao[] particoes;
+    private final int mascara;
+    private final long limitePorParticao;
+    private final long ociosidadeMs;
+    private final ExecutorService executorResumos = Executors.newVirtualThreadPerTaskExecutor();
+    
+    private volatile Consumer<Object> aoDescartar = id -> { };
+    private volatile SystemMessage sistemaCompartilhado;
+    
+    private final AtomicInteger sessoes = new AtomicInteger();
+    private final AtomicLong bytes = new AtomicLong();
+    private final Counter descartadasOciosas;
+    private final Counter descartadasCapacidade;
+    private final Counter turnosResumidos;
+    
+    @Autowired
+    public ConversationMemoryStore(ChatMemoryProperties properties, MeterRegistry registry,
+                                   LLMProvider llmProvider, TokenBudgetService tokenBudget) {
+        this(properties, registry, properties.isSummarize() ? resumidorLLM(llmProvider, tokenBudget) : null);
+    }
+    
+    public ConversationMemoryStore(ChatMemoryProperties properties, MeterRegistry registry, Resumidor resumidor) {
+        this.properties = properties;
+        this.resumidor = resumidor;
+        
+        int stripes = Integer.highestOneBit(Math.max(1, properties.getStripes()));
+        this.particoes = new Particao[stripes];
+        for (int i = 0; i < stripes; i++) {
+            particoes[i] = new Particao();
+        }
+        this.mascara = stripes - 1;
+        this.limitePorParticao = properties.getMaxSize().toBytes() / stripes;
+        this.ociosidadeMs = properties.getIdleTimeout().toMillis();
+        
+        Gauge.builder("chat.memory.sessions", sessoes, AtomicInteger::get).register(registry);
+        Gauge.builder("chat.memory.bytes", bytes, AtomicLong::get).baseUnit("bytes").register(registry);
+        this.descartadasOciosas = Counter.builder("chat.memory.evicted").tag("reason", "idle").register(registry);
+        this.descartadasCapacidade = Counter.builder("chat.memory.evicted").tag("reason", "capacity").register(registry);
+        this.turnosResumidos = Counter.builder("chat.memory.summarized").register(registry);
+        
+        log.info("🧾 Memória de conversas: janela={} tokens, ociosidade={}, teto={}, resumo={}",
+                properties.getMaxTokens(), properties.getIdleTimeout(), properties.getMaxSize(),
+                resumidor != null ? "ativo" : "desativado");
+    }
+    
+    // ==================================
+    // Ids de memória: conversa de um cliente ou mensagem avulsa
+    // ==================================
+    public static String id(String cliente, String conversationId) {
+        return cliente + SEPARADOR_DONO + conversationId;
+    }
+    
+    public static String idEfemero() {
+        return PREFIXO_EFEMERA + UUID.randomUUID();
+    }
+    
+    public static boolean efemera(Object id) {
+        return id instanceof String texto && texto.startsWith(PREFIXO_EFEMERA);
+    }
+    
+    // Cliente dono da conversa (null se o id não veio de id(cliente, conversa))
+    static String dono(Object id) {
+        String texto = String.valueOf(id);
+        int separador = texto.indexOf(SEPARADOR_DONO);
+        return separador < 0 ? null : texto.substring(0, separador);
+    }
+    
+    // ==================================
+    // ChatMemory usada pelo AiServices: só guarda o id, o estado fica aqui
+    // (efêmeras guardam as mensagens no próprio objeto)
+    // ==================================
+    public ChatMemory memoria(Object id) {
+        return efemera(id) ? new MemoriaEfemera(id) : new Memoria(id);
+    }
+    
+    // Chamado com o id de cada conversa descartada por ociosidade ou capacidade
+    public void aoDescartar(Consumer<Object> listener) {
+        this.aoDescartar = listener;
+    }
+    
+    // Tokens estimados da conversa (mensagens + resumo), para o orçamento
+    public int tokens(Object id) {
+        Particao particao = particao(id);
+        particao.lock.lock();
+        try {
+            Sessao sessao = particao.sessoes.get(id);
+            return sessao == null ? 0 : sessao.tokens;
+        } finally {
+            particao.lock.unlock();
+        }
+    }
+    
+    public void remover(Object id) {
+        Particao particao = particao(id);
+        particao.lock.lock();
+        try {
+            Sessao sessao = particao.sessoes.remove(id);
+            if (sessao != null) {
+                descontar(particao, sessao);
+            }
+        } finally {
+            particao.lock.unlock();
+        }
+    }
+    
+    // ==================================
+    // Mensagens da conversa: system prompt, resumo e a janela
+    // ==================================
+    List<ChatMessage> mensagens(Object id) {
+        SystemMessage sistema;
+        byte[] dados;
+        String resumo;
+        
+        Particao particao = particao(id);
+        particao.lock.lock();
+        try {
+            Sessao sessao = particao.sessoes.get(id);
+            if (sessao == null) {
+                return new ArrayList<>();
+            }
+            sessao.ultimoAcesso = System.currentTimeMillis();
+            sistema = sessao.sistema;
+            dados = sessao.dados;
+            resumo = sessao.resumo;
+        } finally {
+            particao.lock.unlock();
+        }
+        
+        List<ChatMessage> mensagens = descompactar(dados);
+        if (resumo != null) {
+            mensagens.add(0, SystemMessage.from(TITULO_RESUMO + resumo));
+        }
+        if (sistema != null) {
+            mensagens.add(0, sistema);
+        }
+        return mensagens;
+    }
+    
+    // ==================================
+    // Acrescenta a mensagem e aplica a janela. (Des)compactação fora do lock:
+    // grava só se a conversa não mudou nesse meio tempo, senão refaz
+    // ==================================
+    void adicionar(Object id, ChatMessage mensagem) {
+        Particao particao = particao(id);
+        if (mensagem instanceof SystemMessage sistema) {
+            definirSistema(particao, id, sistema);
+            return;
+        }
+        
+        while (true) {
+            byte[] base;
+            particao.lock.lock();
+            try {
+                Sessao sessao = particao.sessoes.get(id);
+                base = sessao == null ? null : sessao.dados;
+            } finally {
+                particao.lock.unlock();
+            }
+            
+            List<ChatMessage> mensagens = descompactar(base);
+            mensagens.add(mensagem);
+            List<ChatMessage> removidas = aplicarJanela(mensagens);
+            byte[] dados = compactar(mensagens);
+            int tokens = tokens(mensagens);
+            
+            long agora = System.currentTimeMillis();
+            List<Object> descartadas;
+            String resumoAnterior;
+            
+            particao.lock.lock();
+            try {
+                Sessao sessao = particao.sessoes.get(id);
+                if ((sessao == null ? null : sessao.dados) != base) {
+                    continue;
+                }
+                if (sessao == null) {
+                    sessao = criar(particao, id);
+                }
+                particao.bytes -= sessao.tamanho();
+                bytes.addAndGet(-sessao.tamanho());
+                sessao.dados = dados;
+                sessao.tokens = tokens + (sessao.resumo == null ? 0 : TokenEstimator.estimar(sessao.resumo));
+                sessao.ultimoAcesso = agora;
+                particao.bytes += sessao.tamanho();
+                bytes.addAndGet(sessao.tamanho());
+                
+                resumoAnterior = sessao.resumo;
+                descartadas = despejar(particao, id, agora);
+            } finally {
+                particao.lock.unlock();
+            }
+            
+            for (Object descartada : descartadas) {
+                aoDescartar.accept(descartada);
+            }
+            if (!removidas.isEmpty() && resumidor != null) {
+                executorResumos.execute(() -> resumir(id, resumoAnterior, removidas));
+            }
+            return;
+        }
+    }
+    
+    // ==================================
+    // System prompt: substitui o anterior; o mesmo texto vira uma única instância
+    // ==================================
+    private void definirSistema(Particao particao, Object id, SystemMessage sistema) {
+        SystemMessage compartilhado = sistemaCompartilhado;
+        if (sistema.equals(compartilhado)) {
+            sistema = compartilhado;
+        } else {
+            sistemaCompartilhado = sistema;
+        }
+        
+        particao.lock.lock();
+        try {
+            Sessao sessao = particao.sessoes.get(id);
+            if (sessao == null) {
+                sessao = criar(particao, id);
+                particao.bytes += sessao.tamanho();
+                bytes.addAndGet(sessao.tamanho());
+            }
+            sessao.sistema = sistema;
+            sessao.ultimoAcesso = System.currentTimeMillis();
+        } finally {
+            particao.lock.unlock();
+        }
+    }
+    
+    private Sessao criar(Particao particao, Object id) {
+        Sessao sessao = new Sessao();
+        particao.sessoes.put(id, sessao);
+        sessoes.incrementAndGet();
+        return sessao;
+    }
+    
+    // ==================================
+    // Remove do início até caber em maxTokens/maxMessages. A conversa sempre
+    // recomeça numa mensagem do usuário (sem resposta ou resultado de tool órfão)
+    // ==================================
+    private List<ChatMessage> aplicarJanela(List<ChatMessage> mensagens) {
+        List<ChatMessage> removidas = new ArrayList<>();
+        int tokens = tokens(mensagens);
+        
+        while (mensagens.size() > 1
+                && (tokens > properties.getMaxTokens() || mensagens.size() > properties.getMaxMessages())) {
+            ChatMessage removida = mensagens.remove(0);
+            removidas.add(removida);
+            tokens -= tokens(removida);
+            
+            while (mensagens.size() > 1 && !(mensagens.get(0) instanceof UserMessage)) {
+                ChatMessage orfa = mensagens.remove(0);
+                removidas.add(orfa);
+                tokens -= tokens(orfa);
+            }
+        }
+        return removidas;
+    }
+    
+    // ==================================
+    // Conversas ociosas e, acima do teto da partição, as menos usadas
+    // (o mapa está em ordem de acesso: as mais antigas vêm primeiro)
+    // ==================================
+    private List<Object> despejar(Particao particao, Object atual, long agora) {
+        List<Object> descartadas = new ArrayList<>();
+        Iterator<Map.Entry<Object, Sessao>> it = particao.sessoes.entrySet().iterator();
+        
+        while (it.hasNext()) {
+            Map.Entry<Object, Sessao> entrada = it.next();
+            boolean ociosa = agora - entrada.getValue().ultimoAcesso > ociosidadeMs;
+            boolean cheia = particao.bytes > limitePorParticao;
+            if ((!ociosa && !cheia) || entrada.getKey().equals(atual)) {
+                break;
+            }
+            
+            it.remove();
+            descontar(particao, entrada.getValue());
+            (ociosa ? descartadasOciosas : descartadasCapacidade).increment();
+            descartadas.add(entrada.getKey());
+        }
+        return descartadas;
+    }
+    
+    private void descontar(Particao particao, Sessao sessao) {
+        particao.bytes -= sessao.tamanho();
+        bytes.addAndGet(-sessao.tamanho());
+        sessoes.decrementAndGet();
+    }
+    
+    // ==================================
+    // Resumo dos turnos removidos, acumulado ao anterior
+    // ==================================
+    private void resumir(Object id, String resumoAnterior, List<ChatMessage> removidas) {
+        try {
+            String resumo = resumidor.resumir(dono(id), resumoAnterior, removidas);
+            if (resumo == null || resumo.isBlank()) {
+                return;
+            }
+            
+            Particao particao = particao(id);
+            particao.lock.lock();
+            try {
+                Sessao sessao = particao.sessoes.get(id);
+                if (sessao == null) {
+                    return;
+                }
+                particao.bytes -= sessao.tamanho();
+                bytes.addAndGet(-sessao.tamanho());
+                sessao.tokens += TokenEstimator.estimar(resumo)
+                        - (sessao.resumo == null ? 0 : TokenEstimator.estimar(sessao.resumo));
+                sessao.resumo = resumo.strip();
+                particao.bytes += sessao.tamanho();
+                bytes.addAndGet(sessao.tamanho());
+            } finally {
+                particao.lock.unlock();
+            }
+            turnosResumidos.increment(removidas.size());
+        
+        } catch (Exception e) {
+            log.warn("🧾 Falha ao resumir conversa: {}", e.getMessage());
+        }
+    }
+    
+    // ==================================
+    // Resumo pelo LLM, cobrado no orçamento do dono da conversa
+    // (orçamento esgotado: TokenBudgetExceededException, os turnos só saem)
+    // ==================================
+    private static Resumidor resumidorLLM(LLMProvider llmProvider, TokenBudgetService tokenBudget) {
+        return (dono, anterior, removidas) -> {
+            String pedido = (anterior == null ? "" : "Resumo anterior:\n" + anterior + "\n\n")
+                    + "Trechos novos:\n" + transcrever(removidas);
+            TokenBudgetService.Reserva reserva = tokenBudget.reservar(dono == null ? "memoria" : dono, pedido);
+            try {
+                ChatResponse resposta = llmProvider.chat(ChatRequest.builder()
+                        .messages(SystemMessage.from(INSTRUCAO_RESUMO), UserMessage.from(pedido))
+                        .build());
+                tokenBudget.registrar(reserva, resposta.tokenUsage());
+                return resposta.aiMessage().text();
+            } catch (RuntimeException e) {
+                tokenBudget.liberar(reserva);
+                throw e;
+            }
+        };
+    }
+    
+    private static String transcrever(List<ChatMessage> mensagens) {
+        StringBuilder texto = new StringBuilder();
+        for (ChatMessage mensagem : mensagens) {
+            if (mensagem instanceof UserMessage) {
+                texto.append("Usuário: ").append(texto(mensagem)).append('\n');
+            } else if (mensagem instanceof AiMessage ai && ai.text() != null) {
+                texto.append("Assistente: ").append(ai.text()).append('\n');
+            } else if (mensagem instanceof ToolExecutionResultMessage tool) {
+                texto.append("Resultado de ").append(tool.toolName()).append(": ").append(tool.text()).append('\n');
+            }
+        }
+        return texto.toString();
+    }
+    
+    // ==================================
+    // Estimativa de tokens por mensagem (texto + argumentos de tool calls)
+    // ==================================
+    private static int tokens(List<ChatMessage> mensagens) {
+        int total = 0;
+        for (ChatMessage mensagem : mensagens) {
+            total += tokens(mensagem);
+        }
+        return total;
+    }
+    
+    private static int tokens(ChatMessage mensagem) {
+        int tokens = TokenEstimator.estimar(texto(mensagem));
+        if (mensagem instanceof AiMessage ai && ai.hasToolExecutionRequests()) {
+            for (ToolExecutionRequest request : ai.toolExecutionRequests()) {
+                tokens += TokenEstimator.estimar(request.name()) + TokenEstimator.estimar(request.arguments());
+            }
+        }
+        return tokens;
+    }
+    
+    private static String texto(ChatMessage mensagem) {
+        if (mensagem instanceof UserMessage user) {
+            if (user.hasSingleText()) {
+                return user.singleText();
+            }
+            StringBuilder texto = new StringBuilder();
+            for (Content conteudo : user.contents()) {
+                if (conteudo instanceof TextContent text) {
+                    texto.append(text.text());
+                }
+            }
+            return texto.toString();
+        }
+        if (mensagem instanceof AiMessage ai) {
+            return ai.text();
+        }
+        if (mensagem instanceof SystemMessage system) {
+            return system.text();
+        }
+        if (mensagem instanceof ToolExecutionResultMessage tool) {
+            return tool.text();
+        }
+        return null;
+    }
+    
+    // ==================================
+    // JSON do LangChain4j comprimido com Deflater
+    // ==================================
+    private static byte[] compactar(List<ChatMessage> mensagens) {
+        byte[] json = ChatMessageSerializer.messagesToJson(mensagens).getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(json.length / 3 + 16);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try (OutputStream comprimido = new DeflaterOutputStream(saida, deflater)) {
+            comprimido.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return saida.toByteArray();
+    }
+    
+    private static List<ChatMessage> descompactar(byte[] dados) {
+        if (dados == null) {
+            return new ArrayList<>();
+        }
+        Inflater inflater = new Inflater(true);
+        try (InputStream entrada = new InflaterInputStream(new ByteArrayInputStream(dados), inflater)) {
+            return new ArrayList<>(ChatMessageDeserializer.messagesFromJson(
+                    new String(entrada.readAllBytes(), StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+    
+    private Particao particao(Object id) {
+        int h = id.hashCode();
+        return particoes[(h ^ (h >>> 16)) & mascara];
+    }
+    
+    // ==================================
+    // Partição: mapa LRU (ordem de acesso) + bytes ocupados
+    // ==================================
+    private static final class Particao {
+        
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Object, Sessao> sessoes = new LinkedHashMap<>(16, 0.75f, true);
+        private long bytes;
+    }
+    
+    private static final class Sessao {
+        
+        private SystemMessage sistema;
+        private byte[] dados;
+        private String resumo;
+        private int tokens;
+        private long ultimoAcesso;
+        
+        int tamanho() {
+            return OVERHEAD_BYTES + (dados == null ? 0 : dados.length) + (resumo == null ? 0 : resumo.length() * 2);
+        }
+    }
+    
+    // ==================================
+    // Mensagem avulsa: vive só durante a requisição, então fica em memória
+    // simples, sem compressão, janela de resumo nem entrada no mapa LRU
+    // ==================================
+    private final class MemoriaEfemera implements ChatMemory {
+        
+        private final Object id;
+        private final List<ChatMessage> mensagens = new ArrayList<>();
+        private SystemMessage sistema;
+        
+        MemoriaEfemera(Object id) {
+            this.id = id;
+        }
+        
+        @Override
+        public Object id() {
+            return id;
+        }
+        
+        @Override
+        public void add(ChatMessage message) {
+            if (message instanceof SystemMessage system) {
+                sistema = system;
+                return;
+            }
+            mensagens.add(message);
+            aplicarJanela(mensagens);
+        }
+        
+        @Override
+        public List<ChatMessage> messages() {
+            List<ChatMessage> copia = new ArrayList<>(mensagens.size() + 1);
+            if (sistema != null) {
+                copia.add(sistema);
+            }
+            copia.addAll(mensagens);
+            return copia;
+        }
+        
+        @Override
+        public void clear() {
+            mensagens.clear();
+            sistema = null;
+        }
+    }
+    
+    private final class Memoria implements ChatMemory {
+        
+        private final Object id;
+        
+        Memoria(Object id) {
+            this.id = id;
+        }
+        
+        @Override
+        public Object id() {
+            return id;
+        }
+        
+        @Override
+        public void add(ChatMessage message) {
+            adicionar(id, message);
+        }
+        
+        @Override
+        public List<ChatMessage> messages() {
+            return mensagens(id);
+        }
+        
+        @Override
+        public void clear() {
+            remover(id);
+        }
+    }
+}
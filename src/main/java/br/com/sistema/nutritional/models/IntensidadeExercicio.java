@@ -0,0 +1,44 @@
+package br.com.sistema.nutritional.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Intensidade de exercício usada no fator de atividade do GET.
+ *
+ * Convertida uma única vez na entrada por {@link #de(String)}, como
+ * {@link Objetivo}.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum IntensidadeExercicio {
+    
+    SEDENTARIO("sedentario"),
+    LEVE("leve"),
+    MODERADO("moderado"),
+    INTENSO("intenso"),
+    MUITO_INTENSO("muito_intenso");
+    
+    private static final Sinonimos<IntensidadeExercicio> SINONIMOS = new Sinonimos<IntensidadeExercicio>()
+            .com(SEDENTARIO, "sedentario", "sedentaria", "nenhuma", "nenhum", "sem_exercicio", "parado")
+            .com(LEVE, "leve", "baixa", "baixo", "levemente_ativo", "levemente_ativa")
+            .com(MODERADO, "moderado", "moderada", "media", "medio", "moderadamente_ativo",
+                    "moderadamente_ativa")
+            .com(INTENSO, "intenso", "intensa", "alta", "alto", "ativo", "ativa")
+            .com(MUITO_INTENSO, "muito_intenso", "muito_intensa", "muito_alta", "muito_alto", "muito_ativo",
+                    "muito_ativa", "extremo", "atleta");
+    
+    @JsonValue
+    private final String codigo;
+    
+    // ==================================
+    // Código, nome ou sinônimo (sem diferenciar acentos/maiúsculas); null se desconhecido
+    // ==================================
+    @JsonCreator
+    public static IntensidadeExercicio de(String texto) {
+        return SINONIMOS.buscar(texto);
+    }
+}
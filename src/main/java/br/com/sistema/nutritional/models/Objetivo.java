@@ -0,0 +1,41 @@
+package br.com.sistema.nutritional.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Objetivo nutricional do plano.
+ *
+ * Convertido uma única vez na entrada (JSON ou argumento de tool) por
+ * {@link #de(String)}; daí em diante os cálculos usam o {@link #ordinal()}
+ * para indexar as tabelas de fatores e textos.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum Objetivo {
+    
+    EMAGRECIMENTO("emagrecimento"),
+    GANHO_MASSA("ganho_massa"),
+    MANUTENCAO("manutencao");
+    
+    private static final Sinonimos<Objetivo> SINONIMOS = new Sinonimos<Objetivo>()
+            .com(EMAGRECIMENTO, "emagrecimento", "emagrecer", "perda_de_peso", "perder_peso", "perda_de_gordura",
+                    "perder_gordura", "definicao", "cutting", "deficit")
+            .com(GANHO_MASSA, "ganho_massa", "ganho_de_massa", "ganhar_massa", "ganho_de_massa_muscular",
+                    "hipertrofia", "bulking", "superavit")
+            .com(MANUTENCAO, "manutencao", "manter", "manter_peso", "manter_o_peso", "manutencao_de_peso");
+    
+    @JsonValue
+    private final String codigo;
+    
+    // ==================================
+    // Código, nome ou sinônimo (sem diferenciar acentos/maiúsculas); null se desconhecido
+    // ==================================
+    @JsonCreator
+    public static Objetivo de(String texto) {
+        return SINONIMOS.buscar(texto);
+    }
+}
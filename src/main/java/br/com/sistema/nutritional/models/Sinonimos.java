@@ -0,0 +1,42 @@
+package br.com.sistema.nutritional.models;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Tabela de sinônimos dos enums do domínio.
+ *
+ * As chaves ficam sem acento, em minúsculas e com "_" no lugar de espaços e
+ * hífens, então "Ganho de Massa", "ganho-de-massa" e "ganho_de_massa" caem na
+ * mesma entrada. O código canônico é consultado antes, sem normalizar.
+ */
+final class Sinonimos<E extends Enum<E>> {
+    
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[\\s\\-]+");
+    
+    private final Map<String, E> valores = new HashMap<>();
+    
+    Sinonimos<E> com(E valor, String... termos) {
+        for (String termo : termos) {
+            valores.put(termo, valor);
+        }
+        return this;
+    }
+    
+    E buscar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        E valor = valores.get(texto);
+        return valor != null ? valor : valores.get(normalizar(texto));
+    }
+    
+    static String normalizar(String texto) {
+        String semAcento = ACENTOS.matcher(Normalizer.normalize(texto.trim(), Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(semAcento.toLowerCase(Locale.ROOT)).replaceAll("_");
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.sistema.nutritional.ratelimit;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.sistema.nutritional.config.RateLimitProperties;
+import br.com.sistema.nutritional.controller.ClientIdResolver;
+import br.com.sistema.nutritional.dtos.response.AssistantResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rate limiting por cliente de uma faixa de endpoints (baratos ou caros).
+ *
+ * Roda antes do controller e depois do CORS, então o navegador consegue ler
+ * o 429 e o Retry-After. No caminho permitido custa a validação da API key
+ * (ou um hash do IP) e um compareAndSet no {@link TokenBucketTable}.
+ */
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor {
+    
+    private final String faixa;
+    private final TokenBucketTable buckets;
+    private final ClientIdResolver clientIdResolver;
+    private final ObjectMapper objectMapper;
+    
+    private final Counter permitidas;
+    private final Counter recusadas;
+    
+    public RateLimitInterceptor(String faixa,
+                                RateLimitProperties.Limite limite,
+                                int maxClientes,
+                                ClientIdResolver clientIdResolver,
+                                ObjectMapper objectMapper,
+                                MeterRegistry registry) {
+        this.faixa = faixa;
+        this.buckets = new TokenBucketTable(limite.getCapacity(), limite.getRefillPerSecond(), maxClientes);
+        this.clientIdResolver = clientIdResolver;
+        this.objectMapper = objectMapper;
+        
+        this.permitidas = Counter.builder("ratelimit.requests").tag("tier", faixa).tag("result", "allowed").register(registry);
+        this.recusadas = Counter.builder("ratelimit.requests").tag("tier", faixa).tag("result", "rejected").register(registry);
+        FunctionCounter.builder("ratelimit.evictions", buckets, TokenBucketTable::despejos)
+                .description("Clientes com fichas consumidas esquecidos por falta de espaço")
+                .tag("tier", faixa)
+                .register(registry);
+        
+        log.info("🚧 Rate limit {}: rajada {} e {}/s por cliente ({} clientes)",
+                faixa, limite.getCapacity(), limite.getRefillPerSecond(), buckets.capacidadeClientes());
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        // Redespacho de requisição assíncrona (SSE, streaming) já foi contado
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        
+        long esperaNanos = buckets.tentar(clientIdResolver.chaveNumerica(request));
+        if (esperaNanos == 0) {
+            permitidas.increment();
+            return true;
+        }
+        
+        recusadas.increment();
+        long segundos = Math.max(1, (esperaNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        log.warn("🚧 Rate limit {} excedido por {} (Retry-After {}s)",
+                faixa, clientIdResolver.resolver(request), segundos);
+        
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getWriter(), AssistantResponse.error(
+                request.getRequestURI(),
+                "Limite de requisições excedido. Tente novamente em " + segundos + "s."));
+        return false;
+    }
+}
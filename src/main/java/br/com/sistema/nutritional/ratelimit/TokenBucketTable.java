@@ -0,0 +1,125 @@
+package br.com.sistema.nutritional.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets de muitos clientes numa tabela de tamanho fixo, sem locks.
+ *
+ * Cada bucket é um único {@code long}: 22 bits de impressão digital da chave
+ * do cliente e 42 bits com o instante teórico de chegada (GCRA, equivalente
+ * a um token bucket de {@code capacidade} fichas repostas à taxa configurada),
+ * em ticks de 2^16 ns (~65µs, ~9 anos até estourar). Consumir uma ficha é um
+ * compareAndSet nesse {@code long}, sem alocação.
+ *
+ * A tabela é associativa por conjuntos (4 vias): a chave só ocupa as 4
+ * posições do seu conjunto. Cliente novo ocupa uma posição vazia ou a do
+ * bucket mais cheio; bucket já cheio equivale a cliente novo, então só conta
+ * como despejo quando o cliente removido ainda tinha fichas consumidas.
+ *
+ * Chaves diferentes com o mesmo conjunto e a mesma impressão digital dividem
+ * o bucket (probabilidade ~4/2^22 por cliente).
+ *
+ * @author César Augusto
+ * @version 1.0.0
+ */
+public final class TokenBucketTable {
+    
+    private static final int VIAS = 4;
+    private static final int BITS_TICK = 16;
+    private static final int BITS_TEMPO = 42;
+    private static final long MASCARA_TEMPO = (1L << BITS_TEMPO) - 1;
+    
+    private final AtomicLongArray buckets;
+    private final int mascaraConjuntos;
+    private final long origem = System.nanoTime();
+    
+    // Ticks entre duas fichas e folga máxima (capacidade inteira)
+    private final long intervalo;
+    private final long tolerancia;
+    
+    private final LongAdder despejos = new LongAdder();
+    
+    public TokenBucketTable(int capacidade, double reposicaoPorSegundo, int maxClientes) {
+        if (capacidade < 1 || reposicaoPorSegundo <= 0) {
+            throw new IllegalArgumentException("Capacidade e reposição devem ser positivas");
+        }
+        int conjuntos = Integer.highestOneBit(Math.max(1, (maxClientes + VIAS - 1) / VIAS) * 2 - 1);
+        this.buckets = new AtomicLongArray(conjuntos * VIAS);
+        this.mascaraConjuntos = conjuntos - 1;
+        this.intervalo = Math.max(1, Math.round(1e9 / reposicaoPorSegundo / (1L << BITS_TICK)));
+        this.tolerancia = Math.min(intervalo * capacidade, MASCARA_TEMPO >>> 1);
+    }
+    
+    // ==================================
+    // Consome uma ficha: 0 se permitido, senão nanos até a próxima ficha
+    // ==================================
+    public long tentar(long chave) {
+        return tentar(chave, (System.nanoTime() - origem) >>> BITS_TICK);
+    }
+    
+    long tentar(long chave, long agora) {
+        long h = misturar(chave);
+        int base = (int) (h & mascaraConjuntos) * VIAS;
+        long digital = (h >>> BITS_TEMPO) | 1;
+        
+        busca:
+        while (true) {
+            int livre = base;
+            long valorLivre = 0;
+            long menorTempo = Long.MAX_VALUE;
+            for (int i = base; i < base + VIAS; i++) {
+                long bucket = buckets.get(i);
+                if (bucket >>> BITS_TEMPO == digital) {
+                    long espera = consumir(i, bucket, digital, agora);
+                    if (espera >= 0) {
+                        return espera;
+                    }
+                    continue busca;
+                }
+                long tempo = bucket & MASCARA_TEMPO;
+                if (tempo < menorTempo) {
+                    menorTempo = tempo;
+                    livre = i;
+                    valorLivre = bucket;
+                }
+            }
+            
+            // Cliente fora da tabela: bucket novo já com uma ficha consumida
+            if (buckets.compareAndSet(livre, valorLivre, (digital << BITS_TEMPO) | (agora + intervalo))) {
+                if (valorLivre != 0 && menorTempo > agora) {
+                    despejos.increment();
+                }
+                return 0;
+            }
+        }
+    }
+    
+    // -1: o bucket mudou de dono ou de valor no meio, tenta de novo
+    private long consumir(int posicao, long bucket, long digital, long agora) {
+        long chegada = Math.max(bucket & MASCARA_TEMPO, agora) + intervalo;
+        long excesso = chegada - agora - tolerancia;
+        if (excesso > 0) {
+            return excesso << BITS_TICK;
+        }
+        return buckets.compareAndSet(posicao, bucket, (digital << BITS_TEMPO) | chegada) ? 0 : -1;
+    }
+    
+    public long despejos() {
+        return despejos.sum();
+    }
+    
+    public int capacidadeClientes() {
+        return buckets.length();
+    }
+    
+    // Finalizador do MurmurHash3: espalha chaves parecidas por conjuntos e digitais
+    private static long misturar(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb53a5ed8a4c5L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,231 @@
+package br.com.sistema.nutritional.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import br.com.sistema.nutritional.dtos.request.CreatePlanoRequest;
+import br.com.sistema.nutritional.dtos.response.AssistantResponse;
+import br.com.sistema.nutritional.mapper.PlanoMapper;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cálculo de planos nutricionais em lote.
+ *
+ * Lê um array JSON ou um stream NDJSON de {@link CreatePlanoRequest},
+ * calcula blocos em paralelo (todos os núcleos) e escreve cada
+ * {@code PlanoResponse} como uma linha NDJSON assim que o bloco termina.
+ * Um bloco fecha quando enche ou quando a entrada não tem mais nada pronto
+ * para ler, então um produtor lento recebe as linhas conforme envia os
+ * registros. Apenas um bloco fica em memória por vez.
+ *
+ * No NDJSON cada linha é lida separadamente: um registro inválido (JSON
+ * quebrado ou campo com tipo errado) vira uma linha de erro e o lote segue
+ * na próxima linha. No array JSON, campo com tipo errado também vira linha
+ * de erro; JSON quebrado encerra o lote, pois não há como achar o próximo
+ * registro.
+ *
+ * @author César Augusto
+ * @version 1.0.0
+ */
+@Service
+@Slf4j
+public class NutritionalPlanBatchService {
+
+    private static final int TAMANHO_BLOCO = 256;
+    private static final int QUEBRA_LINHA = '\n';
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final NutritionalPlanCalculator calculator;
+    private final PlanoMapper planoMapper;
+    private final ObjectReader reader;
+    private final ObjectReader arvoreReader;
+    private final ObjectWriter writer;
+
+    public NutritionalPlanBatchService(NutritionalPlanCalculator calculator,
+                                       PlanoMapper planoMapper,
+                                       ObjectMapper objectMapper) {
+        this.calculator = calculator;
+        this.planoMapper = planoMapper;
+        this.reader = objectMapper.readerFor(CreatePlanoRequest.class);
+        this.arvoreReader = objectMapper.readerFor(JsonNode.class);
+        this.writer = objectMapper.writer();
+    }
+
+    // ==================================
+    // Processa o lote inteiro em streaming, retorna total de registros
+    // ==================================
+    public long calcularLote(InputStream entrada, OutputStream saida) throws IOException {
+        long inicio = System.nanoTime();
+        BufferedInputStream buffer = new BufferedInputStream(entrada, TAMANHO_BUFFER);
+
+        long total = primeiroCaractere(buffer) == '['
+                ? calcularArray(buffer, saida)
+                : calcularNdjson(buffer, saida);
+
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        log.info("📦 Lote concluído: {} planos em {} ms", total, duracaoMs);
+        return total;
+    }
+
+    // ==================================
+    // NDJSON: um registro por linha, erro de uma linha não afeta as outras
+    // ==================================
+    private long calcularNdjson(BufferedInputStream buffer, OutputStream saida) throws IOException {
+        BufferedReader linhas = new BufferedReader(new InputStreamReader(buffer, StandardCharsets.UTF_8));
+        Bloco bloco = new Bloco();
+        long total = 0;
+
+        String linha;
+        while ((linha = linhas.readLine()) != null) {
+            if (linha.isBlank()) {
+                continue;
+            }
+            long indice = total + bloco.tamanho + 1;
+            try {
+                bloco.adicionar(reader.readValue(linha));
+            } catch (JsonProcessingException e) {
+                log.warn("⚠️ Registro {} do lote inválido: {}", indice, e.getOriginalMessage());
+                bloco.adicionarErro("JSON inválido: " + e.getOriginalMessage());
+            }
+            if (bloco.cheio() || !linhas.ready()) {
+                total += escrever(bloco, total, saida);
+            }
+        }
+        return total + escrever(bloco, total, saida);
+    }
+
+    // ==================================
+    // Array JSON: registros lidos como árvore e convertidos um a um
+    // ==================================
+    private long calcularArray(BufferedInputStream buffer, OutputStream saida) throws IOException {
+        Bloco bloco = new Bloco();
+        long total = 0;
+
+        try (MappingIterator<JsonNode> registros = arvoreReader.readValues(buffer)) {
+            while (registros.hasNextValue()) {
+                JsonNode registro = registros.nextValue();
+                try {
+                    bloco.adicionar(reader.readValue(registro));
+                } catch (JsonProcessingException e) {
+                    log.warn("⚠️ Registro {} do lote inválido: {}", total + bloco.tamanho + 1, e.getOriginalMessage());
+                    bloco.adicionarErro("JSON inválido: " + e.getOriginalMessage());
+                }
+                if (bloco.cheio() || buffer.available() == 0) {
+                    total += escrever(bloco, total, saida);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            total += escrever(bloco, total, saida);
+            log.warn("⚠️ JSON malformado no lote após {} planos: {}", total, e.getOriginalMessage());
+            saida.write(writer.writeValueAsBytes(AssistantResponse.error(
+                    "Registro " + (total + 1),
+                    "JSON inválido: " + e.getOriginalMessage())));
+            saida.write(QUEBRA_LINHA);
+            saida.flush();
+            return total;
+        }
+        return total + escrever(bloco, total, saida);
+    }
+
+    // ==================================
+    // Calcula o bloco em paralelo, escreve as linhas em ordem e esvazia o bloco
+    // ==================================
+    private int escrever(Bloco bloco, long deslocamento, OutputStream saida) throws IOException {
+        int tamanho = bloco.tamanho;
+        if (tamanho == 0) {
+            return 0;
+        }
+
+        IntStream.range(0, tamanho)
+                .parallel()
+                .forEach(i -> bloco.linhas[i] = calcularLinha(bloco.requests[i], bloco.erros[i], deslocamento + i + 1));
+
+        for (int i = 0; i < tamanho; i++) {
+            saida.write(bloco.linhas[i]);
+            saida.write(QUEBRA_LINHA);
+        }
+        saida.flush();
+        bloco.limpar();
+        return tamanho;
+    }
+
+    private byte[] calcularLinha(CreatePlanoRequest request, String erro, long indice) {
+        try {
+            if (erro != null) {
+                return writer.writeValueAsBytes(AssistantResponse.error("Registro " + indice, erro));
+            }
+            if (request == null || !request.isValid()) {
+                return writer.writeValueAsBytes(AssistantResponse.error(
+                        "Registro " + indice,
+                        "Dados inválidos. Verifique os campos obrigatórios."));
+            }
+
+            return writer.writeValueAsBytes(planoMapper.toResponse(calculator.calcularPlano(
+                    request.nome(),
+                    request.idade(),
+                    request.pesoAtual(),
+                    request.objetivo(),
+                    request.intensidadeExercicio())));
+
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Primeiro caractere fora de espaços, sem consumi-lo ('[' = array JSON)
+    private static int primeiroCaractere(BufferedInputStream buffer) throws IOException {
+        while (true) {
+            buffer.mark(1);
+            int b = buffer.read();
+            if (b == -1 || !Character.isWhitespace(b)) {
+                buffer.reset();
+                return b;
+            }
+        }
+    }
+
+    // Registros lidos (ou o erro de leitura de cada um) e as linhas calculadas
+    private static final class Bloco {
+
+        private final CreatePlanoRequest[] requests = new CreatePlanoRequest[TAMANHO_BLOCO];
+        private final String[] erros = new String[TAMANHO_BLOCO];
+        private final byte[][] linhas = new byte[TAMANHO_BLOCO][];
+        private int tamanho;
+
+        void adicionar(CreatePlanoRequest request) {
+            requests[tamanho++] = request;
+        }
+
+        void adicionarErro(String erro) {
+            erros[tamanho++] = erro;
+        }
+
+        boolean cheio() {
+            return tamanho == TAMANHO_BLOCO;
+        }
+
+        void limpar() {
+            Arrays.fill(requests, 0, tamanho, null);
+            Arrays.fill(erros, 0, tamanho, null);
+            Arrays.fill(linhas, 0, tamanho, null);
+            tamanho = 0;
+        }
+    }
+}
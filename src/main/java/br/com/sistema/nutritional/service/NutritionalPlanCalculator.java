@@ -0,0 +1,172 @@
+package br.com.sistema.nutritional.service;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import br.com.sistema.nutritional.models.IntensidadeExercicio;
+import br.com.sistema.nutritional.models.Objetivo;
+import br.com.sistema.nutritional.models.PlanoNutricional;
+
+/**
+ * Motor de cálculo do plano nutricional.
+ *
+ * Concentra as fórmulas (TMB, GET, calorias por objetivo e macronutrientes)
+ * sem depender do LLM, permitindo que o endpoint /calcular e as tools
+ * compartilhem exatamente a mesma lógica.
+ *
+ * @author César Augusto
+ * @version 1.0.0
+ */
+@Component
+public class NutritionalPlanCalculator {
+
+    // Constantes para cálculos
+    private static final double TMB_HOMEM_PESO = 13.75;
+    private static final double TMB_HOMEM_ALTURA = 5.003;
+    private static final double TMB_HOMEM_IDADE = 6.755;
+    private static final double TMB_HOMEM_BASE = 66.47;
+    private static final double ALTURA_ESTIMADA = 170.0;
+
+    // Tabelas indexadas pelo ordinal dos enums (IntensidadeExercicio / Objetivo)
+    private static final double[] FATOR_ATIVIDADE = {1.2, 1.375, 1.55, 1.725, 1.9};
+    private static final double[] FATOR_OBJETIVO = {
+            0.85,  // Emagrecimento: -15%
+            1.15,  // Ganho de massa: +15%
+            1.0};  // Manutenção: 0%
+    private static final double[] PROTEINAS_POR_KG = {
+            2.0,   // Maior proteína para preservar músculo
+            2.2,   // Alta proteína para construir
+            1.6};  // Proteína moderada
+    private static final List<List<String>> RECOMENDACOES = List.of(
+            List.of(
+                    "Combine déficit calórico com treino de força para preservar músculos",
+                    "Proteína em todas as refeições para aumentar a saciedade",
+                    "Priorize carboidratos de baixo índice glicêmico e vegetais",
+                    "Beba 2-3 litros de água por dia"),
+            List.of(
+                    "Superávit moderado + treino pesado = ganhos de qualidade",
+                    "Distribua a proteína ao longo do dia",
+                    "Carboidratos antes e depois do treino",
+                    "Durma 7-9h por noite para recuperação"),
+            List.of(
+                    "Consistência é a chave para manter seus resultados",
+                    "Dieta balanceada e variada, com foco em alimentos naturais",
+                    "Flexibilidade 80/20 (80% saudável)",
+                    "Hidratação adequada ao longo do dia"));
+
+    // Distribuição de macronutrientes
+    private static final double PERCENTUAL_GORDURAS = 0.27;
+    private static final int KCAL_POR_GRAMA_PROTEINA = 4;
+    private static final int KCAL_POR_GRAMA_CARBOIDRATO = 4;
+    private static final int KCAL_POR_GRAMA_GORDURA = 9;
+
+    // ==================================
+    // Distribuição de macros em gramas e kcal
+    // ==================================
+    public record DistribuicaoMacros(
+            int proteinas,
+            int caloriasProteinas,
+            int carboidratos,
+            int caloriasCarboidratos,
+            int gorduras,
+            int caloriasGorduras) {
+
+        public PlanoNutricional.Macronutrientes toMacronutrientes() {
+            return new PlanoNutricional.Macronutrientes(proteinas, carboidratos, gorduras);
+        }
+    }
+
+    // ==================================
+    // Calcula plano completo sem passar pelo LLM
+    // ==================================
+    public PlanoNutricional calcularPlano(String nome, int idade, double peso,
+                                          Objetivo objetivo, IntensidadeExercicio intensidadeExercicio) {
+        double tmb = calcularTMB(idade, peso);
+        double get = calcularGET(tmb, intensidadeExercicio);
+        int calorias = calcularCalorias(get, objetivo);
+        DistribuicaoMacros macros = calcularMacros(calorias, peso, objetivo);
+
+        return PlanoNutricional.builder()
+                .nome(nome)
+                .idade(idade)
+                .pesoAtual(peso)
+                .tmb(arredondar(tmb))
+                .get(arredondar(get))
+                .calorias(calorias)
+                .macros(macros.toMacronutrientes())
+                .recomendacoes(obterRecomendacoes(objetivo))
+                .objetivo(objetivo.getCodigo())
+                .intensidadeExercicio(intensidadeExercicio.getCodigo())
+                .build();
+    }
+
+    // ==================================
+    // Taxa Metabólica Basal (Harris-Benedict, altura estimada em 170cm)
+    // ==================================
+    public double calcularTMB(int idade, double peso) {
+        return TMB_HOMEM_BASE
+                + (TMB_HOMEM_PESO * peso)
+                + (TMB_HOMEM_ALTURA * ALTURA_ESTIMADA)
+                - (TMB_HOMEM_IDADE * idade);
+    }
+
+    // ==================================
+    // Gasto Energético Total
+    // ==================================
+    public double calcularGET(double tmb, IntensidadeExercicio intensidadeExercicio) {
+        return tmb * obterFatorAtividade(intensidadeExercicio);
+    }
+
+    // ==================================
+    // Calorias diárias ajustadas ao objetivo
+    // ==================================
+    public int calcularCalorias(double get, Objetivo objetivo) {
+        return (int) Math.round(get * obterFatorObjetivo(objetivo));
+    }
+
+    // ==================================
+    // Distribuição de macronutrientes
+    // ==================================
+    public DistribuicaoMacros calcularMacros(int calorias, double peso, Objetivo objetivo) {
+        // Proteínas baseadas no objetivo e peso
+        int proteinas = (int) Math.round(peso * obterProteinasPorKg(objetivo));
+        int caloriasProteinas = proteinas * KCAL_POR_GRAMA_PROTEINA;
+
+        // Gorduras (27% das calorias totais)
+        int caloriasGorduras = (int) Math.round(calorias * PERCENTUAL_GORDURAS);
+        int gorduras = caloriasGorduras / KCAL_POR_GRAMA_GORDURA;
+
+        // Resto vai para carboidratos
+        int caloriasCarboidratos = calorias - caloriasProteinas - caloriasGorduras;
+        int carboidratos = caloriasCarboidratos / KCAL_POR_GRAMA_CARBOIDRATO;
+
+        return new DistribuicaoMacros(
+                proteinas, caloriasProteinas,
+                carboidratos, caloriasCarboidratos,
+                gorduras, caloriasGorduras);
+    }
+
+    // ==================================
+    // Fatores e textos por enum (acesso direto à tabela)
+    // ==================================
+    public double obterFatorAtividade(IntensidadeExercicio intensidade) {
+        return FATOR_ATIVIDADE[intensidade.ordinal()];
+    }
+
+    public double obterFatorObjetivo(Objetivo objetivo) {
+        return FATOR_OBJETIVO[objetivo.ordinal()];
+    }
+
+    public double obterProteinasPorKg(Objetivo objetivo) {
+        return PROTEINAS_POR_KG[objetivo.ordinal()];
+    }
+
+    public List<String> obterRecomendacoes(Objetivo objetivo) {
+        return RECOMENDACOES.get(objetivo.ordinal());
+    }
+
+    private double arredondar(double valor) {
+        return Math.round(valor * 100.0) / 100.0;
+    }
+}
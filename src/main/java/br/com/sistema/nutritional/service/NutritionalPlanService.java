@@ -1,36 +1,269 @@
 package br.com.sistema.nutritional.service;
 
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
 import org.springframework.stereotype.Service;
 
+import br.com.sistema.nutritional.budget.TokenBudgetExceededException;
+import br.com.sistema.nutritional.budget.TokenBudgetService;
+import br.com.sistema.nutritional.cache.SemanticResponseCache;
+import br.com.sistema.nutritional.cache.SingleFlight;
+import br.com.sistema.nutritional.config.CoalescingProperties;
+import br.com.sistema.nutritional.config.LLMProperties;
+import br.com.sistema.nutritional.intent.LocalIntentRouter;
+import br.com.sistema.nutritional.llm.LLMCapacityException;
+import br.com.sistema.nutritional.llm.LLMProvider;
+import br.com.sistema.nutritional.memory.ConversationMemoryStore;
+import br.com.sistema.nutritional.models.PlanoNutricional;
+import dev.langchain4j.service.MemoryId;
+import dev.langchain4j.service.Result;
+import dev.langchain4j.service.TokenStream;
+import dev.langchain4j.service.UserMessage;
+import dev.langchain4j.service.memory.ChatMemoryAccess;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
 @Slf4j
 public class NutritionalPlanService {
     
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+    
     private final NutritionalAiService aiService;
+    private final SemanticResponseCache responseCache;
+    private final TokenBudgetService tokenBudget;
+    private final ConversationMemoryStore memoryStore;
+    private final LocalIntentRouter intentRouter;
+    
+    // Separa cache semântico e coalescência por provider/modelo
+    private final String modelos;
+    
+    // Mensagens avulsas idênticas em andamento: uma chamada ao LLM para todas
+    private final SingleFlight<Result<String>> chamadasEmAndamento;
+    private final boolean coalescer;
+    private final Counter chamadasProprias;
+    private final Counter chamadasCompartilhadas;
+    
+    // Chamadas ao LLM por mensagem (1 + uma por rodada de tool calls)
+    private final DistributionSummary rodadasPorRequisicao;
     
-    public NutritionalPlanService(NutritionalAiService aiService) {
+    public NutritionalPlanService(NutritionalAiService aiService,
+                                  SemanticResponseCache responseCache,
+                                  LLMProvider llmProvider,
+                                  LLMProperties llmProperties,
+                                  TokenBudgetService tokenBudget,
+                                  ConversationMemoryStore memoryStore,
+                                  LocalIntentRouter intentRouter,
+                                  CoalescingProperties coalescingProperties,
+                                  MeterRegistry registry) {
         this.aiService = aiService;
+        this.responseCache = responseCache;
+        this.tokenBudget = tokenBudget;
+        this.memoryStore = memoryStore;
+        this.intentRouter = intentRouter;
+        this.modelos = modelos(llmProperties, llmProvider);
+        this.rodadasPorRequisicao = DistributionSummary.builder("llm.round.trips")
+                .description("Chamadas ao LLM por mensagem do chat")
+                .serviceLevelObjectives(1, 2, 3, 5, 8)
+                .register(registry);
+        
+        this.chamadasEmAndamento = new SingleFlight<>(coalescingProperties.getMaxWait());
+        this.coalescer = coalescingProperties.isEnabled();
+        this.chamadasProprias = Counter.builder("chat.coalescing.requests").tag("result", "leader").register(registry);
+        this.chamadasCompartilhadas = Counter.builder("chat.coalescing.requests").tag("result", "shared").register(registry);
+        Gauge.builder("chat.coalescing.ratio", this, NutritionalPlanService::taxaCompartilhada)
+                .description("Proporção de chamadas ao LLM atendidas por uma chamada idêntica em andamento")
+                .register(registry);
+        Gauge.builder("chat.coalescing.inflight", chamadasEmAndamento, SingleFlight::emAndamento)
+                .register(registry);
+    }
+    
+    // ==================================
+    // Memória da conversa: por cliente + conversationId; sem conversationId a
+    // mensagem é avulsa e usa uma memória efêmera descartada ao final
+    // ==================================
+    public String memoriaId(String clienteId, String conversationId) {
+        if (conversationId == null || conversationId.isBlank()) {
+            return ConversationMemoryStore.idEfemero();
+        }
+        return ConversationMemoryStore.id(clienteId, conversationId);
+    }
+    
+    // Tokens do histórico que vão junto com a próxima mensagem
+    public int tokensHistorico(String memoriaId) {
+        return memoryStore.tokens(memoriaId);
     }
     
-    public String processMessage(String userMessage) {
+    public void encerrar(String memoriaId) {
+        if (ConversationMemoryStore.efemera(memoriaId)) {
+            aiService.evictChatMemory(memoriaId);
+        }
+    }
+    
+    // Pedidos de cálculo reconhecidos localmente dispensam o LLM (e o orçamento de tokens)
+    public Optional<String> responderLocal(String memoriaId, String userMessage) {
+        return intentRouter.responder(memoriaId, !ConversationMemoryStore.efemera(memoriaId), userMessage);
+    }
+    
+    public String processMessage(String clienteId, String conversationId, String userMessage) {
+        String memoriaId = memoriaId(clienteId, conversationId);
+        boolean avulsa = ConversationMemoryStore.efemera(memoriaId);
         try {
             log.info("📩 Processando mensagem Nutritional Plan");
             log.info("   Mensagem: {}", userMessage.substring(0, Math.min(80, userMessage.length())));
             
-            String response = aiService.chat(userMessage);
+            Optional<String> local = responderLocal(memoriaId, userMessage);
+            if (local.isPresent()) {
+                return local.get();
+            }
             
-            log.info("✅ Resposta gerada com sucesso");
-            return response;
+            // Com histórico a resposta depende da conversa: não consulta nem alimenta o cache
+            SemanticResponseCache.Consulta consulta = null;
+            if (avulsa) {
+                consulta = responseCache.consultar(modelos, userMessage);
+                if (consulta.hit().isPresent()) {
+                    return consulta.hit().get();
+                }
+            }
+            
+            // Recusa antes de chamar o provider se a estimativa não couber no orçamento
+            TokenBudgetService.Reserva reserva =
+                    tokenBudget.reservar(clienteId, userMessage, tokensHistorico(memoriaId));
+            Result<String> resultado;
+            boolean compartilhada = false;
+            try {
+                SemanticResponseCache.Consulta consultaCache = consulta;
+                if (avulsa && coalescer) {
+                    SingleFlight.Resposta<Result<String>> resposta = chamadasEmAndamento.executar(
+                            chaveCoalescencia(userMessage),
+                            () -> chamadaCompartilhada(userMessage, consultaCache));
+                    resultado = resposta.valor();
+                    compartilhada = resposta.compartilhada();
+                    (compartilhada ? chamadasCompartilhadas : chamadasProprias).increment();
+                } else {
+                    resultado = chamarLLM(memoriaId, userMessage, consultaCache);
+                }
+            } catch (Exception e) {
+                tokenBudget.liberar(reserva);
+                throw e;
+            }
             
+            // Só quem fez a chamada paga os tokens; as demais devolvem a reserva
+            if (compartilhada) {
+                tokenBudget.liberar(reserva);
+                log.info("🔗 Resposta compartilhada com chamada idêntica em andamento");
+            } else {
+                tokenBudget.registrar(reserva, resultado.tokenUsage());
+            }
+            
+            log.info("✅ Resposta gerada com sucesso");
+            return resultado.content();
+        
+        } catch (LLMCapacityException | TokenBudgetExceededException e) {
+            // Sobrecarga e orçamento esgotado não viram texto de resposta: o controller devolve 503/429
+            log.warn("🚦 {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("❌ Erro ao processar mensagem", e);
             return "Erro ao processar requisição: " + e.getMessage();
+        } finally {
+            encerrar(memoriaId);
         }
     }
     
-    public interface NutritionalAiService {
-        String chat(String userMessage);
+    public double taxaCompartilhada() {
+        double compartilhadas = chamadasCompartilhadas.count();
+        double total = compartilhadas + chamadasProprias.count();
+        return total == 0 ? 0.0 : compartilhadas / total;
+    }
+    
+    // Chamada ao LLM; na coalescência roda na thread do SingleFlight, uma vez para todos
+    private Result<String> chamarLLM(String memoriaId, String userMessage,
+                                     SemanticResponseCache.Consulta consulta) {
+        Result<String> resultado = aiService.chat(memoriaId, userMessage);
+        rodadasPorRequisicao.record(resultado.intermediateResponses().size() + 1);
+        // Resposta que passou por tools foi calculada com os dados desta conversa
+        if (consulta != null && resultado.toolExecutions().isEmpty()) {
+            responseCache.armazenar(consulta, resultado.content());
+        }
+        return resultado;
+    }
+    
+    // Memória efêmera própria: a chamada continua se quem a iniciou desistir
+    private Result<String> chamadaCompartilhada(String userMessage, SemanticResponseCache.Consulta consulta) {
+        String memoriaId = ConversationMemoryStore.idEfemero();
+        try {
+            return chamarLLM(memoriaId, userMessage, consulta);
+        } finally {
+            encerrar(memoriaId);
+        }
+    }
+    
+    // Mesmo provider/modelo e mesma mensagem, ignorando caixa e espaços
+    private String chaveCoalescencia(String userMessage) {
+        String normalizada = ESPACOS.matcher(userMessage.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        return modelos + '\u0000' + normalizada;
+    }
+    
+    // Com llm.endpoints o nome do balanceador não diz quais modelos respondem:
+    // a chave é a lista ordenada provider/modelo dos endpoints configurados
+    private static String modelos(LLMProperties llmProperties, LLMProvider llmProvider) {
+        if (llmProperties.getEndpoints().isEmpty()) {
+            return llmProvider.getProviderName();
+        }
+        return llmProperties.getEndpoints().stream()
+                .map(e -> String.valueOf(e.getProvider()).toLowerCase(Locale.ROOT) + '/' + llmProperties.modeloDe(e))
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+    
+    // ==================================
+    // Versão em streaming: tokens chegam conforme o LLM gera
+    // (quem chama encerra a memória ao fim do stream)
+    // ==================================
+    public TokenStream processMessageStream(String memoriaId, String userMessage) {
+        log.info("🌊 Processando mensagem Nutritional Plan (streaming)");
+        log.info("   Mensagem: {}", userMessage.substring(0, Math.min(80, userMessage.length())));
+        
+        return aiService.chatStream(memoriaId, userMessage);
+    }
+    
+    // ==================================
+    // Pede ao LLM apenas o texto explicativo de um plano já calculado
+    // ==================================
+    public String gerarNarrativa(String clienteId, PlanoNutricional plano) {
+        String prompt = String.format(
+                "Explique de forma clara e motivadora o plano nutricional abaixo, já calculado. " +
+                "NÃO refaça os cálculos nem chame tools, apenas explique os números e dê orientações. " +
+                "Paciente: %s, %d anos, %.1fkg, objetivo %s, exercícios %s. " +
+                "TMB: %.0f kcal, GET: %.0f kcal, calorias: %d kcal/dia, " +
+                "proteínas: %dg, carboidratos: %dg, gorduras: %dg.",
+                plano.getNome(),
+                plano.getIdade(),
+                plano.getPesoAtual(),
+                plano.getObjetivo(),
+                plano.getIntensidadeExercicio(),
+                plano.getTmb(),
+                plano.getGet(),
+                plano.getCalorias(),
+                plano.getMacros().getProteinas(),
+                plano.getMacros().getCarboidratos(),
+                plano.getMacros().getGorduras()
+        );
+        
+        return processMessage(clienteId, null, prompt);
+    }
+    
+    public interface NutritionalAiService extends ChatMemoryAccess {
+        Result<String> chat(@MemoryId String memoriaId, @UserMessage String userMessage);
+        
+        TokenStream chatStream(@MemoryId String memoriaId, @UserMessage String userMessage);
     }
 }
\ No newline at end of file
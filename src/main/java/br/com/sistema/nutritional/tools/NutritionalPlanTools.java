@@ -1,30 +1,382 @@
 package br.com.sistema.nutritional.tools;
 
+import static br.com.sistema.nutritional.tools.ResultadoCompacto.arredondar;
+import static br.com.sistema.nutritional.tools.ResultadoCompacto.json;
+
+import java.util.Arrays;
+import java.util.List;
+
+import br.com.sistema.nutritional.cache.LongKeyLruCache;
+import br.com.sistema.nutritional.models.IntensidadeExercicio;
+import br.com.sistema.nutritional.models.Objetivo;
+import br.com.sistema.nutritional.models.PlanoNutricional;
+import br.com.sistema.nutritional.service.NutritionalPlanCalculator;
+import br.com.sistema.nutritional.service.NutritionalPlanCalculator.DistribuicaoMacros;
 import dev.langchain4j.agent.tool.Tool;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 @Slf4j
 public class NutritionalPlanTools {
     
-    // Constantes para cálculos
-    private static final double TMB_HOMEM_PESO = 13.75;
-    private static final double TMB_HOMEM_ALTURA = 5.003;
-    private static final double TMB_HOMEM_IDADE = 6.755;
-    private static final double TMB_HOMEM_BASE = 66.47;
+    // Tipo do resultado memoizado (byte mais alto da chave)
+    private static final long TIPO_TMB = 1;
+    private static final long TIPO_GET = 2;
+    private static final long TIPO_CALORIAS = 3;
+    private static final long TIPO_MACROS = 4;
+    private static final long TIPO_PLANO = 5;
+    
+    private static final long SEM_CACHE = 0;
+    private static final long LIMITE_32_BITS = 1L << 32;
+    
+    private static final Objetivo[] OBJETIVOS = Objetivo.values();
+    private static final IntensidadeExercicio[] INTENSIDADES = IntensidadeExercicio.values();
+    
+    private static final String OBJETIVO_INVALIDO =
+            "❌ Objetivo inválido. Use emagrecimento, ganho_massa ou manutencao.";
+    private static final String INTENSIDADE_INVALIDA =
+            "❌ Intensidade de exercício inválida. Use sedentario, leve, moderado, intenso ou muito_intenso.";
+    
+    // ==================================
+    // Textos indexados pelo ordinal dos enums
+    // ==================================
+    private static final String[] DESCRICAO_INTENSIDADE = {
+            "Sedentário - Pouca ou nenhuma atividade física",
+            "Leve - Exercícios leves 1-3x por semana",
+            "Moderado - Exercícios moderados 3-5x por semana",
+            "Intenso - Exercícios intensos 6-7x por semana",
+            "Muito Intenso - Exercícios intensos 2x por dia ou trabalho físico pesado"};
+    
+    private static final String[] DESCRICAO_OBJETIVO = {
+            "Emagrecimento - Perda de gordura com déficit calórico de 15%",
+            "Ganho de Massa - Hipertrofia muscular com superávit de 15%",
+            "Manutenção - Manter peso e composição corporal atual"};
+    
+    private static final String[] DICA_OBJETIVO = {
+            "Combine déficit calórico com treino de força para preservar músculos!",
+            "Superávit moderado + treino pesado = ganhos de qualidade!",
+            "Consistência é a chave para manter seus resultados!"};
+    
+    private static final String[] DICAS_MACROS = {
+            """
+            • Proteína em todas as refeições (saciedade)
+            • Carboidratos antes do treino (energia)
+            • Gorduras boas (azeite, abacate, castanhas)
+            • Fibras para saciedade (vegetais)
+            """,
+            """
+            • Proteína distribuída ao longo do dia
+            • Carboidratos antes e depois do treino
+            • Não tenha medo de gorduras boas
+            • Coma de 3 em 3 horas
+            """,
+            """
+            • Dieta balanceada e variada
+            • Foque em alimentos naturais
+            • Flexibilidade: 80/20 rule
+            • Escute seu corpo
+            """};
+    
+    private static final String[] RECOMENDACOES_OBJETIVO = {
+            """
+            🎯 FOCO: Perda de Gordura com Preservação Muscular
+            
+            🍽️ ALIMENTAÇÃO:
+            • Mantenha déficit calórico de 15-20%
+            • Priorize proteínas em todas as refeições
+            • Escolha carboidratos de baixo índice glicêmico
+            • Aumente consumo de vegetais (fibras)
+            • Beba 2-3 litros de água por dia
+            • Evite alimentos ultraprocessados
+            
+            🏋️ TREINO:
+            • Combine treino de força com cardio
+            • Treino de força: 3-4x por semana
+            • Cardio moderado: 2-3x por semana
+            • HIIT: 1-2x por semana (opcional)
+            
+            ⏰ TIMING:
+            • Coma a cada 3-4 horas
+            • Não pule o café da manhã
+            • Jantar mais leve
+            • Evite carboidratos à noite
+            
+            💊 SUPLEMENTAÇÃO (OPCIONAL):
+            • Whey Protein (se não atingir proteína na dieta)
+            • Multivitamínico
+            • Ômega 3
+            • Cafeína pré-treino
+            """,
+            """
+            🎯 FOCO: Hipertrofia Muscular
+            
+            🍽️ ALIMENTAÇÃO:
+            • Mantenha superávit calórico de 10-15%
+            • Consuma 2-2.5g de proteína por kg
+            • Carboidratos são seus aliados (60% das calorias)
+            • Não tenha medo de gorduras boas
+            • Beba 3-4 litros de água por dia
+            • Faça 5-6 refeições por dia
+            
+            🏋️ TREINO:
+            • Treino de força: 4-6x por semana
+            • Foco em exercícios compostos
+            • Progressive overload é essencial
+            • Cardio leve: 1-2x por semana
+            • Descanso adequado: 7-9h de sono
+            
+            ⏰ TIMING:
+            • Refeição pré-treino: 1-2h antes
+            • Refeição pós-treino: até 1h após
+            • Carboidratos antes e depois do treino
+            • Proteína antes de dormir (caseína)
+            
+            💊 SUPLEMENTAÇÃO (OPCIONAL):
+            • Whey Protein
+            • Creatina (5g/dia)
+            • Maltodextrina (pós-treino)
+            • BCAA (durante treino)
+            • Hipercalórico (se dificuldade em comer)
+            """,
+            """
+            🎯 FOCO: Manter Peso e Composição Corporal
+            
+            🍽️ ALIMENTAÇÃO:
+            • Mantenha calorias de manutenção
+            • Dieta balanceada e variada
+            • 40% carboidratos, 30% proteínas, 30% gorduras
+            • Foque em alimentos naturais
+            • Flexibilidade: 80/20 (80% saudável)
+            • Hidratação adequada
+            
+            🏋️ TREINO:
+            • Treino de força: 3-4x por semana
+            • Cardio: 2-3x por semana
+            • Variedade de exercícios
+            • Mantenha consistência
+            
+            ⏰ TIMING:
+            • Flexível, adapte à sua rotina
+            • O mais importante é a consistência
+            • Não pule refeições
+            
+            💊 SUPLEMENTAÇÃO (OPCIONAL):
+            • Multivitamínico
+            • Ômega 3
+            • Vitamina D
+            """};
+    
+    private static final String[] RECOMENDACOES_INTENSIDADE = {
+            """
+            • Comece devagar, aumente intensidade gradualmente
+            • Caminhe 30min por dia para começar
+            • Foco em criar o hábito primeiro
+            """,
+            """
+            • Aumente frequência gradualmente
+            • Adicione 1 dia de treino por mês
+            • Varie os tipos de exercício
+            """,
+            """
+            • Excelente frequência! Mantenha consistência
+            • Varie intensidade durante a semana
+            • 1-2 dias de descanso ativo
+            """,
+            """
+            • Atenção ao overtraining!
+            • Pelo menos 1 dia de descanso completo
+            • Sono de 8-9h é essencial
+            • Considere periodização
+            """,
+            """
+            • CUIDADO: Risco alto de overtraining!
+            • Monitore sinais de fadiga
+            • Sono de 9h+ é obrigatório
+            • Considere acompanhamento profissional
+            • Periodização é essencial
+            """};
+    
+    // Textos de recomendação das 15 combinações objetivo × intensidade
+    static final String[][] RECOMENDACOES = precomputarRecomendacoes();
+    
+    // Ajustes por intensidade como lista, para a saída compacta
+    private static final List<List<String>> AJUSTES_INTENSIDADE = Arrays.stream(RECOMENDACOES_INTENSIDADE)
+            .map(texto -> texto.lines().map(linha -> linha.substring(2)).toList())
+            .toList();
+    
+    // Marca a posição do nome no texto do plano memoizado
+    private static final String MARCADOR_NOME = "\u0000";
+    
+    // ==================================
+    // Templates das respostas (parse único na carga da classe)
+    // ==================================
+    static final TextTemplate TEMPLATE_TMB = TextTemplate.compilar("""
+            ✅ TMB Calculada com Sucesso!
+            
+            📊 Taxa Metabólica Basal (TMB):
+            ━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+            
+            🔢 Valor: %.2f kcal/dia
+            
+            📝 O que é TMB?
+            A Taxa Metabólica Basal é a quantidade mínima de energia
+            (calorias) que seu corpo precisa em repouso absoluto para
+            manter funções vitais como:
+            • Respiração
+            • Circulação sanguínea
+            • Regulação de temperatura
+            • Funções celulares
+            
+            💡 Importante:
+            A TMB representa apenas o gasto em repouso. Para calcular
+            o gasto total diário, é necessário considerar o nível de
+            atividade física (GET - Gasto Energético Total).
+            """);
+    
+    static final TextTemplate TEMPLATE_GET = TextTemplate.compilar("""
+            ✅ GET Calculado com Sucesso!
+            
+            🏃 Gasto Energético Total (GET):
+            ━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+            
+            🔢 Valor: %.2f kcal/dia
+            
+            📊 Cálculo:
+            • TMB: %.2f kcal/dia
+            • Fator de Atividade: %.2f (%s)
+            • GET = TMB × Fator = %.2f kcal/dia
+            
+            📝 O que é GET?
+            O Gasto Energético Total é a soma de:
+            • TMB (gasto em repouso)
+            • Atividade física
+            • Efeito térmico dos alimentos
+            • Termogênese não relacionada a exercício
+            
+            💡 Seu nível de atividade:
+            %s
+            """);
+    
+    static final TextTemplate TEMPLATE_CALORIAS = TextTemplate.compilar("""
+            ✅ Calorias Calculadas com Sucesso!
+            
+            🎯 Calorias Recomendadas:
+            ━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+            
+            🔢 Valor: %d kcal/dia
+            
+            📊 Cálculo:
+            • GET (manutenção): %.0f kcal/dia
+            • Objetivo: %s
+            • Ajuste: %s%d kcal/dia (%.0f%%)
+            • Total: %d kcal/dia
+            
+            📝 Seu Objetivo:
+            %s
+            
+            💡 Dica:
+            %s
+            """);
+    
+    static final TextTemplate TEMPLATE_MACROS = TextTemplate.compilar("""
+            ✅ Macronutrientes Calculados!
+            
+            🍽️ Distribuição de Macronutrientes:
+            ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+            
+            🥩 PROTEÍNAS: %d gramas/dia
+               • %.1fg por kg de peso corporal
+               • %d kcal (%.1f%% das calorias)
+               • Função: Construção e reparação muscular
+            
+            🍞 CARBOIDRATOS: %d gramas/dia
+               • %d kcal (%.1f%% das calorias)
+               • Função: Energia principal para treinos
+            
+            🥑 GORDURAS: %d gramas/dia
+               • %d kcal (%.1f%% das calorias)
+               • Função: Hormônios e absorção de vitaminas
+            
+            📊 Total: %d kcal/dia
+            
+            💡 Dicas de Consumo:
+            %s
+            """);
     
-    // Fatores de atividade física
-    private static final double FATOR_SEDENTARIO = 1.2;
-    private static final double FATOR_LEVE = 1.375;
-    private static final double FATOR_MODERADO = 1.55;
-    private static final double FATOR_INTENSO = 1.725;
-    private static final double FATOR_MUITO_INTENSO = 1.9;
+    static final TextTemplate TEMPLATE_PLANO = TextTemplate.compilar("""
+            ✅ PLANO NUTRICIONAL COMPLETO
+            ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+            
+            👤 DADOS PESSOAIS:
+            • Nome: %s
+            • Idade: %d anos
+            • Peso: %.1f kg
+            • Objetivo: %s
+            • Intensidade: %s
+            
+            📊 CÁLCULOS ENERGÉTICOS:
+            • TMB (Taxa Metabólica Basal): %.0f kcal/dia
+            • GET (Gasto Energético Total): %.0f kcal/dia
+            • Calorias Recomendadas: %d kcal/dia
+            
+            🍽️ MACRONUTRIENTES:
+            • 🥩 Proteínas: %d g/dia (%d kcal)
+            • 🍞 Carboidratos: %d g/dia (%d kcal)
+            • 🥑 Gorduras: %d g/dia (%d kcal)
+            
+            💡 PRÓXIMOS PASSOS:
+            1. Siga as calorias e macros recomendados
+            2. Faça 4-6 refeições por dia
+            3. Beba bastante água (2-4L/dia)
+            4. Durma bem (7-9h por noite)
+            5. Seja consistente!
+            
+            📝 Peça recomendações detalhadas para seu objetivo!
+            """);
     
-    // Ajustes calóricos por objetivo
-    private static final double DEFICIT_EMAGRECIMENTO = 0.85;  // -15%
-    private static final double SUPERAVIT_GANHO_MASSA = 1.15;  // +15%
-    private static final double MANUTENCAO = 1.0;  // 0%
+    private final NutritionalPlanCalculator calculator;
+    private final LongKeyLruCache<Object> cache;
+    
+    // true: JSON compacto para o LLM; false: texto completo (comportamento anterior)
+    private final boolean saidaCompacta;
+    private final String[][] recomendacoesCompactas;
+    
+    public NutritionalPlanTools(NutritionalPlanCalculator calculator,
+                                MeterRegistry registry,
+                                @Value("${tools.cache.max-entries:65536}") int maxEntradas,
+                                @Value("${tools.output.compact:true}") boolean saidaCompacta) {
+        this.calculator = calculator;
+        this.cache = new LongKeyLruCache<>(maxEntradas);
+        this.saidaCompacta = saidaCompacta;
+        this.recomendacoesCompactas = precomputarRecomendacoesCompactas();
+        
+        FunctionCounter.builder("tools.cache.requests", cache, LongKeyLruCache::hits)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("tools.cache.requests", cache, LongKeyLruCache::misses)
+                .tag("result", "miss")
+                .register(registry);
+    }
+    
+    // ==================================
+    // Plano memoizado: números + texto dividido ao redor do nome
+    // ==================================
+    public record PlanoMemoizado(
+            double tmb,
+            double get,
+            int calorias,
+            DistribuicaoMacros macros,
+            String antesDoNome,
+            String depoisDoNome) {
+        
+        String renderizar(String nome) {
+            return antesDoNome.concat(nome).concat(depoisDoNome);
+        }
+    }
     
     // ==================================
     // Calcula Taxa Metabólica Basal (TMB) usando fórmula de Harris-Benedict
@@ -42,45 +394,39 @@ public class NutritionalPlanTools {
                 return "❌ Peso inválido. Deve estar entre 1 e 500 kg.";
             }
             
-            // Fórmula de Harris-Benedict (simplificada para homens)
-            // TMB = 66.47 + (13.75 × peso) + (5.003 × altura) - (6.755 × idade)
-            // Como não temos altura, usamos uma estimativa padrão de 170cm
-            double alturaEstimada = 170.0;
-            
-            double tmb = TMB_HOMEM_BASE 
-                    + (TMB_HOMEM_PESO * peso) 
-                    + (TMB_HOMEM_ALTURA * alturaEstimada) 
-                    - (TMB_HOMEM_IDADE * idade);
-            
-            return String.format("""
-                    ✅ TMB Calculada com Sucesso!
-                    
-                    📊 Taxa Metabólica Basal (TMB):
-                    ━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-                    
-                    🔢 Valor: %.2f kcal/dia
-                    
-                    📝 O que é TMB?
-                    A Taxa Metabólica Basal é a quantidade mínima de energia
-                    (calorias) que seu corpo precisa em repouso absoluto para
-                    manter funções vitais como:
-                    • Respiração
-                    • Circulação sanguínea
-                    • Regulação de temperatura
-                    • Funções celulares
-                    
-                    💡 Importante:
-                    A TMB representa apenas o gasto em repouso. Para calcular
-                    o gasto total diário, é necessário considerar o nível de
-                    atividade física (GET - Gasto Energético Total).
-                    """, tmb);
-            
+            if (saidaCompacta) {
+                return json(new ResultadoCompacto.Tmb(arredondar(calculator.calcularTMB(idade, peso))));
+            }
+            return textoTMB(idade, peso);
+        
         } catch (Exception e) {
             log.error("❌ Erro ao calcular TMB", e);
             return "❌ Erro ao calcular TMB: " + e.getMessage();
         }
     }
     
+    // ==================================
+    // TMB em texto completo, com dados já validados (respostas sem LLM)
+    // ==================================
+    public String textoTMB(int idade, double peso) {
+        // Peso quantizado em 0.1kg para reaproveitar resultados repetidos
+        long pesoDg = Math.round(peso * 10);
+        long chave = TIPO_TMB << 56 | (long) idade << 16 | pesoDg;
+        String memoizado = memoizado(chave);
+        if (memoizado != null) {
+            return memoizado;
+        }
+        
+        // Fórmula de Harris-Benedict (simplificada para homens)
+        // TMB = 66.47 + (13.75 × peso) + (5.003 × altura) - (6.755 × idade)
+        // Como não temos altura, usamos uma estimativa padrão de 170cm
+        double tmb = calculator.calcularTMB(idade, pesoDg / 10.0);
+        
+        return memoizar(chave, TEMPLATE_TMB.novo()
+                .f(tmb)
+                .fim());
+    }
+    
     // ==================================
     // Calcula Gasto Energético Total (GET) baseado na TMB e nível de atividade
     // ==================================
@@ -97,41 +443,41 @@ public class NutritionalPlanTools {
                 return "❌ Intensidade de exercício não informada.";
             }
             
-            double fator = obterFatorAtividade(intensidadeExercicio);
-            double get = tmb * fator;
+            IntensidadeExercicio intensidade = IntensidadeExercicio.de(intensidadeExercicio);
+            if (intensidade == null) {
+                return INTENSIDADE_INVALIDA;
+            }
             
-            String descricaoIntensidade = obterDescricaoIntensidade(intensidadeExercicio);
-            
-            return String.format("""
-                    ✅ GET Calculado com Sucesso!
-                    
-                    🏃 Gasto Energético Total (GET):
-                    ━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-                    
-                    🔢 Valor: %.2f kcal/dia
-                    
-                    📊 Cálculo:
-                    • TMB: %.2f kcal/dia
-                    • Fator de Atividade: %.2f (%s)
-                    • GET = TMB × Fator = %.2f kcal/dia
-                    
-                    📝 O que é GET?
-                    O Gasto Energético Total é a soma de:
-                    • TMB (gasto em repouso)
-                    • Atividade física
-                    • Efeito térmico dos alimentos
-                    • Termogênese não relacionada a exercício
-                    
-                    💡 Seu nível de atividade:
-                    %s
-                    """, 
-                    get, 
-                    tmb, 
-                    fator, 
-                    intensidadeExercicio, 
-                    get,
-                    descricaoIntensidade);
+            if (saidaCompacta) {
+                double fator = calculator.obterFatorAtividade(intensidade);
+                return json(new ResultadoCompacto.Get(
+                        arredondar(tmb), intensidade.getCodigo(), fator, arredondar(tmb * fator)));
+            }
             
+            long tmbCentesimos = Math.round(tmb * 100);
+            long chave = tmbCentesimos >= LIMITE_32_BITS
+                    ? SEM_CACHE
+                    : TIPO_GET << 56 | (long) intensidade.ordinal() << 32 | tmbCentesimos;
+            String memoizado = memoizado(chave);
+            if (memoizado != null) {
+                return memoizado;
+            }
+            if (chave != SEM_CACHE) {
+                tmb = tmbCentesimos / 100.0;
+            }
+            
+            double fator = calculator.obterFatorAtividade(intensidade);
+            double get = tmb * fator;
+            
+            return memoizar(chave, TEMPLATE_GET.novo()
+                    .f(get)
+                    .f(tmb)
+                    .f(fator)
+                    .s(intensidade.getCodigo())
+                    .f(get)
+                    .s(DESCRICAO_INTENSIDADE[intensidade.ordinal()])
+                    .fim());
+        
         } catch (Exception e) {
             log.error("❌ Erro ao calcular GET", e);
             return "❌ Erro ao calcular GET: " + e.getMessage();
@@ -154,43 +500,49 @@ public class NutritionalPlanTools {
                 return "❌ Objetivo não informado.";
             }
             
-            double fatorObjetivo = obterFatorObjetivo(objetivo);
-            int calorias = (int) Math.round(get * fatorObjetivo);
+            Objetivo tipo = Objetivo.de(objetivo);
+            if (tipo == null) {
+                return OBJETIVO_INVALIDO;
+            }
+            
+            if (saidaCompacta) {
+                return json(new ResultadoCompacto.Calorias(
+                        arredondar(get),
+                        tipo.getCodigo(),
+                        (int) Math.round((calculator.obterFatorObjetivo(tipo) - 1) * 100),
+                        calculator.calcularCalorias(get, tipo)));
+            }
+            
+            long getCentesimos = Math.round(get * 100);
+            long chave = getCentesimos >= LIMITE_32_BITS
+                    ? SEM_CACHE
+                    : TIPO_CALORIAS << 56 | (long) tipo.ordinal() << 32 | getCentesimos;
+            String memoizado = memoizado(chave);
+            if (memoizado != null) {
+                return memoizado;
+            }
+            if (chave != SEM_CACHE) {
+                get = getCentesimos / 100.0;
+            }
+            
+            double fatorObjetivo = calculator.obterFatorObjetivo(tipo);
+            int calorias = calculator.calcularCalorias(get, tipo);
             
-            String descricaoObjetivo = obterDescricaoObjetivo(objetivo);
             int diferenca = calorias - (int) Math.round(get);
             String sinalDiferenca = diferenca >= 0 ? "+" : "";
             
-            return String.format("""
-                    ✅ Calorias Calculadas com Sucesso!
-                    
-                    🎯 Calorias Recomendadas:
-                    ━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-                    
-                    🔢 Valor: %d kcal/dia
-                    
-                    📊 Cálculo:
-                    • GET (manutenção): %.0f kcal/dia
-                    • Objetivo: %s
-                    • Ajuste: %s%d kcal/dia (%.0f%%)
-                    • Total: %d kcal/dia
-                    
-                    📝 Seu Objetivo:
-                    %s
-                    
-                    💡 Dica:
-                    %s
-                    """, 
-                    calorias,
-                    get,
-                    objetivo,
-                    sinalDiferenca,
-                    diferenca,
-                    (fatorObjetivo - 1) * 100,
-                    calorias,
-                    descricaoObjetivo,
-                    obterDicaObjetivo(objetivo));
-            
+            return memoizar(chave, TEMPLATE_CALORIAS.novo()
+                    .d(calorias)
+                    .f(get)
+                    .s(tipo.getCodigo())
+                    .s(sinalDiferenca)
+                    .d(diferenca)
+                    .f((fatorObjetivo - 1) * 100)
+                    .d(calorias)
+                    .s(DESCRICAO_OBJETIVO[tipo.ordinal()])
+                    .s(DICA_OBJETIVO[tipo.ordinal()])
+                    .fim());
+        
         } catch (Exception e) {
             log.error("❌ Erro ao calcular calorias", e);
             return "❌ Erro ao calcular calorias: " + e.getMessage();
@@ -217,55 +569,62 @@ public class NutritionalPlanTools {
                 return "❌ Objetivo não informado.";
             }
             
-            // Cálculo de proteínas baseado no objetivo e peso
-            double proteinasPorKg = obterProteinasPorKg(objetivo);
-            int proteinas = (int) Math.round(peso * proteinasPorKg);
-            int caloriasProteinas = proteinas * 4; // 4 kcal por grama
+            Objetivo tipo = Objetivo.de(objetivo);
+            if (tipo == null) {
+                return OBJETIVO_INVALIDO;
+            }
+            
+            if (saidaCompacta) {
+                DistribuicaoMacros macros = calculator.calcularMacros(calorias, peso, tipo);
+                return json(new ResultadoCompacto.Macros(
+                        calorias,
+                        calculator.obterProteinasPorKg(tipo),
+                        macros.proteinas(),
+                        macros.carboidratos(),
+                        macros.gorduras()));
+            }
             
-            // Cálculo de gorduras (25-30% das calorias totais)
-            double percentualGorduras = 0.27;
-            int caloriasGorduras = (int) Math.round(calorias * percentualGorduras);
-            int gorduras = caloriasGorduras / 9; // 9 kcal por grama
+            long pesoDg = Math.round(peso * 10);
+            long chave = pesoDg >= (1L << 16)
+                    ? SEM_CACHE
+                    : TIPO_MACROS << 56 | (long) tipo.ordinal() << 48 | (long) calorias << 16 | pesoDg;
+            String memoizado = memoizado(chave);
+            if (memoizado != null) {
+                return memoizado;
+            }
+            if (chave != SEM_CACHE) {
+                peso = pesoDg / 10.0;
+            }
             
-            // Resto vai para carboidratos
-            int caloriasCarboidratos = calorias - caloriasProteinas - caloriasGorduras;
-            int carboidratos = caloriasCarboidratos / 4; // 4 kcal por grama
+            double proteinasPorKg = calculator.obterProteinasPorKg(tipo);
+            DistribuicaoMacros macros = calculator.calcularMacros(calorias, peso, tipo);
+            int proteinas = macros.proteinas();
+            int caloriasProteinas = macros.caloriasProteinas();
+            int carboidratos = macros.carboidratos();
+            int caloriasCarboidratos = macros.caloriasCarboidratos();
+            int gorduras = macros.gorduras();
+            int caloriasGorduras = macros.caloriasGorduras();
             
             // Percentuais
             double percProteinas = (caloriasProteinas * 100.0) / calorias;
             double percCarboidratos = (caloriasCarboidratos * 100.0) / calorias;
             double percGorduras = (caloriasGorduras * 100.0) / calorias;
             
-            return String.format("""
-                    ✅ Macronutrientes Calculados!
-                    
-                    🍽️ Distribuição de Macronutrientes:
-                    ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-                    
-                    🥩 PROTEÍNAS: %d gramas/dia
-                       • %.1fg por kg de peso corporal
-                       • %d kcal (%.1f%% das calorias)
-                       • Função: Construção e reparação muscular
-                    
-                    🍞 CARBOIDRATOS: %d gramas/dia
-                       • %d kcal (%.1f%% das calorias)
-                       • Função: Energia principal para treinos
-                    
-                    🥑 GORDURAS: %d gramas/dia
-                       • %d kcal (%.1f%% das calorias)
-                       • Função: Hormônios e absorção de vitaminas
-                    
-                    📊 Total: %d kcal/dia
-                    
-                    💡 Dicas de Consumo:
-                    %s
-                    """,
-                    proteinas, proteinasPorKg, caloriasProteinas, percProteinas,
-                    carboidratos, caloriasCarboidratos, percCarboidratos,
-                    gorduras, caloriasGorduras, percGorduras,
-                    calorias,
-                    obterDicasMacros(objetivo));
-            
+            return memoizar(chave, TEMPLATE_MACROS.novo()
+                    .d(proteinas)
+                    .f(proteinasPorKg)
+                    .d(caloriasProteinas)
+                    .f(percProteinas)
+                    .d(carboidratos)
+                    .d(caloriasCarboidratos)
+                    .f(percCarboidratos)
+                    .d(gorduras)
+                    .d(caloriasGorduras)
+                    .f(percGorduras)
+                    .d(calorias)
+                    .s(DICAS_MACROS[tipo.ordinal()])
+                    .fim());
+        
         } catch (Exception e) {
             log.error("❌ Erro ao calcular macros", e);
             return "❌ Erro ao calcular macronutrientes: " + e.getMessage();
@@ -284,113 +643,20 @@ public class NutritionalPlanTools {
                 return "❌ Objetivo não informado.";
             }
             
-            StringBuilder recomendacoes = new StringBuilder();
-            recomendacoes.append("💡 Recomendações Personalizadas:\n");
-            recomendacoes.append("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n\n");
-            
-            // Recomendações específicas por objetivo
-            switch (objetivo.toLowerCase()) {
-                case "emagrecimento" -> {
-                    recomendacoes.append("""
-                            🎯 FOCO: Perda de Gordura com Preservação Muscular
-                            
-                            🍽️ ALIMENTAÇÃO:
-                            • Mantenha déficit calórico de 15-20%
-                            • Priorize proteínas em todas as refeições
-                            • Escolha carboidratos de baixo índice glicêmico
-                            • Aumente consumo de vegetais (fibras)
-                            • Beba 2-3 litros de água por dia
-                            • Evite alimentos ultraprocessados
-                            
-                            🏋️ TREINO:
-                            • Combine treino de força com cardio
-                            • Treino de força: 3-4x por semana
-                            • Cardio moderado: 2-3x por semana
-                            • HIIT: 1-2x por semana (opcional)
-                            
-                            ⏰ TIMING:
-                            • Coma a cada 3-4 horas
-                            • Não pule o café da manhã
-                            • Jantar mais leve
-                            • Evite carboidratos à noite
-                            
-                            💊 SUPLEMENTAÇÃO (OPCIONAL):
-                            • Whey Protein (se não atingir proteína na dieta)
-                            • Multivitamínico
-                            • Ômega 3
-                            • Cafeína pré-treino
-                            """);
-                }
-                case "ganho_massa", "ganho de massa" -> {
-                    recomendacoes.append("""
-                            🎯 FOCO: Hipertrofia Muscular
-                            
-                            🍽️ ALIMENTAÇÃO:
-                            • Mantenha superávit calórico de 10-15%
-                            • Consuma 2-2.5g de proteína por kg
-                            • Carboidratos são seus aliados (60% das calorias)
-                            • Não tenha medo de gorduras boas
-                            • Beba 3-4 litros de água por dia
-                            • Faça 5-6 refeições por dia
-                            
-                            🏋️ TREINO:
-                            • Treino de força: 4-6x por semana
-                            • Foco em exercícios compostos
-                            • Progressive overload é essencial
-                            • Cardio leve: 1-2x por semana
-                            • Descanso adequado: 7-9h de sono
-                            
-                            ⏰ TIMING:
-                            • Refeição pré-treino: 1-2h antes
-                            • Refeição pós-treino: até 1h após
-                            • Carboidratos antes e depois do treino
-                            • Proteína antes de dormir (caseína)
-                            
-                            💊 SUPLEMENTAÇÃO (OPCIONAL):
-                            • Whey Protein
-                            • Creatina (5g/dia)
-                            • Maltodextrina (pós-treino)
-                            • BCAA (durante treino)
-                            • Hipercalórico (se dificuldade em comer)
-                            """);
-                }
-                case "manutencao", "manutenção" -> {
-                    recomendacoes.append("""
-                            🎯 FOCO: Manter Peso e Composição Corporal
-                            
-                            🍽️ ALIMENTAÇÃO:
-                            • Mantenha calorias de manutenção
-                            • Dieta balanceada e variada
-                            • 40% carboidratos, 30% proteínas, 30% gorduras
-                            • Foque em alimentos naturais
-                            • Flexibilidade: 80/20 (80% saudável)
-                            • Hidratação adequada
-                            
-                            🏋️ TREINO:
-                            • Treino de força: 3-4x por semana
-                            • Cardio: 2-3x por semana
-                            • Variedade de exercícios
-                            • Mantenha consistência
-                            
-                            ⏰ TIMING:
-                            • Flexível, adapte à sua rotina
-                            • O mais importante é a consistência
-                            • Não pule refeições
-                            
-                            💊 SUPLEMENTAÇÃO (OPCIONAL):
-                            • Multivitamínico
-                            • Ômega 3
-                            • Vitamina D
-                            """);
-                }
-            }
-            
-            // Recomendações adicionais baseadas na intensidade
-            recomendacoes.append("\n📊 AJUSTES POR INTENSIDADE:\n");
-            recomendacoes.append(obterRecomendacoesPorIntensidade(intensidadeExercicio));
-            
-            return recomendacoes.toString();
+            Objetivo tipo = Objetivo.de(objetivo);
+            if (tipo == null) {
+                return OBJETIVO_INVALIDO;
+            }
+            IntensidadeExercicio intensidade = IntensidadeExercicio.de(intensidadeExercicio);
+            if (intensidade == null) {
+                return INTENSIDADE_INVALIDA;
+            }
             
+            // As 15 combinações objetivo × intensidade já estão prontas
+            return saidaCompacta
+                    ? recomendacoesCompactas[tipo.ordinal()][intensidade.ordinal()]
+                    : RECOMENDACOES[tipo.ordinal()][intensidade.ordinal()];
+        
         } catch (Exception e) {
             log.error("❌ Erro ao gerar recomendações", e);
             return "❌ Erro ao gerar recomendações: " + e.getMessage();
@@ -411,65 +677,28 @@ public class NutritionalPlanTools {
                 return "❌ Nome não informado.";
             }
             
-            // Calcular TMB
-            double tmb = calcularTMBNumerico(idade, peso);
-            
-            // Calcular GET
-            double fatorAtividade = obterFatorAtividade(intensidadeExercicio);
-            double get = tmb * fatorAtividade;
-            
-            // Calcular calorias do objetivo
-            double fatorObjetivo = obterFatorObjetivo(objetivo);
-            int calorias = (int) Math.round(get * fatorObjetivo);
-            
-            // Calcular macros
-            double proteinasPorKg = obterProteinasPorKg(objetivo);
-            int proteinas = (int) Math.round(peso * proteinasPorKg);
-            int caloriasProteinas = proteinas * 4;
-            
-            int caloriasGorduras = (int) Math.round(calorias * 0.27);
-            int gorduras = caloriasGorduras / 9;
-            
-            int caloriasCarboidratos = calorias - caloriasProteinas - caloriasGorduras;
-            int carboidratos = caloriasCarboidratos / 4;
-            
-            // Montar resposta completa
-            return String.format("""
-                    ✅ PLANO NUTRICIONAL COMPLETO
-                    ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
-                    
-                    👤 DADOS PESSOAIS:
-                    • Nome: %s
-                    • Idade: %d anos
-                    • Peso: %.1f kg
-                    • Objetivo: %s
-                    • Intensidade: %s
-                    
-                    📊 CÁLCULOS ENERGÉTICOS:
-                    • TMB (Taxa Metabólica Basal): %.0f kcal/dia
-                    • GET (Gasto Energético Total): %.0f kcal/dia
-                    • Calorias Recomendadas: %d kcal/dia
-                    
-                    🍽️ MACRONUTRIENTES:
-                    • 🥩 Proteínas: %d g/dia (%d kcal)
-                    • 🍞 Carboidratos: %d g/dia (%d kcal)
-                    • 🥑 Gorduras: %d g/dia (%d kcal)
-                    
-                    💡 PRÓXIMOS PASSOS:
-                    1. Siga as calorias e macros recomendados
-                    2. Faça 4-6 refeições por dia
-                    3. Beba bastante água (2-4L/dia)
-                    4. Durma bem (7-9h por noite)
-                    5. Seja consistente!
-                    
-                    📝 Peça recomendações detalhadas para seu objetivo!
-                    """,
-                    nome, idade, peso, objetivo, intensidadeExercicio,
-                    tmb, get, calorias,
-                    proteinas, caloriasProteinas,
-                    carboidratos, caloriasCarboidratos,
-                    gorduras, caloriasGorduras);
+            if (idade == null || idade <= 0 || idade > 150) {
+                return "❌ Idade inválida. Deve estar entre 1 e 150 anos.";
+            }
             
+            if (peso == null || peso <= 0 || peso > 500) {
+                return "❌ Peso inválido. Deve estar entre 1 e 500 kg.";
+            }
+            
+            Objetivo tipo = Objetivo.de(objetivo);
+            if (tipo == null) {
+                return OBJETIVO_INVALIDO;
+            }
+            IntensidadeExercicio intensidade = IntensidadeExercicio.de(intensidadeExercicio);
+            if (intensidade == null) {
+                return INTENSIDADE_INVALIDA;
+            }
+            
+            if (saidaCompacta) {
+                return planoCompacto(nome, idade, Math.round(peso * 10) / 10.0, tipo, intensidade);
+            }
+            return textoPlanoCompleto(nome, idade, peso, tipo, intensidade);
+        
         } catch (Exception e) {
             log.error("❌ Erro ao calcular plano completo", e);
             return "❌ Erro ao calcular plano: " + e.getMessage();
@@ -477,141 +706,129 @@ public class NutritionalPlanTools {
     }
     
     // ==================================
-    // MÉTODOS AUXILIARES PRIVADOS
+    // Plano completo em texto, com dados já validados (respostas sem LLM)
     // ==================================
-    
-    private double calcularTMBNumerico(Integer idade, Double peso) {
-        double alturaEstimada = 170.0;
-        return TMB_HOMEM_BASE 
-                + (TMB_HOMEM_PESO * peso) 
-                + (TMB_HOMEM_ALTURA * alturaEstimada) 
-                - (TMB_HOMEM_IDADE * idade);
+    public String textoPlanoCompleto(String nome, int idade, double peso,
+                                     Objetivo objetivo, IntensidadeExercicio intensidade) {
+        return plano(idade, peso, objetivo, intensidade).renderizar(nome);
     }
     
-    private double obterFatorAtividade(String intensidade) {
-        return switch (intensidade.toLowerCase()) {
-            case "sedentario", "sedentário" -> FATOR_SEDENTARIO;
-            case "leve" -> FATOR_LEVE;
-            case "moderado" -> FATOR_MODERADO;
-            case "intenso" -> FATOR_INTENSO;
-            case "muito_intenso", "muito intenso" -> FATOR_MUITO_INTENSO;
-            default -> FATOR_MODERADO;
-        };
+    // ==================================
+    // MÉTODOS AUXILIARES PRIVADOS
+    // ==================================
+    
+    // Números do plano memoizado no modelo de domínio (recomendações ficam em gerarRecomendacoes)
+    private String planoCompacto(String nome, int idade, double peso,
+                                 Objetivo objetivo, IntensidadeExercicio intensidade) {
+        PlanoMemoizado plano = plano(idade, peso, objetivo, intensidade);
+        return json(PlanoNutricional.builder()
+                .nome(nome)
+                .idade(idade)
+                .pesoAtual(peso)
+                .objetivo(objetivo.getCodigo())
+                .intensidadeExercicio(intensidade.getCodigo())
+                .tmb(arredondar(plano.tmb()))
+                .get(arredondar(plano.get()))
+                .calorias(plano.calorias())
+                .macros(plano.macros().toMacronutrientes())
+                .build());
     }
     
-    private double obterFatorObjetivo(String objetivo) {
-        return switch (objetivo.toLowerCase()) {
-            case "emagrecimento" -> DEFICIT_EMAGRECIMENTO;
-            case "ganho_massa", "ganho de massa" -> SUPERAVIT_GANHO_MASSA;
-            case "manutencao", "manutenção" -> MANUTENCAO;
-            default -> MANUTENCAO;
-        };
+    private PlanoMemoizado plano(int idade, double peso, Objetivo objetivo, IntensidadeExercicio intensidade) {
+        // Peso quantizado em 0.1kg
+        long pesoDg = Math.round(peso * 10);
+        long chave = TIPO_PLANO << 56
+                | (long) objetivo.ordinal() << 48
+                | (long) intensidade.ordinal() << 40
+                | (long) idade << 16
+                | pesoDg;
+        
+        PlanoMemoizado plano = (PlanoMemoizado) cache.get(chave);
+        if (plano == null) {
+            plano = montarPlano(idade, pesoDg / 10.0, objetivo, intensidade);
+            cache.put(chave, plano);
+        }
+        return plano;
     }
     
-    private double obterProteinasPorKg(String objetivo) {
-        return switch (objetivo.toLowerCase()) {
-            case "emagrecimento" -> 2.0;  // Maior proteína para preservar músculo
-            case "ganho_massa", "ganho de massa" -> 2.2;  // Alta proteína para construir
-            case "manutencao", "manutenção" -> 1.6;  // Proteína moderada
-            default -> 1.6;
-        };
+    private String memoizado(long chave) {
+        return chave == SEM_CACHE ? null : (String) cache.get(chave);
     }
     
-    private String obterDescricaoIntensidade(String intensidade) {
-        return switch (intensidade.toLowerCase()) {
-            case "sedentario", "sedentário" -> 
-                "Sedentário - Pouca ou nenhuma atividade física";
-            case "leve" -> 
-                "Leve - Exercícios leves 1-3x por semana";
-            case "moderado" -> 
-                "Moderado - Exercícios moderados 3-5x por semana";
-            case "intenso" -> 
-                "Intenso - Exercícios intensos 6-7x por semana";
-            case "muito_intenso", "muito intenso" -> 
-                "Muito Intenso - Exercícios intensos 2x por dia ou trabalho físico pesado";
-            default -> "Moderado";
-        };
+    private String memoizar(long chave, String resultado) {
+        if (chave != SEM_CACHE) {
+            cache.put(chave, resultado);
+        }
+        return resultado;
     }
     
-    private String obterDescricaoObjetivo(String objetivo) {
-        return switch (objetivo.toLowerCase()) {
-            case "emagrecimento" -> 
-                "Emagrecimento - Perda de gordura com déficit calórico de 15%";
-            case "ganho_massa", "ganho de massa" -> 
-                "Ganho de Massa - Hipertrofia muscular com superávit de 15%";
-            case "manutencao", "manutenção" -> 
-                "Manutenção - Manter peso e composição corporal atual";
-            default -> "Manutenção";
-        };
+    private static String[][] precomputarRecomendacoes() {
+        String[][] textos = new String[OBJETIVOS.length][INTENSIDADES.length];
+        for (Objetivo objetivo : OBJETIVOS) {
+            for (IntensidadeExercicio intensidade : INTENSIDADES) {
+                textos[objetivo.ordinal()][intensidade.ordinal()] = montarRecomendacoes(objetivo, intensidade);
+            }
+        }
+        return textos;
     }
     
-    private String obterDicaObjetivo(String objetivo) {
-        return switch (objetivo.toLowerCase()) {
-            case "emagrecimento" -> 
-                "Combine déficit calórico com treino de força para preservar músculos!";
-            case "ganho_massa", "ganho de massa" -> 
-                "Superávit moderado + treino pesado = ganhos de qualidade!";
-            case "manutencao", "manutenção" -> 
-                "Consistência é a chave para manter seus resultados!";
-            default -> "Seja consistente e os resultados virão!";
-        };
+    private String[][] precomputarRecomendacoesCompactas() {
+        String[][] textos = new String[OBJETIVOS.length][INTENSIDADES.length];
+        for (Objetivo objetivo : OBJETIVOS) {
+            for (IntensidadeExercicio intensidade : INTENSIDADES) {
+                textos[objetivo.ordinal()][intensidade.ordinal()] = json(new ResultadoCompacto.Recomendacoes(
+                        objetivo.getCodigo(),
+                        intensidade.getCodigo(),
+                        calculator.obterRecomendacoes(objetivo),
+                        AJUSTES_INTENSIDADE.get(intensidade.ordinal())));
+            }
+        }
+        return textos;
     }
     
-    private String obterDicasMacros(String objetivo) {
-        return switch (objetivo.toLowerCase()) {
-            case "emagrecimento" -> """
-                • Proteína em todas as refeições (saciedade)
-                • Carboidratos antes do treino (energia)
-                • Gorduras boas (azeite, abacate, castanhas)
-                • Fibras para saciedade (vegetais)
-                """;
-            case "ganho_massa", "ganho de massa" -> """
-                • Proteína distribuída ao longo do dia
-                • Carboidratos antes e depois do treino
-                • Não tenha medo de gorduras boas
-                • Coma de 3 em 3 horas
-                """;
-            case "manutencao", "manutenção" -> """
-                • Dieta balanceada e variada
-                • Foque em alimentos naturais
-                • Flexibilidade: 80/20 rule
-                • Escute seu corpo
-                """;
-            default -> "Consulte um nutricionista para orientação personalizada!";
-        };
+    static String montarRecomendacoes(Objetivo objetivo, IntensidadeExercicio intensidade) {
+        return "💡 Recomendações Personalizadas:\n"
+                + "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n\n"
+                + RECOMENDACOES_OBJETIVO[objetivo.ordinal()]
+                + "\n📊 AJUSTES POR INTENSIDADE:\n"
+                + RECOMENDACOES_INTENSIDADE[intensidade.ordinal()];
     }
     
-    private String obterRecomendacoesPorIntensidade(String intensidade) {
-        return switch (intensidade.toLowerCase()) {
-            case "sedentario", "sedentário" -> """
-                • Comece devagar, aumente intensidade gradualmente
-                • Caminhe 30min por dia para começar
-                • Foco em criar o hábito primeiro
-                """;
-            case "leve" -> """
-                • Aumente frequência gradualmente
-                • Adicione 1 dia de treino por mês
-                • Varie os tipos de exercício
-                """;
-            case "moderado" -> """
-                • Excelente frequência! Mantenha consistência
-                • Varie intensidade durante a semana
-                • 1-2 dias de descanso ativo
-                """;
-            case "intenso" -> """
-                • Atenção ao overtraining!
-                • Pelo menos 1 dia de descanso completo
-                • Sono de 8-9h é essencial
-                • Considere periodização
-                """;
-            case "muito_intenso", "muito intenso" -> """
-                • CUIDADO: Risco alto de overtraining!
-                • Monitore sinais de fadiga
-                • Sono de 9h+ é obrigatório
-                • Considere acompanhamento profissional
-                • Periodização é essencial
-                """;
-            default -> "Mantenha consistência nos treinos!";
-        };
+    private PlanoMemoizado montarPlano(int idade, double peso,
+                                       Objetivo objetivo, IntensidadeExercicio intensidade) {
+        // Calcular TMB
+        double tmb = calculator.calcularTMB(idade, peso);
+        
+        // Calcular GET
+        double get = calculator.calcularGET(tmb, intensidade);
+        
+        // Calcular calorias do objetivo
+        int calorias = calculator.calcularCalorias(get, objetivo);
+        
+        // Calcular macros
+        DistribuicaoMacros macros = calculator.calcularMacros(calorias, peso, objetivo);
+        
+        // Montar resposta completa (nome entra depois, ao renderizar)
+        String texto = TEMPLATE_PLANO.novo()
+                .s(MARCADOR_NOME)
+                .d(idade)
+                .f(peso)
+                .s(objetivo.getCodigo())
+                .s(intensidade.getCodigo())
+                .f(tmb)
+                .f(get)
+                .d(calorias)
+                .d(macros.proteinas())
+                .d(macros.caloriasProteinas())
+                .d(macros.carboidratos())
+                .d(macros.caloriasCarboidratos())
+                .d(macros.gorduras())
+                .d(macros.caloriasGorduras())
+                .fim();
+        
+        int posicaoNome = texto.indexOf(MARCADOR_NOME);
+        return new PlanoMemoizado(tmb, get, calorias, macros,
+                texto.substring(0, posicaoNome),
+                texto.substring(posicaoNome + MARCADOR_NOME.length()));
     }
-}
\ No newline at end of file
+}
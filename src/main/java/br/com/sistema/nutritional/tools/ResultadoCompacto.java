@@ -0,0 +1,56 @@
+package br.com.sistema.nutritional.tools;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Resultados das tools no formato devolvido ao LLM: JSON só com os números
+ * e códigos (energia em kcal/dia, macros em gramas).
+ *
+ * O texto explicativo com emojis custa centenas de tokens e entra de novo em
+ * cada rodada de tool call; o LLM já escreve a resposta final, então recebe
+ * apenas os dados. O texto completo continua disponível para as respostas
+ * dadas sem LLM ({@code texto*} em {@link NutritionalPlanTools}).
+ */
+final class ResultadoCompacto {
+    
+    private static final ObjectWriter JSON = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .writer();
+    
+    private ResultadoCompacto() {
+    }
+    
+    record Tmb(double tmb) {
+    }
+    
+    record Get(double tmb, String intensidade, double fator, double get) {
+    }
+    
+    record Calorias(double get, String objetivo, int ajustePercentual, int calorias) {
+    }
+    
+    record Macros(int calorias, double proteinasPorKg, int proteinas, int carboidratos, int gorduras) {
+    }
+    
+    record Recomendacoes(String objetivo, String intensidade, List<String> recomendacoes, List<String> ajustes) {
+    }
+    
+    static String json(Object resultado) {
+        try {
+            return JSON.writeValueAsString(resultado);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    // Duas casas bastam ao LLM e evitam 1814.3300000000002 no JSON
+    static double arredondar(double valor) {
+        return Math.round(valor * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,166 @@
+package br.com.sistema.nutritional.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Template de texto pré-compilado para as respostas das tools.
+ *
+ * Aceita o mesmo subconjunto de especificadores usado nos textos das tools
+ * ({@code %s}, {@code %d}, {@code %.Nf} e {@code %%}), mas o parse acontece uma
+ * única vez, na inicialização. A cada chamada apenas os valores variáveis são
+ * escritos, em um {@link StringBuilder} já dimensionado, sem passar pelo
+ * {@link java.util.Formatter}.
+ *
+ * Números decimais usam sempre ponto como separador, independente do locale.
+ *
+ * @author César Augusto
+ * @version 1.0.0
+ */
+public final class TextTemplate {
+
+    private static final long[] POTENCIAS_DE_10 = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    // Folga para os valores variáveis ao dimensionar o buffer
+    private static final int FOLGA_POR_SLOT = 16;
+
+    private final String formato;
+    private final String[] segmentos;
+    private final int[] casasDecimais;
+    private final int capacidade;
+
+    private TextTemplate(String formato, String[] segmentos, int[] casasDecimais) {
+        this.formato = formato;
+        this.segmentos = segmentos;
+        this.casasDecimais = casasDecimais;
+
+        int tamanho = 0;
+        for (String segmento : segmentos) {
+            tamanho += segmento.length();
+        }
+        this.capacidade = tamanho + casasDecimais.length * FOLGA_POR_SLOT;
+    }
+
+    // ==================================
+    // Faz o parse do formato uma única vez
+    // ==================================
+    public static TextTemplate compilar(String formato) {
+        List<String> segmentos = new ArrayList<>();
+        List<Integer> casas = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+
+        int i = 0;
+        while (i < formato.length()) {
+            char c = formato.charAt(i);
+            if (c != '%') {
+                atual.append(c);
+                i++;
+                continue;
+            }
+
+            char proximo = formato.charAt(i + 1);
+            if (proximo == '%') {
+                atual.append('%');
+                i += 2;
+            } else if (proximo == 's' || proximo == 'd') {
+                segmentos.add(atual.toString());
+                atual.setLength(0);
+                casas.add(-1);
+                i += 2;
+            } else if (proximo == '.' && formato.charAt(i + 3) == 'f') {
+                segmentos.add(atual.toString());
+                atual.setLength(0);
+                casas.add(formato.charAt(i + 2) - '0');
+                i += 4;
+            } else {
+                throw new IllegalArgumentException(
+                        "Especificador não suportado na posição " + i + ": " + formato.substring(i, i + 2));
+            }
+        }
+        segmentos.add(atual.toString());
+
+        int[] casasDecimais = new int[casas.size()];
+        for (int j = 0; j < casasDecimais.length; j++) {
+            casasDecimais[j] = casas.get(j);
+        }
+        return new TextTemplate(formato, segmentos.toArray(String[]::new), casasDecimais);
+    }
+
+    // ==================================
+    // Inicia uma renderização
+    // ==================================
+    public Saida novo() {
+        return new Saida();
+    }
+
+    public String formato() {
+        return formato;
+    }
+
+    public int slots() {
+        return casasDecimais.length;
+    }
+
+    /**
+     * Renderização em andamento: cada chamada escreve o próximo segmento fixo
+     * seguido do valor do slot, na ordem em que aparecem no formato.
+     */
+    public final class Saida {
+
+        private final StringBuilder buffer = new StringBuilder(capacidade);
+        private int slot;
+
+        public Saida s(String valor) {
+            buffer.append(segmentos[slot++]).append(valor);
+            return this;
+        }
+
+        public Saida d(long valor) {
+            buffer.append(segmentos[slot++]).append(valor);
+            return this;
+        }
+
+        public Saida f(double valor) {
+            int casas = casasDecimais[slot];
+            buffer.append(segmentos[slot++]);
+            escreverDecimal(buffer, valor, casas);
+            return this;
+        }
+
+        public String fim() {
+            if (slot != casasDecimais.length) {
+                throw new IllegalStateException(
+                        "Template espera " + casasDecimais.length + " valores, recebeu " + slot);
+            }
+            return buffer.append(segmentos[slot]).toString();
+        }
+    }
+
+    // ==================================
+    // Decimal com N casas (arredondamento half-up), sem Formatter
+    // ==================================
+    static void escreverDecimal(StringBuilder buffer, double valor, int casas) {
+        if (Double.isNaN(valor) || Double.isInfinite(valor) || casas < 0 || casas >= POTENCIAS_DE_10.length) {
+            buffer.append(valor);
+            return;
+        }
+
+        long escala = POTENCIAS_DE_10[casas];
+        long escalado = Math.round(Math.abs(valor) * escala);
+        if (valor < 0 && escalado != 0) {
+            buffer.append('-');
+        }
+
+        buffer.append(escalado / escala);
+        if (casas == 0) {
+            return;
+        }
+
+        buffer.append('.');
+        long fracao = escalado % escala;
+        for (long p = escala / 10; p > fracao && p > 1; p /= 10) {
+            buffer.append('0');
+        }
+        buffer.append(fracao);
+    }
+}
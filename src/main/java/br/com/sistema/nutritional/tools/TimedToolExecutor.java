@@ -0,0 +1,63 @@
+package br.com.sistema.nutritional.tools;
+
+import java.util.concurrent.TimeUnit;
+
+import br.com.sistema.nutritional.budget.TokenEstimator;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.service.tool.ToolExecutor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executor de uma @Tool com contagem e tempo de cada invocação
+ * ({@code tools.invocations}, tags {@code tool} e {@code outcome}) e
+ * tokens estimados do resultado que volta ao LLM ({@code tools.result.tokens}).
+ */
+@Slf4j
+public class TimedToolExecutor implements ToolExecutor {
+    
+    private final String tool;
+    private final ToolExecutor delegate;
+    private final Timer sucesso;
+    private final Timer erro;
+    private final DistributionSummary tokensResultado;
+    
+    public TimedToolExecutor(String tool, ToolExecutor delegate, MeterRegistry registry) {
+        this.tool = tool;
+        this.delegate = delegate;
+        this.sucesso = timer(tool, "success", registry);
+        this.erro = timer(tool, "error", registry);
+        this.tokensResultado = DistributionSummary.builder("tools.result.tokens")
+                .description("Tokens estimados do resultado da tool enviado de volta ao LLM")
+                .tag("tool", tool)
+                .register(registry);
+    }
+    
+    private static Timer timer(String tool, String resultado, MeterRegistry registry) {
+        return Timer.builder("tools.invocations")
+                .tag("tool", tool)
+                .tag("outcome", resultado)
+                .register(registry);
+    }
+    
+    @Override
+    public String execute(ToolExecutionRequest request, Object memoryId) {
+        long inicio = System.nanoTime();
+        try {
+            String resultado = delegate.execute(request, memoryId);
+            // As tools devolvem erros de validação como texto começando com ❌
+            Timer timer = resultado != null && resultado.startsWith("❌") ? erro : sucesso;
+            timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            
+            int tokens = TokenEstimator.estimar(resultado);
+            tokensResultado.record(tokens);
+            log.debug("🔧 {}: resultado com ~{} tokens", tool, tokens);
+            return resultado;
+        } catch (RuntimeException e) {
+            erro.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+}
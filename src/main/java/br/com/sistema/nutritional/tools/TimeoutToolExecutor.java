@@ -0,0 +1,58 @@
+package br.com.sistema.nutritional.tools;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.service.tool.ToolExecutor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executor de uma @Tool com tempo máximo.
+ *
+ * O corpo da tool roda numa virtual thread do {@link ToolExecutionPool}; se
+ * passar do timeout, a thread é interrompida e o LLM recebe um erro em texto
+ * (começando com ❌, como os erros de validação), em vez de a resposta inteira
+ * ficar presa na tool mais lenta. O tempo conta desde a submissão, incluindo
+ * a espera por uma vaga do pool; a vaga só é devolvida quando o corpo
+ * realmente termina.
+ */
+@Slf4j
+public class TimeoutToolExecutor implements ToolExecutor {
+    
+    private final String tool;
+    private final ToolExecutor delegate;
+    private final long timeoutMs;
+    private final ToolExecutionPool pool;
+    
+    public TimeoutToolExecutor(String tool, ToolExecutor delegate, Duration timeout, ToolExecutionPool pool) {
+        this.tool = tool;
+        this.delegate = delegate;
+        this.timeoutMs = timeout.toMillis();
+        this.pool = pool;
+    }
+    
+    @Override
+    public String execute(ToolExecutionRequest request, Object memoryId) {
+        Future<String> execucao = pool.submeter(() -> delegate.execute(request, memoryId));
+        try {
+            return execucao.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            execucao.cancel(true);
+            log.warn("⏱️ Tool {} passou de {} ms", tool, timeoutMs);
+            return "❌ A tool " + tool + " não respondeu em " + timeoutMs + " ms. Tente novamente.";
+        } catch (InterruptedException e) {
+            execucao.cancel(true);
+            Thread.currentThread().interrupt();
+            return "❌ Execução da tool " + tool + " interrompida.";
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.sistema.nutritional.tools;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.stereotype.Component;
+
+import br.com.sistema.nutritional.config.ToolExecutionProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Virtual threads para as tools.
+ *
+ * Como {@link Executor}, recebe as tool calls de uma mesma resposta do modelo
+ * (AiServices.executeToolsConcurrently) e as dispara juntas. {@link #submeter}
+ * roda o corpo de cada tool para o {@link TimeoutToolExecutor} poder abandonar
+ * a espera no timeout.
+ *
+ * O limite de {@code maxConcurrent} vale para os corpos: a vaga é tomada na
+ * thread do corpo e só é devolvida quando ele termina de fato. Uma tool que
+ * estourou o timeout e ignora a interrupção continua ocupando a vaga, então
+ * tools lentas nunca passam do limite; quem chega depois espera numa virtual
+ * thread, sem bloquear a thread da requisição.
+ */
+@Component
+@Slf4j
+public class ToolExecutionPool implements Executor, AutoCloseable {
+    
+    private final ExecutorService threads = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("tool-", 0).factory());
+    private final Semaphore vagas;
+    private final int maxConcorrentes;
+    
+    public ToolExecutionPool(ToolExecutionProperties properties, MeterRegistry registry) {
+        this.maxConcorrentes = properties.getMaxConcurrent();
+        this.vagas = new Semaphore(maxConcorrentes);
+        
+        Gauge.builder("tools.execution.active", this, ToolExecutionPool::ativas)
+                .description("Tool calls em execução paralela")
+                .register(registry);
+        
+        log.info("🧵 Tools em paralelo: até {} execuções simultâneas (timeout padrão {})",
+                maxConcorrentes, properties.getTimeout());
+    }
+    
+    @Override
+    public void execute(Runnable tarefa) {
+        threads.execute(tarefa);
+    }
+    
+    // ==================================
+    // Vaga presa ao corpo da tool: cancelado ainda na fila, sai sem vaga;
+    // depois de começar, devolve só quando o corpo termina
+    // ==================================
+    <T> Future<T> submeter(Callable<T> tarefa) {
+        return threads.submit(() -> {
+            vagas.acquire();
+            try {
+                return tarefa.call();
+            } finally {
+                vagas.release();
+            }
+        });
+    }
+    
+    public int ativas() {
+        return maxConcorrentes - vagas.availablePermits();
+    }
+    
+    @Override
+    public void close() {
+        threads.shutdownNow();
+    }
+}
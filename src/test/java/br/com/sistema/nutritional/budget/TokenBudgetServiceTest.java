@@ -0,0 +1,160 @@
+package br.com.sistema.nutritional.budget;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.sistema.nutritional.config.TokenBudgetProperties;
+import br.com.sistema.nutritional.dtos.response.UsoTokensResponse;
+import dev.langchain4j.model.output.TokenUsage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TokenBudgetServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TokenBudgetProperties properties = new TokenBudgetProperties();
+
+    @BeforeEach
+    void configurar() {
+        // Mensagem vazia: cada reserva vale exatamente a saída esperada
+        properties.setLimit(100);
+        properties.setPromptOverheadTokens(0);
+        properties.setReservedOutputTokens(50);
+    }
+
+    @Test
+    void reservasSomamAteOLimiteERecusam() {
+        TokenBudgetService orcamento = new TokenBudgetService(properties, registry);
+
+        orcamento.reservar("a", "");
+        orcamento.reservar("a", "");
+        TokenBudgetExceededException erro = assertThrows(TokenBudgetExceededException.class,
+                () -> orcamento.reservar("a", ""));
+
+        assertTrue(erro.getRetryAfterSeconds() >= 1);
+        UsoTokensResponse uso = orcamento.relatorio("a");
+        assertEquals(100, uso.reservado());
+        assertEquals(0, uso.restante());
+        assertEquals(1, uso.recusadas());
+        assertEquals(1.0, registry.get("llm.budget.rejected").counter().count(), 0.0);
+
+        // Outro cliente tem o próprio orçamento
+        orcamento.reservar("b", "");
+    }
+
+    @Test
+    void registrarTrocaAReservaPeloUsoReal() {
+        TokenBudgetService orcamento = new TokenBudgetService(properties, registry);
+
+        TokenBudgetService.Reserva reserva = orcamento.reservar("a", "");
+        orcamento.registrar(reserva, new TokenUsage(10, 5));
+        // Encerrada uma única vez
+        orcamento.registrar(reserva, new TokenUsage(10, 5));
+        orcamento.liberar(reserva);
+
+        UsoTokensResponse uso = orcamento.relatorio("a");
+        assertEquals(15, uso.consumidoNaJanela());
+        assertEquals(0, uso.reservado());
+        assertEquals(85, uso.restante());
+        assertEquals(10, uso.tokensEntrada());
+        assertEquals(5, uso.tokensSaida());
+        assertEquals(1, uso.chamadas());
+    }
+
+    @Test
+    void semTokenUsageCobraAEstimativaELiberarNaoCobra() {
+        TokenBudgetService orcamento = new TokenBudgetService(properties, registry);
+
+        orcamento.liberar(orcamento.reservar("a", ""));
+        orcamento.registrar(orcamento.reservar("a", "", 20), null);
+
+        UsoTokensResponse uso = orcamento.relatorio("a");
+        assertEquals(70, uso.consumidoNaJanela());
+        assertEquals(0, uso.reservado());
+        assertEquals(1, uso.chamadas());
+    }
+
+    @Test
+    void consumoSaiDaJanela() throws InterruptedException {
+        properties.setWindow(Duration.ofMillis(200));
+        properties.setBuckets(2);
+        TokenBudgetService orcamento = new TokenBudgetService(properties, registry);
+
+        orcamento.registrar(orcamento.reservar("a", ""), new TokenUsage(60, 40));
+        assertThrows(TokenBudgetExceededException.class, () -> orcamento.reservar("a", ""));
+
+        Thread.sleep(350);
+
+        assertEquals(0, orcamento.relatorio("a").consumidoNaJanela());
+        orcamento.reservar("a", "");
+    }
+
+    @Test
+    void desativadoSoContabiliza() {
+        properties.setEnabled(false);
+        TokenBudgetService orcamento = new TokenBudgetService(properties, registry);
+
+        for (int i = 0; i < 5; i++) {
+            orcamento.registrar(orcamento.reservar("a", ""), new TokenUsage(50, 50));
+        }
+
+        assertEquals(500, orcamento.relatorio("a").consumidoNaJanela());
+        assertEquals(0, orcamento.relatorio("a").recusadas());
+    }
+
+    @Test
+    void limpezaRemoveSoClientesOciosos() {
+        properties.setMaxClients(1);
+        TokenBudgetService orcamento = new TokenBudgetService(properties, registry);
+
+        orcamento.reservar("em-andamento", "");
+        orcamento.liberar(orcamento.reservar("ocioso", ""));
+        orcamento.reservar("novo", "");
+
+        assertEquals(2.0, registry.get("llm.budget.clients").gauge().value(), 0.0);
+        assertEquals(50, orcamento.relatorio("em-andamento").reservado());
+        assertEquals(0, orcamento.relatorio("ocioso").chamadas());
+    }
+
+    @Test
+    void limpezaConcorrenteNaoPerdeReservas() throws InterruptedException {
+        // Uma reserva cabe por vez; a limpeza roda a cada milissegundo
+        properties.setLimit(50);
+        properties.setMaxClients(0);
+        properties.setWindow(Duration.ofMillis(12));
+        TokenBudgetService orcamento = new TokenBudgetService(properties, registry);
+        AtomicInteger simultaneas = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    TokenBudgetService.Reserva reserva;
+                    try {
+                        reserva = orcamento.reservar("a", "");
+                    } catch (TokenBudgetExceededException e) {
+                        continue;
+                    }
+                    maximo.accumulateAndGet(simultaneas.incrementAndGet(), Math::max);
+                    simultaneas.decrementAndGet();
+                    orcamento.liberar(reserva);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, maximo.get());
+        assertEquals(0, orcamento.relatorio("a").reservado());
+    }
+}
@@ -0,0 +1,131 @@
+package br.com.sistema.nutritional.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+class LongKeyLruCacheTest {
+
+    // Capacidade mínima: 16 segmentos × 1 conjunto × 4 vias
+    private static final int CAPACIDADE = 64;
+
+    @Test
+    void devolveValorArmazenadoEContaHitsEMisses() {
+        LongKeyLruCache<String> cache = new LongKeyLruCache<>(CAPACIDADE);
+
+        cache.put(42L, "quarenta e dois");
+
+        assertEquals("quarenta e dois", cache.get(42L));
+        assertNull(cache.get(43L));
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(CAPACIDADE, cache.capacidade());
+    }
+
+    @Test
+    void sobrescreveChaveExistenteSemOcuparOutraVia() {
+        LongKeyLruCache<String> cache = new LongKeyLruCache<>(CAPACIDADE);
+        long[] chaves = mesmoConjunto(4);
+        for (long chave : chaves) {
+            cache.put(chave, "v" + chave);
+        }
+
+        cache.put(chaves[0], "novo");
+
+        assertEquals("novo", cache.get(chaves[0]));
+        for (int i = 1; i < chaves.length; i++) {
+            assertEquals("v" + chaves[i], cache.get(chaves[i]));
+        }
+    }
+
+    @Test
+    void conjuntoCheioSubstituiAChaveUsadaHaMaisTempo() {
+        LongKeyLruCache<String> cache = new LongKeyLruCache<>(CAPACIDADE);
+        long[] chaves = mesmoConjunto(5);
+        for (int i = 0; i < 4; i++) {
+            cache.put(chaves[i], "v" + i);
+        }
+
+        // Leitura renova a primeira: a menos recente passa a ser a segunda
+        cache.get(chaves[0]);
+        cache.put(chaves[4], "v4");
+
+        assertNull(cache.get(chaves[1]));
+        assertEquals("v0", cache.get(chaves[0]));
+        assertEquals("v2", cache.get(chaves[2]));
+        assertEquals("v3", cache.get(chaves[3]));
+        assertEquals("v4", cache.get(chaves[4]));
+    }
+
+    @Test
+    void rejeitaChaveZeroEValorNulo() {
+        LongKeyLruCache<String> cache = new LongKeyLruCache<>(CAPACIDADE);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.put(0L, "x"));
+        assertThrows(IllegalArgumentException.class, () -> cache.put(1L, null));
+    }
+
+    // ==================================
+    // Leitura otimista invalidada por escrita concorrente refaz a busca sob
+    // lock de leitura: nunca devolve o valor de outra chave
+    // ==================================
+    @Test
+    void leituraConcorrenteComEscritaNuncaDevolveValorDeOutraChave() throws InterruptedException {
+        LongKeyLruCache<String> cache = new LongKeyLruCache<>(CAPACIDADE);
+        long[] chaves = mesmoConjunto(8);
+        AtomicBoolean parar = new AtomicBoolean();
+        AtomicReference<String> erro = new AtomicReference<>();
+
+        Thread escritor = new Thread(() -> {
+            for (int n = 0; !parar.get(); n++) {
+                long chave = chaves[n % chaves.length];
+                cache.put(chave, chave + ":" + n);
+            }
+        });
+        List<Thread> leitores = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            leitores.add(new Thread(() -> {
+                for (int n = 0; !parar.get(); n++) {
+                    long chave = chaves[n % chaves.length];
+                    String valor = cache.get(chave);
+                    if (valor != null && !valor.startsWith(chave + ":")) {
+                        erro.compareAndSet(null, "chave " + chave + " devolveu " + valor);
+                    }
+                }
+            }));
+        }
+
+        escritor.start();
+        leitores.forEach(Thread::start);
+        Thread.sleep(300);
+        parar.set(true);
+        escritor.join();
+        for (Thread leitor : leitores) {
+            leitor.join();
+        }
+
+        assertNull(erro.get());
+        assertTrue(cache.hits() > 0);
+    }
+
+    // Chaves que caem no mesmo segmento e conjunto (capacidade mínima: um conjunto por segmento)
+    private static long[] mesmoConjunto(int quantidade) {
+        long[] chaves = new long[quantidade];
+        long segmento = LongKeyLruCache.misturar(1L) >>> 60;
+        int encontradas = 0;
+        for (long chave = 1; encontradas < quantidade; chave++) {
+            if (LongKeyLruCache.misturar(chave) >>> 60 == segmento) {
+                chaves[encontradas++] = chave;
+            }
+        }
+        return chaves;
+    }
+}
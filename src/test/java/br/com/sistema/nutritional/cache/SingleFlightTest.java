@@ -0,0 +1,184 @@
+package br.com.sistema.nutritional.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private static final Duration ESPERA = Duration.ofSeconds(5);
+
+    @Test
+    void seguidorRecebeOResultadoDaExecucaoEmAndamento() throws Exception {
+        try (SingleFlight<String> voos = new SingleFlight<>(ESPERA)) {
+            CountDownLatch liberar = new CountDownLatch(1);
+            AtomicInteger execucoes = new AtomicInteger();
+
+            Chamador lider = Chamador.iniciar(() -> voos.executar("k", () -> {
+                execucoes.incrementAndGet();
+                liberar.await();
+                return "resposta";
+            }));
+            lider.aguardarBloqueio();
+            Chamador seguidor = Chamador.iniciar(() -> voos.executar("k", () -> {
+                execucoes.incrementAndGet();
+                return "outra";
+            }));
+            seguidor.aguardarBloqueio();
+            assertEquals(1, voos.emAndamento());
+
+            liberar.countDown();
+
+            SingleFlight.Resposta<String> primeira = lider.resultado();
+            SingleFlight.Resposta<String> segunda = seguidor.resultado();
+            assertEquals("resposta", primeira.valor());
+            assertFalse(primeira.compartilhada());
+            assertEquals("resposta", segunda.valor());
+            assertTrue(segunda.compartilhada());
+            assertEquals(1, execucoes.get());
+            assertEquals(0, voos.emAndamento());
+        }
+    }
+
+    @Test
+    void seguidorRecebeAMesmaExcecao() throws Exception {
+        try (SingleFlight<String> voos = new SingleFlight<>(ESPERA)) {
+            CountDownLatch liberar = new CountDownLatch(1);
+            IllegalStateException erro = new IllegalStateException("falhou");
+
+            Chamador lider = Chamador.iniciar(() -> voos.executar("k", () -> {
+                liberar.await();
+                throw erro;
+            }));
+            lider.aguardarBloqueio();
+            Chamador seguidor = Chamador.iniciar(() -> voos.executar("k", () -> "outra"));
+            seguidor.aguardarBloqueio();
+
+            liberar.countDown();
+
+            assertSame(erro, lider.erro());
+            assertSame(erro, seguidor.erro());
+        }
+    }
+
+    @Test
+    void liderQueDesisteNaoCancelaParaOSeguidor() throws Exception {
+        try (SingleFlight<String> voos = new SingleFlight<>(ESPERA)) {
+            CountDownLatch liberar = new CountDownLatch(1);
+            AtomicInteger interrupcoes = new AtomicInteger();
+
+            Chamador lider = Chamador.iniciar(() -> voos.executar("k", () -> {
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    interrupcoes.incrementAndGet();
+                    throw e;
+                }
+                return "resposta";
+            }));
+            lider.aguardarBloqueio();
+            Chamador seguidor = Chamador.iniciar(() -> voos.executar("k", () -> "outra"));
+            seguidor.aguardarBloqueio();
+
+            lider.thread.interrupt();
+            assertTrue(lider.erro() instanceof InterruptedException);
+
+            liberar.countDown();
+
+            SingleFlight.Resposta<String> resposta = seguidor.resultado();
+            assertEquals("resposta", resposta.valor());
+            assertTrue(resposta.compartilhada());
+            assertEquals(0, interrupcoes.get());
+        }
+    }
+
+    @Test
+    void ultimoADesistirCancelaELiberaAChave() throws Exception {
+        try (SingleFlight<String> voos = new SingleFlight<>(Duration.ofMillis(50))) {
+            CountDownLatch interrompida = new CountDownLatch(1);
+
+            assertThrows(TimeoutException.class, () -> voos.executar("k", () -> {
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    interrompida.countDown();
+                    throw e;
+                }
+                return "nunca";
+            }));
+
+            assertTrue(interrompida.await(5, TimeUnit.SECONDS));
+            assertEquals(0, voos.emAndamento());
+
+            SingleFlight.Resposta<String> nova = voos.executar("k", () -> "nova");
+            assertEquals("nova", nova.valor());
+            assertFalse(nova.compartilhada());
+        }
+    }
+
+    @Test
+    void nadaFicaGuardadoDepoisDaExecucao() throws Exception {
+        try (SingleFlight<String> voos = new SingleFlight<>(ESPERA)) {
+            AtomicInteger execucoes = new AtomicInteger();
+
+            assertEquals("execução 1", voos.executar("k", () -> "execução " + execucoes.incrementAndGet()).valor());
+            assertEquals("execução 2", voos.executar("k", () -> "execução " + execucoes.incrementAndGet()).valor());
+            assertEquals(0, voos.emAndamento());
+        }
+    }
+
+    // Chamador em thread própria, para o teste controlar a ordem de chegada
+    private static final class Chamador {
+
+        private final FutureTask<SingleFlight.Resposta<String>> tarefa;
+        private final Thread thread;
+
+        private Chamador(Callable<SingleFlight.Resposta<String>> chamada) {
+            this.tarefa = new FutureTask<>(chamada);
+            this.thread = new Thread(tarefa);
+        }
+
+        static Chamador iniciar(Callable<SingleFlight.Resposta<String>> chamada) {
+            Chamador chamador = new Chamador(chamada);
+            chamador.thread.start();
+            return chamador;
+        }
+
+        // Esperando o resultado dentro do SingleFlight
+        void aguardarBloqueio() throws InterruptedException {
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (thread.getState() != Thread.State.TIMED_WAITING) {
+                if (System.nanoTime() > limite) {
+                    throw new AssertionError("Chamador não chegou à espera");
+                }
+                Thread.sleep(1);
+            }
+        }
+
+        SingleFlight.Resposta<String> resultado() throws Exception {
+            return tarefa.get(5, TimeUnit.SECONDS);
+        }
+
+        Throwable erro() throws Exception {
+            try {
+                tarefa.get(5, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                return e.getCause();
+            }
+            throw new AssertionError("Esperava uma exceção");
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.sistema.nutritional.intent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.sistema.nutritional.intent.SlotExtractor.Extracao;
+import br.com.sistema.nutritional.models.IntensidadeExercicio;
+import br.com.sistema.nutritional.models.Objetivo;
+
+class SlotExtractorTest {
+
+    private final SlotExtractor extractor = new SlotExtractor();
+
+    @Test
+    void fraseCompletaViraPlano() {
+        Extracao e = extractor.extrair("Tenho 30 anos, peso 80kg, quero emagrecer e treino 4x por semana");
+
+        assertEquals(Intencao.PLANO, e.intencao());
+        assertEquals(30, e.idade());
+        assertEquals(80.0, e.peso(), 0.0);
+        assertEquals(Objetivo.EMAGRECIMENTO, e.objetivo());
+        assertEquals(IntensidadeExercicio.MODERADO, e.intensidade());
+        assertFalse(e.ambigua());
+    }
+
+    @Test
+    void ignoraAcentosEAceitaVirgulaDecimal() {
+        Extracao e = extractor.extrair("Sou SEDENTÁRIA, tenho 45 anos e 92,5 quilos; quero manter o peso");
+
+        assertEquals(IntensidadeExercicio.SEDENTARIO, e.intensidade());
+        assertEquals(92.5, e.peso(), 0.0);
+        assertEquals(45, e.idade());
+        assertEquals(Objetivo.MANUTENCAO, e.objetivo());
+        assertEquals(Intencao.PLANO, e.intencao());
+        assertFalse(e.ambigua());
+    }
+
+    @Test
+    void naoTreinoEhSedentarioENaoNegacao() {
+        Extracao e = extractor.extrair("Não treino, tenho 50 anos e peso 70 kg, quero ganhar massa");
+
+        assertEquals(IntensidadeExercicio.SEDENTARIO, e.intensidade());
+        assertEquals(Objetivo.GANHO_MASSA, e.objetivo());
+        assertEquals(70.0, e.peso(), 0.0);
+        assertFalse(e.ambigua());
+    }
+
+    @Test
+    void metaDePesoNaoEhPesoAtual() {
+        Extracao e = extractor.extrair("Quero perder 10kg, hoje estou com 95kg");
+
+        assertEquals(95.0, e.peso(), 0.0);
+        assertEquals(Objetivo.EMAGRECIMENTO, e.objetivo());
+        assertFalse(e.ambigua());
+    }
+
+    @Test
+    void duracaoNaoEhIdade() {
+        Extracao e = extractor.extrair("Treino há 5 anos e tenho 28 anos");
+
+        assertEquals(28, e.idade());
+        assertFalse(e.ambigua());
+    }
+
+    @Test
+    void frequenciaDiariaEIntensidadeComposta() {
+        assertEquals(IntensidadeExercicio.MUITO_INTENSO, extractor.extrair("treino 2x ao dia").intensidade());
+        assertEquals(IntensidadeExercicio.INTENSO, extractor.extrair("treino uma vez por dia").intensidade());
+        assertEquals(IntensidadeExercicio.LEVE, extractor.extrair("treino duas vezes na semana").intensidade());
+
+        Extracao e = extractor.extrair("meu treino é muito intenso");
+        assertEquals(IntensidadeExercicio.MUITO_INTENSO, e.intensidade());
+        assertFalse(e.ambigua());
+    }
+
+    @Test
+    void tmbSemPedidoDePlano() {
+        Extracao e = extractor.extrair("Qual a minha TMB? Tenho 30 anos e 80 kg");
+
+        assertEquals(Intencao.TMB, e.intencao());
+        assertEquals(30, e.idade());
+        assertEquals(80.0, e.peso(), 0.0);
+
+        assertEquals(Intencao.PLANO, extractor.extrair("Calcule minha TMB e monte uma dieta").intencao());
+    }
+
+    @Test
+    void negacaoEPerguntaVaoParaOLlm() {
+        assertTrue(extractor.extrair("Não quero emagrecer").ambigua());
+        assertTrue(extractor.extrair("O que é TMB?").ambigua());
+        assertTrue(extractor.extrair("Posso comer pão à noite?").ambigua());
+    }
+
+    @Test
+    void conflitoOuValorForaDaFaixaEhAmbiguo() {
+        Extracao conflito = extractor.extrair("Quero emagrecer e ganhar massa");
+        assertTrue(conflito.ambigua());
+        assertNull(conflito.objetivo());
+
+        assertTrue(extractor.extrair("peso 80kg, ou melhor, 85kg").ambigua());
+        assertTrue(extractor.extrair("tenho 150 anos").ambigua());
+    }
+
+    @Test
+    void extraiNomeCapitalizado() {
+        assertEquals("João", extractor.extrair("Oi, me chamo JOÃO e tenho 30 anos").nome());
+        assertEquals("Ana", extractor.extrair("meu nome é ana").nome());
+        assertNull(extractor.extrair("tenho 30 anos").nome());
+    }
+}
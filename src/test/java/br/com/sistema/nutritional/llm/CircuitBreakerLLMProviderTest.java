@@ -0,0 +1,158 @@
+package br.com.sistema.nutritional.llm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.sistema.nutritional.config.LLMProperties;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CircuitBreakerLLMProviderTest {
+
+    private final ProviderFalso provider = new ProviderFalso();
+    private final LLMProperties.CircuitBreakerConfig config = new LLMProperties.CircuitBreakerConfig();
+    private CircuitBreakerLLMProvider breaker;
+
+    @BeforeEach
+    void configurar() {
+        config.setWindowSize(4);
+        config.setMinimumCalls(4);
+        config.setFailureRateThreshold(0.5);
+        config.setOpenDuration(Duration.ofMillis(50));
+        config.setHalfOpenProbes(1);
+        breaker = new CircuitBreakerLLMProvider(provider, config, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void abreQuandoTaxaDeFalhasAtingeOLimiar() {
+        sucessos(2);
+        falhas(2);
+
+        assertFalse(breaker.isAvailable());
+        int chamadas = provider.chamadas;
+        assertThrows(CircuitOpenException.class, () -> breaker.chat("sistema", "oi"));
+        assertEquals(chamadas, provider.chamadas, "circuito aberto não chama o provider");
+    }
+
+    @Test
+    void naoAbreAntesDoMinimoDeChamadas() {
+        falhas(3);
+
+        assertTrue(breaker.isAvailable());
+    }
+
+    @Test
+    void sobrecargaLocalNaoContaComoFalha() {
+        sucessos(2);
+        provider.erro = new LLMCapacityException("limite local");
+        for (int i = 0; i < 4; i++) {
+            assertThrows(LLMCapacityException.class, () -> breaker.chat("sistema", "oi"));
+        }
+
+        assertTrue(breaker.isAvailable());
+    }
+
+    @Test
+    void pernaDeHedgeCanceladaNaoContaComoFalha() {
+        sucessos(2);
+        provider.erro = new RuntimeException("interrompida");
+        AtomicBoolean cancelada = new AtomicBoolean(true);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(RuntimeException.class,
+                    () -> ChamadaCancelada.executar(cancelada, () -> breaker.chat("sistema", "oi")));
+        }
+
+        assertTrue(breaker.isAvailable());
+    }
+
+    @Test
+    void testeComSucessoNoMeioAbertoFechaOCircuito() throws InterruptedException {
+        sucessos(2);
+        falhas(2);
+        Thread.sleep(config.getOpenDuration().toMillis() + 20);
+
+        assertTrue(breaker.isAvailable(), "após openDuration aceita chamada de teste");
+        sucessos(1);
+
+        assertTrue(breaker.isAvailable());
+        falhas(3);
+        assertTrue(breaker.isAvailable(), "janela zerada ao fechar");
+    }
+
+    @Test
+    void falhaNoTesteReabreOCircuito() throws InterruptedException {
+        sucessos(2);
+        falhas(2);
+        Thread.sleep(config.getOpenDuration().toMillis() + 20);
+
+        falhas(1);
+
+        assertFalse(breaker.isAvailable());
+        assertThrows(CircuitOpenException.class, () -> breaker.chat("sistema", "oi"));
+    }
+
+    private void sucessos(int quantidade) {
+        provider.erro = null;
+        for (int i = 0; i < quantidade; i++) {
+            assertEquals("ok", breaker.chat("sistema", "oi"));
+        }
+    }
+
+    private void falhas(int quantidade) {
+        provider.erro = new RuntimeException("HTTP 500");
+        for (int i = 0; i < quantidade; i++) {
+            assertThrows(RuntimeException.class, () -> breaker.chat("sistema", "oi"));
+        }
+    }
+
+    // Provider que responde "ok" ou lança o erro configurado
+    private static final class ProviderFalso implements LLMProvider {
+
+        private RuntimeException erro;
+        private int chamadas;
+
+        @Override
+        public String chat(String systemPrompt, String userMessage) {
+            chamadas++;
+            if (erro != null) {
+                throw erro;
+            }
+            return "ok";
+        }
+
+        @Override
+        public void chatStream(String systemPrompt, String userMessage, StreamingChatResponseHandler handler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getProviderName() {
+            return "Falso";
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public ChatModel getChatModel() {
+            return null;
+        }
+
+        @Override
+        public StreamingChatModel getStreamingChatModel() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package br.com.sistema.nutritional.llm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.sistema.nutritional.config.LLMProperties;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HedgingLLMProviderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LLMProperties.HedgingConfig config = new LLMProperties.HedgingConfig();
+
+    @BeforeEach
+    void configurar() {
+        config.setInitialDelay(Duration.ofMillis(30));
+        config.setMinDelay(Duration.ofMillis(1));
+    }
+
+    @Test
+    void hedgeVenceEPerdedorEhCanceladoComMarca() throws InterruptedException {
+        CountDownLatch interrompida = new CountDownLatch(1);
+        AtomicBoolean marcada = new AtomicBoolean();
+        ProviderFalso lento = new ProviderFalso("lento", () -> {
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                marcada.set(ChamadaCancelada.naThreadAtual());
+                interrompida.countDown();
+                throw new RuntimeException("interrompida", e);
+            }
+            return "nunca";
+        });
+        HedgingLLMProvider hedging = hedging(lento, new ProviderFalso("rapido", () -> "ok"));
+
+        assertEquals("ok", hedging.chat("sistema", "oi"));
+
+        assertTrue(interrompida.await(5, TimeUnit.SECONDS));
+        assertTrue(marcada.get(), "perna perdedora marcada antes da interrupção");
+        assertEquals(1.0, registry.get("llm.hedge.sent").tag("provider", "rapido").counter().count(), 0.0);
+        assertEquals(1.0, registry.get("llm.hedge.wins").tag("provider", "rapido").counter().count(), 0.0);
+    }
+
+    @Test
+    void falhaDoPrimarioAntesDoAtrasoVaiDiretoAoSecundario() {
+        config.setInitialDelay(Duration.ofSeconds(10));
+        HedgingLLMProvider hedging = hedging(
+                new ProviderFalso("falho", () -> {
+                    throw new RuntimeException("HTTP 500");
+                }),
+                new ProviderFalso("reserva", () -> "ok"));
+
+        long inicio = System.nanoTime();
+        assertEquals("ok", hedging.chat("sistema", "oi"));
+
+        assertTrue(System.nanoTime() - inicio < TimeUnit.SECONDS.toNanos(5), "não espera o atraso do hedge");
+        assertEquals(0.0, hedging.taxaHedge(), 0.0);
+    }
+
+    @Test
+    void primarioQueFalhaJuntoComOAtrasoNaoPerdeOSecundario() {
+        // Falha no mesmo instante em que o hedge dispara: qualquer ordem deve chegar ao secundário
+        config.setBudgetRatio(0.5);
+        HedgingLLMProvider hedging = hedging(
+                new ProviderFalso("falho", () -> {
+                    dormir(30);
+                    throw new RuntimeException("HTTP 502");
+                }),
+                new ProviderFalso("reserva", () -> "ok"));
+
+        for (int i = 0; i < 30; i++) {
+            assertEquals("ok", hedging.chat("sistema", "oi"));
+        }
+    }
+
+    @Test
+    void orcamentoLimitaOsHedges() {
+        config.setBudgetRatio(0.0);
+        HedgingLLMProvider hedging = hedging(
+                new ProviderFalso("lento", () -> {
+                    dormir(80);
+                    return "lento";
+                }),
+                new ProviderFalso("rapido", () -> "rapido"));
+
+        assertEquals("rapido", hedging.chat("sistema", "oi"));
+        assertEquals("lento", hedging.chat("sistema", "oi"));
+        assertEquals("lento", hedging.chat("sistema", "oi"));
+
+        assertEquals(1.0, registry.get("llm.hedge.sent").tag("provider", "rapido").counter().count(), 0.0);
+        assertEquals(2.0, registry.get("llm.hedge.budget.exhausted").counter().count(), 0.0);
+    }
+
+    @Test
+    void todosFalhamPropagaOUltimoErro() {
+        HedgingLLMProvider hedging = hedging(
+                new ProviderFalso("a", () -> {
+                    throw new RuntimeException("erro em a");
+                }),
+                new ProviderFalso("b", () -> {
+                    throw new RuntimeException("erro em b");
+                }));
+
+        RuntimeException erro = assertThrows(RuntimeException.class, () -> hedging.chat("sistema", "oi"));
+        assertEquals("erro em b", erro.getMessage());
+    }
+
+    @Test
+    void semProviderDisponivelRecusaComoCircuitoAberto() {
+        ProviderFalso a = new ProviderFalso("a", () -> "ok");
+        ProviderFalso b = new ProviderFalso("b", () -> "ok");
+        a.disponivel = false;
+        b.disponivel = false;
+
+        assertThrows(CircuitOpenException.class, () -> hedging(a, b).chat("sistema", "oi"));
+    }
+
+    private HedgingLLMProvider hedging(LLMProvider... providers) {
+        return new HedgingLLMProvider(List.of(providers), config, registry);
+    }
+
+    private static void dormir(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            throw new RuntimeException("interrompida", e);
+        }
+    }
+
+    // Provider que devolve (ou lança) o que o fornecedor configurado produzir
+    private static final class ProviderFalso implements LLMProvider {
+
+        private final String nome;
+        private final Supplier<String> resposta;
+        private volatile boolean disponivel = true;
+
+        ProviderFalso(String nome, Supplier<String> resposta) {
+            this.nome = nome;
+            this.resposta = resposta;
+        }
+
+        @Override
+        public String chat(String systemPrompt, String userMessage) {
+            return resposta.get();
+        }
+
+        @Override
+        public void chatStream(String systemPrompt, String userMessage, StreamingChatResponseHandler handler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getProviderName() {
+            return nome;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return disponivel;
+        }
+
+        @Override
+        public ChatModel getChatModel() {
+            return null;
+        }
+
+        @Override
+        public StreamingChatModel getStreamingChatModel() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package br.com.sistema.nutritional.llm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.sistema.nutritional.config.LLMProperties;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoadBalancedLLMProviderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void falhaPenalizaOEndpointERepeteNoOutro() {
+        ProviderFalso falho = new ProviderFalso("falho", () -> {
+            throw new RuntimeException("HTTP 429");
+        });
+        ProviderFalso saudavel = new ProviderFalso("saudavel", () -> "ok");
+        LoadBalancedLLMProvider balanceador = new LoadBalancedLLMProvider(
+                List.of(falho, saudavel), List.of(1, 1), registry);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("ok", balanceador.chat("sistema", "oi"));
+        }
+
+        assertTrue(falho.chamadas.get() > 0);
+        assertEquals(10_000.0, latencia("falho"), 0.0);
+        assertEquals(0.0, pendentes("falho"), 0.0);
+        assertEquals(0.0, pendentes("saudavel"), 0.0);
+    }
+
+    @Test
+    void pernaDeHedgeCanceladaNaoPenalizaNemRepete() throws InterruptedException {
+        AtomicInteger chamadasBalanceadas = new AtomicInteger();
+        CountDownLatch interrompida = new CountDownLatch(1);
+        Supplier<String> bloqueia = () -> {
+            chamadasBalanceadas.incrementAndGet();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrompida.countDown();
+                throw new RuntimeException("interrompida", e);
+            }
+            return "nunca";
+        };
+        LoadBalancedLLMProvider balanceador = new LoadBalancedLLMProvider(
+                List.of(new ProviderFalso("a", bloqueia), new ProviderFalso("b", bloqueia)), List.of(1, 1), registry);
+
+        LLMProperties.HedgingConfig config = new LLMProperties.HedgingConfig();
+        config.setInitialDelay(Duration.ofMillis(20));
+        config.setMinDelay(Duration.ofMillis(1));
+        HedgingLLMProvider hedging = new HedgingLLMProvider(
+                List.of(balanceador, new ProviderFalso("rapido", () -> "ok")), config, registry);
+
+        assertEquals("ok", hedging.chat("sistema", "oi"));
+        assertTrue(interrompida.await(5, TimeUnit.SECONDS));
+        // Uma nova tentativa no outro endpoint apareceria aqui
+        Thread.sleep(100);
+
+        assertEquals(1, chamadasBalanceadas.get());
+        for (String endpoint : List.of("a", "b")) {
+            assertEquals(0.0, latencia(endpoint), 0.0);
+            assertEquals(0.0, pendentes(endpoint), 0.0);
+        }
+    }
+
+    @Test
+    void streamLongoNaoEntraNaLatenciaMasErroPenaliza() throws InterruptedException {
+        ProviderFalso unico = new ProviderFalso("unico", () -> "ok");
+        LoadBalancedLLMProvider balanceador = new LoadBalancedLLMProvider(List.of(unico), List.of(1), registry);
+        AtomicInteger terminados = new AtomicInteger();
+        StreamingChatResponseHandler handler = new StreamingChatResponseHandler() {
+            @Override
+            public void onCompleteResponse(ChatResponse completeResponse) {
+                terminados.incrementAndGet();
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                terminados.incrementAndGet();
+            }
+        };
+
+        balanceador.chatStream("sistema", "oi", handler);
+        assertEquals(1.0, pendentes("unico"), 0.0);
+        Thread.sleep(50);
+        unico.stream.onCompleteResponse(ChatResponse.builder().aiMessage(AiMessage.from("ok")).build());
+
+        assertEquals(0.0, pendentes("unico"), 0.0);
+        assertEquals(0.0, latencia("unico"), 0.0);
+
+        balanceador.chatStream("sistema", "oi", handler);
+        unico.stream.onError(new RuntimeException("conexão perdida"));
+
+        assertEquals(0.0, pendentes("unico"), 0.0);
+        assertEquals(10_000.0, latencia("unico"), 0.0);
+        assertEquals(2, terminados.get());
+    }
+
+    private double latencia(String endpoint) {
+        return gauge("llm.balancer.latency.ewma", endpoint).value();
+    }
+
+    private double pendentes(String endpoint) {
+        return gauge("llm.balancer.outstanding", endpoint).value();
+    }
+
+    private Gauge gauge(String nome, String endpoint) {
+        return registry.get(nome).tag("endpoint", endpoint).gauge();
+    }
+
+    // Provider que devolve (ou lança) o que o fornecedor configurado produzir
+    private static final class ProviderFalso implements LLMProvider {
+
+        private final String nome;
+        private final Supplier<String> resposta;
+        private final AtomicInteger chamadas = new AtomicInteger();
+        private StreamingChatResponseHandler stream;
+
+        ProviderFalso(String nome, Supplier<String> resposta) {
+            this.nome = nome;
+            this.resposta = resposta;
+        }
+
+        @Override
+        public String chat(String systemPrompt, String userMessage) {
+            chamadas.incrementAndGet();
+            return resposta.get();
+        }
+
+        @Override
+        public void chatStream(String systemPrompt, String userMessage, StreamingChatResponseHandler handler) {
+            stream = handler;
+        }
+
+        @Override
+        public String getProviderName() {
+            return nome;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public ChatModel getChatModel() {
+            return null;
+        }
+
+        @Override
+        public StreamingChatModel getStreamingChatModel() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.sistema.nutritional.memory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import br.com.sistema.nutritional.config.ChatMemoryProperties;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.memory.ChatMemory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConversationMemoryStoreTest {
+
+    private final ChatMemoryProperties properties = new ChatMemoryProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void janelaDescartaTurnosAntigosERecomecaNumaMensagemDoUsuario() {
+        properties.setMaxMessages(4);
+        ConversationMemoryStore store = new ConversationMemoryStore(properties, registry, null);
+        ChatMemory memoria = store.memoria(ConversationMemoryStore.id("ip:10.0.0.1", "c1"));
+
+        memoria.add(SystemMessage.from("Você é um nutricionista."));
+        memoria.add(UserMessage.from("Tenho 30 anos"));
+        memoria.add(AiMessage.from("Anotado"));
+        memoria.add(UserMessage.from("Peso 80kg"));
+        memoria.add(AiMessage.from("Certo"));
+        memoria.add(UserMessage.from("Qual minha TMB?"));
+
+        List<ChatMessage> mensagens = memoria.messages();
+        assertEquals(4, mensagens.size());
+        assertInstanceOf(SystemMessage.class, mensagens.get(0));
+        assertEquals(UserMessage.from("Peso 80kg"), mensagens.get(1));
+        assertEquals(UserMessage.from("Qual minha TMB?"), mensagens.get(3));
+    }
+
+    @Test
+    void janelaPorTokensRespeitaMaxTokens() {
+        properties.setMaxTokens(20);
+        ConversationMemoryStore store = new ConversationMemoryStore(properties, registry, null);
+        Object id = ConversationMemoryStore.id("ip:10.0.0.1", "c1");
+        ChatMemory memoria = store.memoria(id);
+
+        for (int i = 0; i < 10; i++) {
+            memoria.add(UserMessage.from("pergunta numero " + i + " sobre proteinas"));
+            memoria.add(AiMessage.from("resposta " + i));
+        }
+
+        assertTrue(store.tokens(id) <= 20);
+        assertEquals(AiMessage.from("resposta 9"), memoria.messages().get(memoria.messages().size() - 1));
+    }
+
+    @Test
+    void turnosRemovidosSaoResumidosParaODonoDaConversa() throws InterruptedException {
+        properties.setMaxMessages(2);
+        List<String> donos = new CopyOnWriteArrayList<>();
+        ConversationMemoryStore store = new ConversationMemoryStore(properties, registry,
+                (dono, anterior, removidas) -> {
+                    donos.add(dono);
+                    return "Usuário tem 30 anos";
+                });
+        ChatMemory memoria = store.memoria(ConversationMemoryStore.id("key:abc123", "c1"));
+
+        memoria.add(UserMessage.from("Tenho 30 anos"));
+        memoria.add(AiMessage.from("Anotado"));
+        memoria.add(UserMessage.from("Qual minha TMB?"));
+
+        ChatMessage primeira = null;
+        for (int tentativa = 0; tentativa < 100 && !(primeira instanceof SystemMessage); tentativa++) {
+            Thread.sleep(20);
+            primeira = memoria.messages().get(0);
+        }
+        assertInstanceOf(SystemMessage.class, primeira);
+        assertTrue(((SystemMessage) primeira).text().endsWith("Usuário tem 30 anos"));
+        assertEquals(List.of("key:abc123"), donos);
+    }
+
+    @Test
+    void acimaDoTetoDescartaAConversaUsadaHaMaisTempo() {
+        properties.setStripes(1);
+        properties.setMaxSize(DataSize.ofBytes(2_000));
+        ConversationMemoryStore store = new ConversationMemoryStore(properties, registry, null);
+        List<Object> descartadas = new ArrayList<>();
+        store.aoDescartar(descartadas::add);
+
+        String c1 = ConversationMemoryStore.id("ip:10.0.0.1", "c1");
+        String c2 = ConversationMemoryStore.id("ip:10.0.0.1", "c2");
+        store.memoria(c1).add(UserMessage.from("primeira conversa"));
+        store.memoria(c2).add(UserMessage.from("segunda conversa"));
+
+        // Leitura renova c1: a menos usada passa a ser c2
+        store.memoria(c1).messages();
+        for (int i = 3; descartadas.isEmpty() && i < 1_000; i++) {
+            store.memoria(ConversationMemoryStore.id("ip:10.0.0.1", "c" + i)).add(UserMessage.from("conversa " + i));
+        }
+
+        assertEquals(c2, descartadas.get(0));
+        assertEquals(0, store.tokens(c2));
+        assertTrue(store.tokens(c1) > 0);
+    }
+
+    @Test
+    void memoriaEfemeraNaoEntraNoArmazenamento() {
+        ConversationMemoryStore store = new ConversationMemoryStore(properties, registry, null);
+        String id = ConversationMemoryStore.idEfemero();
+        ChatMemory memoria = store.memoria(id);
+
+        memoria.add(SystemMessage.from("Você é um nutricionista."));
+        memoria.add(UserMessage.from("Qual minha TMB?"));
+
+        assertTrue(ConversationMemoryStore.efemera(id));
+        assertEquals(2, memoria.messages().size());
+        assertEquals(0, store.tokens(id));
+        assertEquals(0.0, registry.get("chat.memory.sessions").gauge().value(), 0.0);
+        assertTrue(store.memoria(id).messages().isEmpty(), "estado vive só no objeto da requisição");
+    }
+
+    @Test
+    void donoEhOClienteAntesDoSeparador() {
+        assertEquals("ip:2001:db8::1", ConversationMemoryStore.dono(ConversationMemoryStore.id("ip:2001:db8::1", "a:b")));
+        assertFalse(ConversationMemoryStore.efemera(ConversationMemoryStore.id("ip:10.0.0.1", "c1")));
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.sistema.nutritional.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTableTest {
+
+    // 10 ticks de 2^16 ns entre duas fichas
+    private static final double REPOSICAO = 1e9 / (10 * 65536.0);
+    private static final long ESPERA_UMA_FICHA = 10L << 16;
+
+    @Test
+    void rajadaAteACapacidade() {
+        TokenBucketTable tabela = new TokenBucketTable(3, REPOSICAO, 1024);
+
+        assertEquals(0, tabela.tentar(1, 1000));
+        assertEquals(0, tabela.tentar(1, 1000));
+        assertEquals(0, tabela.tentar(1, 1000));
+        assertEquals(ESPERA_UMA_FICHA, tabela.tentar(1, 1000));
+    }
+
+    @Test
+    void reposicaoNaTaxaConfigurada() {
+        TokenBucketTable tabela = new TokenBucketTable(3, REPOSICAO, 1024);
+        for (int i = 0; i < 3; i++) {
+            tabela.tentar(1, 1000);
+        }
+
+        assertTrue(tabela.tentar(1, 1005) > 0);
+        assertEquals(0, tabela.tentar(1, 1010));
+        assertEquals(ESPERA_UMA_FICHA, tabela.tentar(1, 1010));
+
+        // Parado bastante tempo: a rajada volta inteira, sem acumular além da capacidade
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, tabela.tentar(1, 100_000));
+        }
+        assertEquals(ESPERA_UMA_FICHA, tabela.tentar(1, 100_000));
+    }
+
+    @Test
+    void clientesTemBucketsSeparados() {
+        TokenBucketTable tabela = new TokenBucketTable(1, REPOSICAO, 1024);
+
+        assertEquals(0, tabela.tentar(1, 1000));
+        assertTrue(tabela.tentar(1, 1000) > 0);
+        assertEquals(0, tabela.tentar(2, 1000));
+    }
+
+    @Test
+    void mesmaDigitalNoMesmoConjuntoDivideOBucket() {
+        TokenBucketTable tabela = new TokenBucketTable(1, REPOSICAO, 1024);
+        long hash = 0x1234_5678_9abc_def0L;
+        long chave = chaveComHash(hash);
+        // Difere só num bit acima do conjunto e abaixo da digital
+        long colidente = chaveComHash(hash ^ (1L << 30));
+        // Difere na digital
+        long outra = chaveComHash(hash ^ (1L << 50));
+
+        assertEquals(0, tabela.tentar(chave, 1000));
+        assertTrue(tabela.tentar(colidente, 1000) > 0);
+        assertEquals(0, tabela.tentar(outra, 1000));
+    }
+
+    @Test
+    void tabelaCheiaDespejaOBucketMaisCheio() {
+        // 4 posições: um único conjunto de 4 vias
+        TokenBucketTable tabela = new TokenBucketTable(3, REPOSICAO, 4);
+        assertEquals(4, tabela.capacidadeClientes());
+
+        for (int i = 0; i < 3; i++) {
+            tabela.tentar(1, 1000);
+        }
+        tabela.tentar(2, 1000);
+        tabela.tentar(3, 1000);
+        tabela.tentar(4, 1000);
+        assertEquals(0, tabela.despejos());
+
+        // Cliente 2 (uma ficha consumida) sai; o 1 (sem fichas) continua limitado
+        assertEquals(0, tabela.tentar(5, 1000));
+        assertEquals(1, tabela.despejos());
+        assertTrue(tabela.tentar(1, 1000) > 0);
+    }
+
+    @Test
+    void despejarBucketJaCheioNaoContaComoDespejo() {
+        TokenBucketTable tabela = new TokenBucketTable(3, REPOSICAO, 4);
+        for (long cliente = 1; cliente <= 4; cliente++) {
+            tabela.tentar(cliente, 1000);
+        }
+
+        assertEquals(0, tabela.tentar(5, 2000));
+        assertEquals(0, tabela.despejos());
+    }
+
+    @Test
+    void recusaParametrosInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketTable(0, 1, 16));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketTable(1, 0, 16));
+    }
+
+    // Inverso do finalizador do MurmurHash3 usado pela tabela: chave que mistura para o hash dado
+    private static long chaveComHash(long hash) {
+        long k = hash;
+        k ^= k >>> 33;
+        k *= inverso(0xc4ceb53a5ed8a4c5L);
+        k ^= k >>> 33;
+        k *= inverso(0xff51afd7ed558ccdL);
+        k ^= k >>> 33;
+        return k;
+    }
+
+    // Inverso multiplicativo módulo 2^64 (Newton), para multiplicadores ímpares
+    private static long inverso(long a) {
+        long x = a;
+        for (int i = 0; i < 5; i++) {
+            x *= 2 - a * x;
+        }
+        return x;
+    }
+}
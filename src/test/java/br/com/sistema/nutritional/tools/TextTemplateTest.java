@@ -0,0 +1,75 @@
+package br.com.sistema.nutritional.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+class TextTemplateTest {
+
+    @Test
+    void renderizaComoFormatterComPontoDecimal() {
+        TextTemplate template = TextTemplate.compilar("TMB de %s: %.1f kcal (%d%% do GET, %.2f)");
+
+        String texto = template.novo().s("Ana").f(1432.56).d(75).f(0.5).fim();
+
+        assertEquals(String.format(Locale.ROOT, "TMB de %s: %.1f kcal (%d%% do GET, %.2f)", "Ana", 1432.56, 75, 0.5),
+                texto);
+        assertEquals(4, template.slots());
+    }
+
+    @Test
+    void decimalNegativoMantemSinal() {
+        assertEquals("-1.3", decimal(-1.25, 1));
+        assertEquals("-12", decimal(-12.4, 0));
+        assertEquals("-0.05", decimal(-0.05, 2));
+    }
+
+    @Test
+    void negativoQueArredondaParaZeroNaoLevaSinal() {
+        assertEquals("0.0", decimal(-0.04, 1));
+        assertEquals("0", decimal(-0.4, 0));
+    }
+
+    @Test
+    void arredondamentoPropagaParaParteInteira() {
+        assertEquals("1.0", decimal(0.96, 1));
+        assertEquals("10.00", decimal(9.9996, 2));
+        assertEquals("100", decimal(99.5, 0));
+        assertEquals("-2.0", decimal(-1.96, 1));
+    }
+
+    @Test
+    void fracaoComZerosAEsquerda() {
+        assertEquals("1.05", decimal(1.05, 2));
+        assertEquals("3.007", decimal(3.007, 3));
+        assertEquals("2.000", decimal(2, 3));
+    }
+
+    @Test
+    void naoNumericoEscritoComoDouble() {
+        assertEquals("NaN", decimal(Double.NaN, 1));
+        assertEquals("Infinity", decimal(Double.POSITIVE_INFINITY, 1));
+        assertEquals("-Infinity", decimal(Double.NEGATIVE_INFINITY, 2));
+    }
+
+    @Test
+    void rejeitaEspecificadorNaoSuportado() {
+        assertThrows(IllegalArgumentException.class, () -> TextTemplate.compilar("valor: %x"));
+    }
+
+    @Test
+    void faltaDeValoresEhErro() {
+        TextTemplate template = TextTemplate.compilar("%s tem %d anos");
+
+        assertThrows(IllegalStateException.class, () -> template.novo().s("Ana").fim());
+    }
+
+    private static String decimal(double valor, int casas) {
+        StringBuilder buffer = new StringBuilder();
+        TextTemplate.escreverDecimal(buffer, valor, casas);
+        return buffer.toString();
+    }
+}